@@ -0,0 +1,152 @@
+package org.folio.edge.oaipmh.benchmark;
+
+import lombok.experimental.UtilityClass;
+
+/**
+ * Generates ListRecords and ListIdentifiers pages of a given size for the benchmarks. Records
+ * follow the shapes of the mocks in src/test/resources/mocks, with an oai_dc or a MARC21 payload.
+ */
+@UtilityClass
+public class OaiPmhPages {
+
+  public static final String OAI_DC = "oai_dc";
+  public static final String MARC21 = "marc21";
+  public static final String RESUMPTION_TOKEN =
+        "bWV0YWRhdGFQcmVmaXg9bWFyYzIxJnRlbmFudElkPWRpa3UmZnJvbT0yMDIzLTA4LTMwJm9mZnNldD0xMDA";
+
+  private static final String OAI_PMH_START = """
+        <?xml version="1.0" encoding="UTF-8" standalone="yes"?>
+        <OAI-PMH xmlns="http://www.openarchives.org/OAI/2.0/" \
+        xmlns:xsi="http://www.w3.org/2001/XMLSchema-instance" \
+        xsi:schemaLocation="http://www.openarchives.org/OAI/2.0/ \
+        http://www.openarchives.org/OAI/2.0/OAI-PMH.xsd">
+            <responseDate>2023-08-31T10:15:30Z</responseDate>
+        """;
+  private static final String OAI_PMH_END = "</OAI-PMH>\n";
+
+  private static final String OAI_DC_METADATA = """
+                    <oai_dc:dc xmlns:oai_dc="http://www.openarchives.org/OAI/2.0/oai_dc/" \
+        xmlns:dc="http://purl.org/dc/elements/1.1/">
+                        <dc:title>Using Structural Metadata to Localize Experience of Digital \
+        Content</dc:title>
+                        <dc:creator>Dushay, Naomi</dc:creator>
+                        <dc:subject>Digital Libraries</dc:subject>
+                        <dc:description>With the increasing technical sophistication of both \
+        information consumers and providers, there is increasing demand for more meaningful \
+        experiences of digital information.</dc:description>
+                        <dc:date>2001-12-14</dc:date>
+                        <dc:identifier>%s</dc:identifier>
+                    </oai_dc:dc>
+        """;
+
+  private static final String MARC21_METADATA = """
+                    <marc:record xmlns:marc="http://www.loc.gov/MARC21/slim">
+                        <marc:leader>01344cam a2200289 a 4500</marc:leader>
+                        <marc:controlfield tag="001">%s</marc:controlfield>
+                        <marc:controlfield tag="005">20230816124024.0</marc:controlfield>
+                        <marc:controlfield tag="008">011214s2001    nyu      b    001 0 eng  \
+        </marc:controlfield>
+                        <marc:datafield tag="020" ind1=" " ind2=" ">
+                            <marc:subfield code="a">9780131103627</marc:subfield>
+                        </marc:datafield>
+                        <marc:datafield tag="100" ind1="1" ind2=" ">
+                            <marc:subfield code="a">Dushay, Naomi.</marc:subfield>
+                        </marc:datafield>
+                        <marc:datafield tag="245" ind1="1" ind2="0">
+                            <marc:subfield code="a">Using structural metadata to localize \
+        experience of digital content /</marc:subfield>
+                            <marc:subfield code="c">Naomi Dushay.</marc:subfield>
+                        </marc:datafield>
+                        <marc:datafield tag="260" ind1=" " ind2=" ">
+                            <marc:subfield code="a">Ithaca, N.Y. :</marc:subfield>
+                            <marc:subfield code="b">Cornell University,</marc:subfield>
+                            <marc:subfield code="c">2001.</marc:subfield>
+                        </marc:datafield>
+                        <marc:datafield tag="650" ind1=" " ind2="0">
+                            <marc:subfield code="a">Digital libraries.</marc:subfield>
+                        </marc:datafield>
+                        <marc:datafield tag="999" ind1="f" ind2="f">
+                            <marc:subfield code="i">%s</marc:subfield>
+                        </marc:datafield>
+                    </marc:record>
+        """;
+
+  /**
+   * Generates a ListRecords page.
+   *
+   * @param recordCount     number of records on the page
+   * @param metadataPrefix  {@link #OAI_DC} or {@link #MARC21}
+   * @param withToken       true to end the page with a resumption token, false for the last page
+   */
+  public static String listRecords(int recordCount, String metadataPrefix, boolean withToken) {
+    var xml = new StringBuilder(OAI_PMH_START)
+          .append("    <request verb=\"ListRecords\" metadataPrefix=\"").append(metadataPrefix)
+          .append("\">http://folio.org/oai</request>\n")
+          .append("    <ListRecords>\n");
+    for (int i = 0; i < recordCount; i++) {
+      var identifier = identifier(i);
+      xml.append("        <record>\n");
+      appendHeader(xml, identifier, "            ");
+      xml.append("            <metadata>\n")
+            .append(MARC21.equals(metadataPrefix)
+                  ? MARC21_METADATA.formatted(i, identifier)
+                  : OAI_DC_METADATA.formatted(identifier))
+            .append("            </metadata>\n")
+            .append("        </record>\n");
+    }
+    appendResumptionToken(xml, recordCount, withToken);
+    return xml.append("    </ListRecords>\n").append(OAI_PMH_END).toString();
+  }
+
+  /**
+   * Generates a ListIdentifiers page.
+   *
+   * @param headerCount number of headers on the page
+   * @param withToken   true to end the page with a resumption token, false for the last page
+   */
+  public static String listIdentifiers(int headerCount, boolean withToken) {
+    var xml = new StringBuilder(OAI_PMH_START)
+          .append("    <request verb=\"ListIdentifiers\" metadataPrefix=\"oai_dc\">")
+          .append("http://folio.org/oai</request>\n")
+          .append("    <ListIdentifiers>\n");
+    for (int i = 0; i < headerCount; i++) {
+      appendHeader(xml, identifier(i), "        ");
+    }
+    appendResumptionToken(xml, headerCount, withToken);
+    return xml.append("    </ListIdentifiers>\n").append(OAI_PMH_END).toString();
+  }
+
+  /**
+   * Generates the noRecordsMatch response that mod-oai-pmh returns for an empty date range.
+   */
+  public static String noRecordsMatch() {
+    return OAI_PMH_START
+          + "    <request verb=\"ListRecords\" metadataPrefix=\"marc21\" from=\"2023-08-30\" "
+          + "until=\"2023-08-31\">http://folio.org/oai</request>\n"
+          + "    <error code=\"noRecordsMatch\">There were no records matching the request "
+          + "criteria.</error>\n"
+          + OAI_PMH_END;
+  }
+
+  private static String identifier(int index) {
+    return "oai:folio.org:university/%08d-e96c-43c9-b990-0194e61e91e7".formatted(index);
+  }
+
+  private static void appendHeader(StringBuilder xml, String identifier, String indent) {
+    xml.append(indent).append("<header>\n")
+          .append(indent).append("    <identifier>").append(identifier).append("</identifier>\n")
+          .append(indent).append("    <datestamp>2023-08-16T12:40:24Z</datestamp>\n")
+          .append(indent).append("    <setSpec>all</setSpec>\n")
+          .append(indent).append("</header>\n");
+  }
+
+  private static void appendResumptionToken(StringBuilder xml, int pageSize, boolean withToken) {
+    if (withToken) {
+      xml.append("        <resumptionToken completeListSize=\"").append(pageSize * 10)
+            .append("\" cursor=\"0\">").append(RESUMPTION_TOKEN).append("</resumptionToken>\n");
+    } else {
+      xml.append("        <resumptionToken completeListSize=\"").append(pageSize)
+            .append("\" cursor=\"0\"/>\n");
+    }
+  }
+}
@@ -0,0 +1,99 @@
+package org.folio.edge.oaipmh.benchmark;
+
+import static java.util.Objects.nonNull;
+
+import io.vertx.core.buffer.Buffer;
+import java.util.concurrent.TimeUnit;
+import org.folio.edge.oaipmh.utils.ResponseConverter;
+import org.folio.edge.oaipmh.utils.ResponseInspector;
+import org.openarchives.oai._2.OAIPMH;
+import org.openarchives.oai._2.ResumptionTokenType;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Classification of list responses into resumption-token-only, last and error responses, as done
+ * by the handler for every list page: the StAX inspection in use and the JAXB unmarshalling it
+ * replaced, kept as a baseline.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+public class ResponseClassificationBenchmark {
+
+  public enum Page {
+    LIST_RECORDS_WITH_TOKEN, LIST_RECORDS_LAST, LIST_IDENTIFIERS_WITH_TOKEN, NO_RECORDS_MATCH
+  }
+
+  public enum Classification {
+    RESUMPTION_TOKEN_ONLY, LAST, ERROR, PASS_THROUGH
+  }
+
+  @Param({"100", "1000", "5000"})
+  private int recordCount;
+
+  @Param
+  private Page page;
+
+  private Buffer buffer;
+
+  @Setup
+  public void setUp() {
+    buffer = Buffer.buffer(switch (page) {
+      case LIST_RECORDS_WITH_TOKEN -> OaiPmhPages.listRecords(recordCount, OaiPmhPages.MARC21,
+            true);
+      case LIST_RECORDS_LAST -> OaiPmhPages.listRecords(recordCount, OaiPmhPages.MARC21, false);
+      case LIST_IDENTIFIERS_WITH_TOKEN -> OaiPmhPages.listIdentifiers(recordCount, true);
+      case NO_RECORDS_MATCH -> OaiPmhPages.noRecordsMatch();
+    });
+  }
+
+  @Benchmark
+  public Classification inspect() {
+    var summary = ResponseInspector.getInstance().inspect(buffer);
+    if (summary.isListRecords() && summary.isResumptionTokenOnly()) {
+      return Classification.RESUMPTION_TOKEN_ONLY;
+    } else if (summary.isLastResponse()) {
+      return Classification.LAST;
+    } else if (summary.isErrorResponse()) {
+      return Classification.ERROR;
+    }
+    return Classification.PASS_THROUGH;
+  }
+
+  @Benchmark
+  public Classification unmarshal() {
+    OAIPMH oaipmh = ResponseConverter.getInstance().toOaiPmh(buffer.toString());
+    ResumptionTokenType token = null;
+    boolean empty = true;
+    if (nonNull(oaipmh.getListRecords())) {
+      token = oaipmh.getListRecords().getResumptionToken();
+      empty = oaipmh.getListRecords().getRecords().isEmpty();
+    } else if (nonNull(oaipmh.getListIdentifiers())) {
+      token = oaipmh.getListIdentifiers().getResumptionToken();
+      empty = oaipmh.getListIdentifiers().getHeaders().isEmpty();
+    }
+    boolean isList = nonNull(oaipmh.getListRecords()) || nonNull(oaipmh.getListIdentifiers());
+    if (nonNull(oaipmh.getListRecords()) && empty && nonNull(token)
+          && !token.getValue().isEmpty()) {
+      return Classification.RESUMPTION_TOKEN_ONLY;
+    } else if (isList && (token == null || token.getValue().isEmpty())) {
+      return Classification.LAST;
+    } else if (!oaipmh.getErrors().isEmpty()) {
+      return Classification.ERROR;
+    }
+    return Classification.PASS_THROUGH;
+  }
+}
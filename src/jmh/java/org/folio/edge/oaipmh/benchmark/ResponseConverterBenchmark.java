@@ -0,0 +1,68 @@
+package org.folio.edge.oaipmh.benchmark;
+
+import io.vertx.core.buffer.Buffer;
+import java.util.concurrent.TimeUnit;
+import org.folio.edge.oaipmh.utils.ResponseConverter;
+import org.openarchives.oai._2.OAIPMH;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Unmarshalling and marshalling of whole ListRecords pages, i.e. the cost the edge pays whenever
+ * a response cannot be passed through or spliced.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+public class ResponseConverterBenchmark {
+
+  @Param({"100", "1000", "5000"})
+  private int recordCount;
+
+  @Param({OaiPmhPages.OAI_DC, OaiPmhPages.MARC21})
+  private String metadataPrefix;
+
+  private final ResponseConverter converter = ResponseConverter.getInstance();
+  private String xml;
+  private Buffer buffer;
+  private OAIPMH oaipmh;
+
+  @Setup
+  public void setUp() {
+    xml = OaiPmhPages.listRecords(recordCount, metadataPrefix, true);
+    buffer = Buffer.buffer(xml);
+    oaipmh = converter.toOaiPmh(xml);
+  }
+
+  @Benchmark
+  public OAIPMH toOaiPmhFromString() {
+    return converter.toOaiPmh(xml);
+  }
+
+  @Benchmark
+  public OAIPMH toOaiPmhFromBuffer() {
+    return converter.toOaiPmh(buffer);
+  }
+
+  @Benchmark
+  public String convertToString() {
+    return converter.convertToString(oaipmh);
+  }
+
+  @Benchmark
+  public Buffer convertToCompactBuffer() {
+    return converter.convertToBuffer(oaipmh, false);
+  }
+}
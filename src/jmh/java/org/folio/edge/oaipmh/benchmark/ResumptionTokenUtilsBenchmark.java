@@ -0,0 +1,57 @@
+package org.folio.edge.oaipmh.benchmark;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import org.folio.edge.oaipmh.utils.ResumptionTokenUtils;
+import org.openarchives.oai._2.RequestType;
+import org.openarchives.oai._2.VerbType;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Parsing and building of the resumption tokens that carry the tenant in multi-tenant harvesting.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class ResumptionTokenUtilsBenchmark {
+
+  private static final String NEXT_TENANT = "university";
+
+  private final RequestType firstRequest = new RequestType()
+        .withVerb(VerbType.LIST_RECORDS)
+        .withMetadataPrefix(OaiPmhPages.MARC21)
+        .withFrom("2023-08-30")
+        .withUntil("2023-08-31");
+  private final RequestType resumedRequest = new RequestType()
+        .withVerb(VerbType.LIST_RECORDS)
+        .withResumptionToken(OaiPmhPages.RESUMPTION_TOKEN);
+
+  @Benchmark
+  public Map<String, String> parseResumptionToken() {
+    return ResumptionTokenUtils.parseResumptionToken(OaiPmhPages.RESUMPTION_TOKEN);
+  }
+
+  @Benchmark
+  public String buildNewResumptionTokenFromArguments() {
+    return ResumptionTokenUtils.buildNewResumptionToken(firstRequest, NEXT_TENANT);
+  }
+
+  /**
+   * The request echoes a resumption token only, so it is parsed for every copied argument.
+   */
+  @Benchmark
+  public String buildNewResumptionTokenFromResumptionToken() {
+    return ResumptionTokenUtils.buildNewResumptionToken(resumedRequest, NEXT_TENANT);
+  }
+}
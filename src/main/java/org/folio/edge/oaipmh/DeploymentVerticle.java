@@ -0,0 +1,27 @@
+package org.folio.edge.oaipmh;
+
+import static org.folio.edge.oaipmh.utils.Constants.SYS_VERTICLE_INSTANCES;
+
+import io.vertx.core.DeploymentOptions;
+import io.vertx.core.Future;
+import io.vertx.core.VerticleBase;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Deploys as many instances of {@link MainVerticle} as configured, by default one per available
+ * core, so that harvesting traffic is spread over that many event loops. The instances share
+ * one handler with its caches, limiters and metrics, see {@link MainVerticle}.
+ */
+@Slf4j
+public class DeploymentVerticle extends VerticleBase {
+
+  @Override
+  public Future<?> start() {
+    int instances = config().getInteger(SYS_VERTICLE_INSTANCES,
+          Integer.getInteger(SYS_VERTICLE_INSTANCES, Runtime.getRuntime().availableProcessors()));
+    return vertx.deployVerticle(MainVerticle.class.getName(), new DeploymentOptions()
+                .setConfig(config())
+                .setInstances(instances))
+          .onSuccess(id -> log.info("Deployed {} instances of the edge module", instances));
+  }
+}
@@ -2,20 +2,53 @@ package org.folio.edge.oaipmh;
 
 import static com.fasterxml.jackson.databind.DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES;
 import static org.folio.edge.core.Constants.SYS_REQUEST_TIMEOUT_MS;
+import static org.folio.edge.oaipmh.utils.Constants.DEFAULT_CREDENTIALS_CACHE_CAPACITY;
+import static org.folio.edge.oaipmh.utils.Constants.DEFAULT_CREDENTIALS_CACHE_ENABLED;
+import static org.folio.edge.oaipmh.utils.Constants.DEFAULT_CREDENTIALS_CACHE_TTL_MS;
+import static org.folio.edge.oaipmh.utils.Constants.DEFAULT_EVENT_LOOP_LAG_PROBE_MS;
+import static org.folio.edge.oaipmh.utils.Constants.DEFAULT_INTERACTIVE_LANE_POOL_SIZE;
+import static org.folio.edge.oaipmh.utils.Constants.DEFAULT_LANES_ENABLED;
+import static org.folio.edge.oaipmh.utils.Constants.DEFAULT_UPSTREAM_MAX_POOL_SIZE;
+import static org.folio.edge.oaipmh.utils.Constants.FOLIO_CLIENT_TLS_ENABLED;
+import static org.folio.edge.oaipmh.utils.Constants.FOLIO_CLIENT_TLS_TRUSTSTOREPASSWORD;
+import static org.folio.edge.oaipmh.utils.Constants.FOLIO_CLIENT_TLS_TRUSTSTOREPATH;
+import static org.folio.edge.oaipmh.utils.Constants.FOLIO_CLIENT_TLS_TRUSTSTORETYPE;
+import static org.folio.edge.oaipmh.utils.Constants.SYS_CREDENTIALS_CACHE_CAPACITY;
+import static org.folio.edge.oaipmh.utils.Constants.SYS_CREDENTIALS_CACHE_ENABLED;
+import static org.folio.edge.oaipmh.utils.Constants.SYS_CREDENTIALS_CACHE_TTL_MS;
+import static org.folio.edge.oaipmh.utils.Constants.SYS_EVENT_LOOP_LAG_PROBE_MS;
+import static org.folio.edge.oaipmh.utils.Constants.SYS_INTERACTIVE_LANE_POOL_SIZE;
+import static org.folio.edge.oaipmh.utils.Constants.SYS_LANES_ENABLED;
+import static org.folio.edge.oaipmh.utils.Constants.SYS_UPSTREAM_MAX_POOL_SIZE;
 
+import io.vertx.core.http.HttpClient;
+import io.vertx.core.http.HttpClientOptions;
+import io.vertx.core.http.HttpHeaders;
 import io.vertx.core.http.HttpMethod;
+import io.vertx.core.http.PoolOptions;
 import io.vertx.core.json.jackson.DatabindCodec;
+import io.vertx.core.net.KeyStoreOptions;
+import io.vertx.core.shareddata.LocalMap;
+import io.vertx.core.shareddata.Shareable;
 import io.vertx.ext.web.Router;
+import io.vertx.ext.web.RoutingContext;
 import io.vertx.ext.web.handler.BodyHandler;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 import lombok.extern.slf4j.Slf4j;
 import org.folio.edge.core.Constants;
 import org.folio.edge.core.EdgeVerticleHttp;
+import org.folio.edge.core.security.SecureStore;
 import org.folio.edge.core.utils.OkapiClientFactory;
 import org.folio.edge.core.utils.OkapiClientFactoryInitializer;
+import org.folio.edge.oaipmh.cache.CachingSecureStore;
+import org.folio.edge.oaipmh.metrics.OaiPmhMetrics;
 
 @Slf4j
 public class MainVerticle extends EdgeVerticleHttp {
 
+  static final String SHARED_COMPONENTS = "edge-oai-pmh.components";
+
   @Override
   public Router defineRoutes() {
     int reqTimeoutMs = config().getInteger(SYS_REQUEST_TIMEOUT_MS);
@@ -26,13 +59,25 @@ public class MainVerticle extends EdgeVerticleHttp {
     }
     DatabindCodec.mapper().configure(FAIL_ON_UNKNOWN_PROPERTIES, false);
 
-    OkapiClientFactory ocf = OkapiClientFactoryInitializer.createInstance(vertx, config());
-    OaiPmhHandler oaiPmhHandler = new OaiPmhHandler(secureStore, ocf);
+    LocalMap<String, SharedComponents> sharedComponents = vertx.sharedData()
+          .getLocalMap(SHARED_COMPONENTS);
+    // instances deployed together share the deployment id
+    var components = sharedComponents.computeIfAbsent(deploymentID(),
+          key -> createComponents());
+    components.instances().incrementAndGet();
+    OaiPmhMetrics metrics = components.metrics();
+    OaiPmhHandler oaiPmhHandler = components.handler();
+    long lagProbeMs = config().getLong(SYS_EVENT_LOOP_LAG_PROBE_MS,
+          DEFAULT_EVENT_LOOP_LAG_PROBE_MS);
+    if (lagProbeMs > 0) {
+      probeEventLoopLag(metrics, lagProbeMs);
+    }
 
     Router router = Router.router(vertx);
     router.route().handler(BodyHandler.create());
 
     router.route(HttpMethod.GET, "/admin/health").handler(this::handleHealthCheck);
+    router.route(HttpMethod.GET, "/admin/metrics").handler(ctx -> handleMetrics(ctx, metrics));
     router.route(HttpMethod.GET, "/oai").handler(oaiPmhHandler::handle);
     router.route(HttpMethod.GET, "/oai/:apiKeyPath").handler(oaiPmhHandler::handle);
     router.route(HttpMethod.POST, "/oai").handler(oaiPmhHandler::handle);
@@ -40,4 +85,105 @@ public class MainVerticle extends EdgeVerticleHttp {
 
     return router;
   }
+
+  /**
+   * Drops the shared handler and metrics once the last instance of the deployment is stopped, so
+   * that they do not outlive an undeploy. The http clients are closed by Vert.x along with the
+   * instance that created them.
+   */
+  @Override
+  public void stop() throws Exception {
+    LocalMap<String, SharedComponents> sharedComponents = vertx.sharedData()
+          .getLocalMap(SHARED_COMPONENTS);
+    var components = sharedComponents.get(deploymentID());
+    if (components != null && components.instances().decrementAndGet() == 0) {
+      sharedComponents.remove(deploymentID());
+      components.handler().close();
+      log.info("Released the handler shared by the instances of deployment {}", deploymentID());
+    }
+    super.stop();
+  }
+
+  /**
+   * Creates the handler and the metrics. They are created by the first instance of the verticle
+   * and shared by all of them, so that the instances share the caches, the calls in flight and
+   * the limits of mod-oai-pmh rather than holding and loading them once per instance.
+   */
+  private SharedComponents createComponents() {
+    OkapiClientFactory ocf = OkapiClientFactoryInitializer.createInstance(vertx, config());
+    OaiPmhMetrics metrics = new OaiPmhMetrics();
+    HttpClient interactiveClient = config().getBoolean(SYS_LANES_ENABLED, DEFAULT_LANES_ENABLED)
+          ? createStreamingClient(config().getInteger(SYS_INTERACTIVE_LANE_POOL_SIZE,
+                DEFAULT_INTERACTIVE_LANE_POOL_SIZE))
+          : null;
+    OaiPmhHandler oaiPmhHandler = new OaiPmhHandler(createCredentialsStore(), ocf,
+          createStreamingClient(config().getInteger(SYS_UPSTREAM_MAX_POOL_SIZE,
+                DEFAULT_UPSTREAM_MAX_POOL_SIZE)),
+          interactiveClient, config(), metrics);
+    return new SharedComponents(oaiPmhHandler, metrics, new AtomicInteger());
+  }
+
+  private SecureStore createCredentialsStore() {
+    if (!config().getBoolean(SYS_CREDENTIALS_CACHE_ENABLED, DEFAULT_CREDENTIALS_CACHE_ENABLED)) {
+      return secureStore;
+    }
+    return new CachingSecureStore(secureStore,
+          config().getInteger(SYS_CREDENTIALS_CACHE_CAPACITY, DEFAULT_CREDENTIALS_CACHE_CAPACITY),
+          config().getLong(SYS_CREDENTIALS_CACHE_TTL_MS, DEFAULT_CREDENTIALS_CACHE_TTL_MS));
+  }
+
+  /**
+   * Measures how late a timer on the event loop of the verticle fires, which is how long the
+   * event loop has been blocked by the work queued before it, and schedules the next probe.
+   */
+  private void probeEventLoopLag(OaiPmhMetrics metrics, long intervalMs) {
+    long due = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(intervalMs);
+    vertx.setTimer(intervalMs, id -> {
+      metrics.eventLoopLagged(Math.max(0, System.nanoTime() - due));
+      probeEventLoopLag(metrics, intervalMs);
+    });
+  }
+
+  private void handleMetrics(RoutingContext ctx, OaiPmhMetrics metrics) {
+    vertx.executeBlocking(metrics::scrape, false)
+          .onSuccess(body -> ctx.response()
+                .putHeader(HttpHeaders.CONTENT_TYPE, OaiPmhMetrics.PROMETHEUS_CONTENT_TYPE)
+                .end(body))
+          .onFailure(ctx::fail);
+  }
+
+  /**
+   * Creates http client that pipes mod-oai-pmh responses which need no inspection. The client
+   * honours the same FOLIO_CLIENT_TLS_* variables as the web clients created by edge-common.
+   *
+   * @param poolSize max connections of the client
+   */
+  private HttpClient createStreamingClient(int poolSize) {
+    var options = new HttpClientOptions().setDecompressionSupported(true);
+    if (Boolean.parseBoolean(getEnvOrConfig(FOLIO_CLIENT_TLS_ENABLED))) {
+      options.setSsl(true);
+      var trustStorePath = getEnvOrConfig(FOLIO_CLIENT_TLS_TRUSTSTOREPATH);
+      if (trustStorePath != null) {
+        options.setTrustOptions(new KeyStoreOptions()
+              .setType(getEnvOrConfig(FOLIO_CLIENT_TLS_TRUSTSTORETYPE))
+              .setPath(trustStorePath)
+              .setPassword(getEnvOrConfig(FOLIO_CLIENT_TLS_TRUSTSTOREPASSWORD)));
+      }
+    }
+    var poolOptions = new PoolOptions().setHttp1MaxSize(poolSize);
+    return vertx.createHttpClient(options, poolOptions);
+  }
+
+  private String getEnvOrConfig(String name) {
+    return config().getString(name, System.getenv(name));
+  }
+
+  /**
+   * Handler and metrics shared by the instances of the verticle through the local shared data,
+   * which requires its values to be {@link Shareable}, along with the number of instances
+   * started with them.
+   */
+  private record SharedComponents(OaiPmhHandler handler, OaiPmhMetrics metrics,
+                                  AtomicInteger instances) implements Shareable {
+  }
 }
@@ -5,19 +5,132 @@ import static java.util.Objects.isNull;
 import static java.util.Objects.nonNull;
 import static java.util.Optional.ofNullable;
 import static org.apache.commons.lang3.ObjectUtils.isEmpty;
-import static org.apache.commons.lang3.ObjectUtils.isNotEmpty;
 import static org.apache.http.HttpStatus.SC_BAD_REQUEST;
+import static org.apache.http.HttpStatus.SC_INTERNAL_SERVER_ERROR;
 import static org.apache.http.HttpStatus.SC_NOT_FOUND;
 import static org.apache.http.HttpStatus.SC_OK;
 import static org.apache.http.HttpStatus.SC_SERVICE_UNAVAILABLE;
 import static org.apache.http.HttpStatus.SC_UNPROCESSABLE_ENTITY;
+import static org.folio.edge.core.Constants.SYS_RESPONSE_COMPRESSION;
 import static org.folio.edge.core.Constants.TEXT_XML;
 import static org.folio.edge.oaipmh.utils.Constants.CENTRAL_TENANT_ID;
+import static org.folio.edge.oaipmh.utils.Constants.DEFAULT_BULK_LANE_MAX_CONCURRENCY;
+import static org.folio.edge.oaipmh.utils.Constants.DEFAULT_BULK_LANE_TIMEOUT_MS;
+import static org.folio.edge.oaipmh.utils.Constants.DEFAULT_EMPTY_WINDOW_CACHE_CAPACITY;
+import static org.folio.edge.oaipmh.utils.Constants.DEFAULT_EMPTY_WINDOW_CACHE_ENABLED;
+import static org.folio.edge.oaipmh.utils.Constants.DEFAULT_EMPTY_WINDOW_CACHE_TTL_MS;
+import static org.folio.edge.oaipmh.utils.Constants.DEFAULT_GET_RECORD_CACHE_ENABLED;
+import static org.folio.edge.oaipmh.utils.Constants.DEFAULT_GET_RECORD_CACHE_MAX_BYTES;
+import static org.folio.edge.oaipmh.utils.Constants.DEFAULT_GET_RECORD_CACHE_OFF_HEAP_THRESHOLD;
+import static org.folio.edge.oaipmh.utils.Constants.DEFAULT_GET_RECORD_CACHE_TTL_MS;
+import static org.folio.edge.oaipmh.utils.Constants.DEFAULT_INTERACTIVE_LANE_MAX_CONCURRENCY;
+import static org.folio.edge.oaipmh.utils.Constants.DEFAULT_INTERACTIVE_LANE_TIMEOUT_MS;
+import static org.folio.edge.oaipmh.utils.Constants.DEFAULT_LANES_ENABLED;
+import static org.folio.edge.oaipmh.utils.Constants.DEFAULT_MARSHAL_FORMATTED_OUTPUT;
+import static org.folio.edge.oaipmh.utils.Constants.DEFAULT_MAX_SKIPPED_TENANTS;
+import static org.folio.edge.oaipmh.utils.Constants.DEFAULT_PARKED_RESPONSES_MAX_BYTES;
+import static org.folio.edge.oaipmh.utils.Constants.DEFAULT_PARKED_RESPONSES_TTL_MS;
+import static org.folio.edge.oaipmh.utils.Constants.DEFAULT_PREFETCH_ENABLED;
+import static org.folio.edge.oaipmh.utils.Constants.DEFAULT_PREFETCH_MAX_BYTES;
+import static org.folio.edge.oaipmh.utils.Constants.DEFAULT_PREFETCH_MAX_IN_FLIGHT_PER_TENANT;
+import static org.folio.edge.oaipmh.utils.Constants.DEFAULT_PREFETCH_TTL_MS;
+import static org.folio.edge.oaipmh.utils.Constants.DEFAULT_RATE_LIMIT_BURST_BYTES;
+import static org.folio.edge.oaipmh.utils.Constants.DEFAULT_RATE_LIMIT_BURST_REQUESTS;
+import static org.folio.edge.oaipmh.utils.Constants.DEFAULT_RATE_LIMIT_BYTES_PER_SECOND;
+import static org.folio.edge.oaipmh.utils.Constants.DEFAULT_RATE_LIMIT_ENABLED;
+import static org.folio.edge.oaipmh.utils.Constants.DEFAULT_RATE_LIMIT_REQUESTS_PER_SECOND;
+import static org.folio.edge.oaipmh.utils.Constants.DEFAULT_RESPONSE_CACHE_CAPACITY;
+import static org.folio.edge.oaipmh.utils.Constants.DEFAULT_RESPONSE_CACHE_ENABLED;
+import static org.folio.edge.oaipmh.utils.Constants.DEFAULT_RESPONSE_CACHE_STALE_TTL_MS;
+import static org.folio.edge.oaipmh.utils.Constants.DEFAULT_RESPONSE_CACHE_TTL_MS;
+import static org.folio.edge.oaipmh.utils.Constants.DEFAULT_RESUMPTION_TOKEN_SPLICE_ENABLED;
+import static org.folio.edge.oaipmh.utils.Constants.DEFAULT_RETRY_AFTER_SECONDS;
+import static org.folio.edge.oaipmh.utils.Constants.DEFAULT_RETRY_AFTER_THRESHOLD_MS;
+import static org.folio.edge.oaipmh.utils.Constants.DEFAULT_SERVER_TIMING_ENABLED;
+import static org.folio.edge.oaipmh.utils.Constants.DEFAULT_TENANTS_CACHE_CAPACITY;
+import static org.folio.edge.oaipmh.utils.Constants.DEFAULT_TENANTS_CACHE_REFRESH_MS;
+import static org.folio.edge.oaipmh.utils.Constants.DEFAULT_TENANTS_CACHE_TTL_MS;
+import static org.folio.edge.oaipmh.utils.Constants.DEFAULT_TENANT_PROBE_PARALLELISM;
+import static org.folio.edge.oaipmh.utils.Constants.DEFAULT_TOKEN_CACHE_CAPACITY;
+import static org.folio.edge.oaipmh.utils.Constants.DEFAULT_TOKEN_RENEW_BEFORE_MS;
+import static org.folio.edge.oaipmh.utils.Constants.DEFAULT_UPSTREAM_COALESCING_ENABLED;
+import static org.folio.edge.oaipmh.utils.Constants.DEFAULT_UPSTREAM_FAIR_QUEUE_PER_API_KEY;
+import static org.folio.edge.oaipmh.utils.Constants.DEFAULT_UPSTREAM_LIMIT_ENABLED;
+import static org.folio.edge.oaipmh.utils.Constants.DEFAULT_UPSTREAM_LIMIT_INITIAL;
+import static org.folio.edge.oaipmh.utils.Constants.DEFAULT_UPSTREAM_LIMIT_LATENCY_THRESHOLD_MS;
+import static org.folio.edge.oaipmh.utils.Constants.DEFAULT_UPSTREAM_LIMIT_MAX;
+import static org.folio.edge.oaipmh.utils.Constants.DEFAULT_UPSTREAM_LIMIT_MIN;
+import static org.folio.edge.oaipmh.utils.Constants.DEFAULT_UPSTREAM_LIMIT_MAX_QUEUE_WAIT_MS;
+import static org.folio.edge.oaipmh.utils.Constants.DEFAULT_UPSTREAM_LIMIT_QUEUE_SIZE;
+import static org.folio.edge.oaipmh.utils.Constants.DEFAULT_XML_OFFLOAD_ENABLED;
+import static org.folio.edge.oaipmh.utils.Constants.DEFAULT_XML_OFFLOAD_QUEUE_SIZE;
+import static org.folio.edge.oaipmh.utils.Constants.DEFAULT_XML_OFFLOAD_VIRTUAL_THREADS;
 import static org.folio.edge.oaipmh.utils.Constants.FROM;
+import static org.folio.edge.oaipmh.utils.Constants.GET_RECORD;
+import static org.folio.edge.oaipmh.utils.Constants.IDENTIFIER;
+import static org.folio.edge.oaipmh.utils.Constants.IDENTIFY;
 import static org.folio.edge.oaipmh.utils.Constants.LIST_IDENTIFIERS;
+import static org.folio.edge.oaipmh.utils.Constants.LIST_METADATA_FORMATS;
 import static org.folio.edge.oaipmh.utils.Constants.LIST_RECORDS;
+import static org.folio.edge.oaipmh.utils.Constants.LIST_SETS;
 import static org.folio.edge.oaipmh.utils.Constants.METADATA_PREFIX;
+import static org.folio.edge.oaipmh.utils.Constants.NO_RECORDS_MATCH;
 import static org.folio.edge.oaipmh.utils.Constants.RESUMPTION_TOKEN;
+import static org.folio.edge.oaipmh.utils.Constants.SET;
+import static org.folio.edge.oaipmh.utils.Constants.SYS_BULK_LANE_MAX_CONCURRENCY;
+import static org.folio.edge.oaipmh.utils.Constants.SYS_BULK_LANE_TIMEOUT_MS;
+import static org.folio.edge.oaipmh.utils.Constants.SYS_EMPTY_WINDOW_CACHE_CAPACITY;
+import static org.folio.edge.oaipmh.utils.Constants.SYS_EMPTY_WINDOW_CACHE_ENABLED;
+import static org.folio.edge.oaipmh.utils.Constants.SYS_EMPTY_WINDOW_CACHE_TTL_MS;
+import static org.folio.edge.oaipmh.utils.Constants.SYS_GET_RECORD_CACHE_ENABLED;
+import static org.folio.edge.oaipmh.utils.Constants.SYS_GET_RECORD_CACHE_MAX_BYTES;
+import static org.folio.edge.oaipmh.utils.Constants.SYS_GET_RECORD_CACHE_OFF_HEAP_THRESHOLD;
+import static org.folio.edge.oaipmh.utils.Constants.SYS_GET_RECORD_CACHE_TTL_MS;
+import static org.folio.edge.oaipmh.utils.Constants.SYS_INTERACTIVE_LANE_MAX_CONCURRENCY;
+import static org.folio.edge.oaipmh.utils.Constants.SYS_INTERACTIVE_LANE_TIMEOUT_MS;
+import static org.folio.edge.oaipmh.utils.Constants.SYS_LANES_ENABLED;
+import static org.folio.edge.oaipmh.utils.Constants.SYS_MARSHAL_FORMATTED_OUTPUT;
+import static org.folio.edge.oaipmh.utils.Constants.SYS_MAX_SKIPPED_TENANTS;
+import static org.folio.edge.oaipmh.utils.Constants.SYS_PARKED_RESPONSES_MAX_BYTES;
+import static org.folio.edge.oaipmh.utils.Constants.SYS_PARKED_RESPONSES_TTL_MS;
+import static org.folio.edge.oaipmh.utils.Constants.SYS_PREFETCH_ENABLED;
+import static org.folio.edge.oaipmh.utils.Constants.SYS_PREFETCH_MAX_BYTES;
+import static org.folio.edge.oaipmh.utils.Constants.SYS_PREFETCH_MAX_IN_FLIGHT_PER_TENANT;
+import static org.folio.edge.oaipmh.utils.Constants.SYS_PREFETCH_TTL_MS;
+import static org.folio.edge.oaipmh.utils.Constants.SYS_RATE_LIMIT_BURST_BYTES;
+import static org.folio.edge.oaipmh.utils.Constants.SYS_RATE_LIMIT_BURST_REQUESTS;
+import static org.folio.edge.oaipmh.utils.Constants.SYS_RATE_LIMIT_BYTES_PER_SECOND;
+import static org.folio.edge.oaipmh.utils.Constants.SYS_RATE_LIMIT_ENABLED;
+import static org.folio.edge.oaipmh.utils.Constants.SYS_RATE_LIMIT_REQUESTS_PER_SECOND;
+import static org.folio.edge.oaipmh.utils.Constants.SYS_RESPONSE_CACHE_CAPACITY;
+import static org.folio.edge.oaipmh.utils.Constants.SYS_RESPONSE_CACHE_ENABLED;
+import static org.folio.edge.oaipmh.utils.Constants.SYS_RESPONSE_CACHE_GZIP_ENABLED;
+import static org.folio.edge.oaipmh.utils.Constants.SYS_RESPONSE_CACHE_STALE_TTL_MS;
+import static org.folio.edge.oaipmh.utils.Constants.SYS_RESPONSE_CACHE_TTL_MS;
+import static org.folio.edge.oaipmh.utils.Constants.SYS_RESUMPTION_TOKEN_SPLICE_ENABLED;
+import static org.folio.edge.oaipmh.utils.Constants.SYS_RETRY_AFTER_SECONDS;
+import static org.folio.edge.oaipmh.utils.Constants.SYS_RETRY_AFTER_THRESHOLD_MS;
+import static org.folio.edge.oaipmh.utils.Constants.SYS_SERVER_TIMING_ENABLED;
+import static org.folio.edge.oaipmh.utils.Constants.SYS_TENANTS_CACHE_CAPACITY;
+import static org.folio.edge.oaipmh.utils.Constants.SYS_TENANTS_CACHE_REFRESH_MS;
+import static org.folio.edge.oaipmh.utils.Constants.SYS_TENANTS_CACHE_TTL_MS;
+import static org.folio.edge.oaipmh.utils.Constants.SYS_TENANT_PROBE_PARALLELISM;
+import static org.folio.edge.oaipmh.utils.Constants.SYS_TOKEN_CACHE_CAPACITY;
+import static org.folio.edge.oaipmh.utils.Constants.SYS_TOKEN_RENEW_BEFORE_MS;
+import static org.folio.edge.oaipmh.utils.Constants.SYS_UPSTREAM_COALESCING_ENABLED;
+import static org.folio.edge.oaipmh.utils.Constants.SYS_UPSTREAM_FAIR_QUEUE_PER_API_KEY;
+import static org.folio.edge.oaipmh.utils.Constants.SYS_UPSTREAM_LIMIT_ENABLED;
+import static org.folio.edge.oaipmh.utils.Constants.SYS_UPSTREAM_LIMIT_INITIAL;
+import static org.folio.edge.oaipmh.utils.Constants.SYS_UPSTREAM_LIMIT_LATENCY_THRESHOLD_MS;
+import static org.folio.edge.oaipmh.utils.Constants.SYS_UPSTREAM_LIMIT_MAX;
+import static org.folio.edge.oaipmh.utils.Constants.SYS_UPSTREAM_LIMIT_MIN;
+import static org.folio.edge.oaipmh.utils.Constants.SYS_UPSTREAM_LIMIT_MAX_QUEUE_WAIT_MS;
+import static org.folio.edge.oaipmh.utils.Constants.SYS_UPSTREAM_LIMIT_QUEUE_SIZE;
+import static org.folio.edge.oaipmh.utils.Constants.SYS_UPSTREAM_TENANT_WEIGHTS;
+import static org.folio.edge.oaipmh.utils.Constants.SYS_XML_OFFLOAD_ENABLED;
+import static org.folio.edge.oaipmh.utils.Constants.SYS_XML_OFFLOAD_POOL_SIZE;
+import static org.folio.edge.oaipmh.utils.Constants.SYS_XML_OFFLOAD_QUEUE_SIZE;
+import static org.folio.edge.oaipmh.utils.Constants.SYS_XML_OFFLOAD_VIRTUAL_THREADS;
 import static org.folio.edge.oaipmh.utils.Constants.TENANT_ID;
 import static org.folio.edge.oaipmh.utils.Constants.UNTIL;
 import static org.folio.edge.oaipmh.utils.Constants.VERB;
@@ -25,36 +138,74 @@ import static org.folio.edge.oaipmh.utils.ResumptionTokenUtils.buildNewResumptio
 import static org.folio.edge.oaipmh.utils.ResumptionTokenUtils.parseResumptionToken;
 
 import com.google.common.collect.Iterables;
+import io.vertx.core.Future;
 import io.vertx.core.MultiMap;
+import io.vertx.core.Promise;
+import io.vertx.core.Vertx;
 import io.vertx.core.buffer.Buffer;
+import io.vertx.core.http.HttpClient;
+import io.vertx.core.http.HttpClientResponse;
 import io.vertx.core.http.HttpHeaders;
 import io.vertx.core.http.HttpServerRequest;
 import io.vertx.core.http.HttpServerResponse;
+import io.vertx.core.json.JsonObject;
 import io.vertx.ext.web.RoutingContext;
-import io.vertx.ext.web.client.HttpResponse;
+import java.time.Instant;
 import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
 import java.util.Set;
 import java.util.concurrent.CompletableFuture;
-import java.util.concurrent.TimeUnit;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.TimeoutException;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
 import java.util.regex.Pattern;
+import java.util.stream.IntStream;
 import lombok.extern.slf4j.Slf4j;
 import org.folio.edge.core.Handler;
-import org.folio.edge.core.cache.Cache;
 import org.folio.edge.core.model.ClientInfo;
 import org.folio.edge.core.security.SecureStore;
 import org.folio.edge.core.utils.ApiKeyUtils;
 import org.folio.edge.core.utils.OkapiClient;
 import org.folio.edge.core.utils.OkapiClientFactory;
+import org.folio.edge.oaipmh.cache.CachedResponse;
+import org.folio.edge.oaipmh.cache.CachingSecureStore;
+import org.folio.edge.oaipmh.cache.EmptyWindowCache;
+import org.folio.edge.oaipmh.cache.GetRecordCache;
+import org.folio.edge.oaipmh.cache.OkapiTokenCache;
+import org.folio.edge.oaipmh.cache.ParkedResponses;
+import org.folio.edge.oaipmh.cache.PrefetchCache;
+import org.folio.edge.oaipmh.cache.ResponseCache;
+import org.folio.edge.oaipmh.cache.ResponseCache.Freshness;
+import org.folio.edge.oaipmh.cache.TenantsCache;
 import org.folio.edge.oaipmh.clients.ConsortiaTenantClient;
+import org.folio.edge.oaipmh.clients.InFlightCalls;
 import org.folio.edge.oaipmh.clients.OaiPmhOkapiClient;
+import org.folio.edge.oaipmh.clients.UpstreamResponse;
+import org.folio.edge.oaipmh.limit.AdaptiveConcurrencyLimiter;
+import org.folio.edge.oaipmh.limit.Lane;
+import org.folio.edge.oaipmh.limit.RateLimiter;
+import org.folio.edge.oaipmh.limit.WeightedFairQueue;
+import org.folio.edge.oaipmh.metrics.OaiPmhMetrics;
+import org.folio.edge.oaipmh.metrics.RequestTimings;
+import org.folio.edge.oaipmh.metrics.RequestTimings.Span;
 import org.folio.edge.oaipmh.utils.ResponseConverter;
+import org.folio.edge.oaipmh.utils.ResponseInspector;
+import org.folio.edge.oaipmh.utils.ResponseSummary;
+import org.folio.edge.oaipmh.utils.ResumptionTokenSplicer;
+import org.folio.edge.oaipmh.utils.XmlProcessingPool;
+import org.openarchives.oai._2.ListIdentifiersType;
 import org.openarchives.oai._2.ListRecordsType;
 import org.openarchives.oai._2.OAIPMH;
+import org.openarchives.oai._2.RequestType;
 import org.openarchives.oai._2.ResumptionTokenType;
+import org.openarchives.oai._2.VerbType;
 
 @Slf4j
 public class OaiPmhHandler extends Handler {
@@ -66,15 +217,210 @@ public class OaiPmhHandler extends Handler {
   private static final String ERROR_FROM_REPOSITORY = "Error in the response from repository: "
         + "status code - %s, response status message - %s %s";
 
-  private final Cache<List<String>> tenantsCache;
+  /**
+   * Routing context key of the tenant the API key belongs to.
+   */
+  private static final String API_KEY_TENANT = "apiKeyTenant";
+  private static final String REQUEST_TIMINGS = "requestTimings";
+  /**
+   * Routing context key of the client the list verb has been sent to mod-oai-pmh with.
+   */
+  private static final String UPSTREAM_CLIENT = "upstreamClient";
+  /**
+   * Routing context key of the position of a multi-tenant harvesting request in the tenants.
+   */
+  private static final String TENANT_SCAN = "tenantScan";
+  /**
+   * Routing context key of the promise completed when the harvester disconnects.
+   */
+  private static final String DISCONNECTION = "disconnection";
+  /**
+   * Routing context key of the probe calls of a request, by call key, to park if the request
+   * takes too long.
+   */
+  private static final String PROBE_CALLS = "probeCalls";
+  private static final String SERVER_TIMING = "Server-Timing";
+  private static final String RETRY_AFTER = "Retry-After";
+  private static final String GZIP = "gzip";
+  private static final String LANE_DEFAULT = "default";
+  private static final String LANE_INTERACTIVE = "interactive";
+  private static final String LANE_BULK = "bulk";
+  /**
+   * Near-static verbs served from the response cache.
+   */
+  private static final Set<String> CACHEABLE_VERBS = Set.of(IDENTIFY, LIST_METADATA_FORMATS,
+        LIST_SETS);
 
-  public OaiPmhHandler(SecureStore secureStore, OkapiClientFactory ocf) {
+  private final TenantsCache tenantsCache;
+  private final OkapiTokenCache tokenCache;
+  private final CachingSecureStore credentialsStore;
+  private final ResponseCache responseCache;
+  private final GetRecordCache getRecordCache;
+  private final PrefetchCache prefetchCache;
+  private final EmptyWindowCache emptyWindowCache;
+  private final InFlightCalls inFlightCalls;
+  private final ParkedResponses parkedResponses;
+  private final Lane interactiveLane;
+  private final Lane bulkLane;
+  private final Map<String, Double> tenantWeights;
+  private final boolean fairQueuePerApiKey;
+  private final RateLimiter rateLimiter;
+  private final XmlProcessingPool xmlProcessingPool;
+  private final OaiPmhMetrics metrics;
+  private final boolean resumptionTokenSpliceEnabled;
+  private final boolean marshalFormattedOutput;
+  private final boolean serverTimingEnabled;
+  private final int tenantProbeParallelism;
+  private final int maxSkippedTenants;
+  private final long retryAfterThresholdMs;
+  private final long retryAfterSeconds;
+
+  /**
+   * Creates the handler.
+   *
+   * @param secureStore       secure store with institutional users credentials
+   * @param ocf               okapi client factory
+   * @param streamingClient   http client used to pipe responses that need no inspection, and
+   *                          to call mod-oai-pmh in the bulk lane
+   * @param interactiveClient http client used to call mod-oai-pmh in the interactive lane, null
+   *                          if lanes are not enabled
+   * @param config            verticle configuration
+   * @param metrics           metrics to record requests to
+   */
+  public OaiPmhHandler(SecureStore secureStore, OkapiClientFactory ocf,
+                       HttpClient streamingClient, HttpClient interactiveClient,
+                       JsonObject config, OaiPmhMetrics metrics) {
     super(secureStore, ocf);
-    tenantsCache = new Cache.Builder<List<String>>()
-          .withTTL(TimeUnit.HOURS.toMillis(1))
-          .withNullValueTTL(0)
-          .withCapacity(100)
-          .build();
+    this.credentialsStore = secureStore instanceof CachingSecureStore cachingSecureStore
+          ? cachingSecureStore
+          : null;
+    if (credentialsStore != null) {
+      metrics.monitorCache(credentialsStore.getPasswords(), OaiPmhMetrics.CACHE_CREDENTIALS);
+    }
+    this.metrics = metrics;
+    resumptionTokenSpliceEnabled = config.getBoolean(SYS_RESUMPTION_TOKEN_SPLICE_ENABLED,
+          DEFAULT_RESUMPTION_TOKEN_SPLICE_ENABLED);
+    marshalFormattedOutput = config.getBoolean(SYS_MARSHAL_FORMATTED_OUTPUT,
+          DEFAULT_MARSHAL_FORMATTED_OUTPUT);
+    serverTimingEnabled = config.getBoolean(SYS_SERVER_TIMING_ENABLED,
+          DEFAULT_SERVER_TIMING_ENABLED);
+    tenantProbeParallelism = config.getInteger(SYS_TENANT_PROBE_PARALLELISM,
+          DEFAULT_TENANT_PROBE_PARALLELISM);
+    maxSkippedTenants = config.getInteger(SYS_MAX_SKIPPED_TENANTS, DEFAULT_MAX_SKIPPED_TENANTS);
+    responseCache = config.getBoolean(SYS_RESPONSE_CACHE_ENABLED, DEFAULT_RESPONSE_CACHE_ENABLED)
+          ? new ResponseCache(
+                config.getInteger(SYS_RESPONSE_CACHE_CAPACITY, DEFAULT_RESPONSE_CACHE_CAPACITY),
+                config.getLong(SYS_RESPONSE_CACHE_TTL_MS, DEFAULT_RESPONSE_CACHE_TTL_MS),
+                config.getLong(SYS_RESPONSE_CACHE_STALE_TTL_MS,
+                      DEFAULT_RESPONSE_CACHE_STALE_TTL_MS),
+                cachedResponseGzipEnabled(config))
+          : null;
+    getRecordCache = config.getBoolean(SYS_GET_RECORD_CACHE_ENABLED,
+          DEFAULT_GET_RECORD_CACHE_ENABLED)
+          ? new GetRecordCache(
+                config.getLong(SYS_GET_RECORD_CACHE_MAX_BYTES, DEFAULT_GET_RECORD_CACHE_MAX_BYTES),
+                config.getLong(SYS_GET_RECORD_CACHE_TTL_MS, DEFAULT_GET_RECORD_CACHE_TTL_MS),
+                config.getInteger(SYS_GET_RECORD_CACHE_OFF_HEAP_THRESHOLD,
+                      DEFAULT_GET_RECORD_CACHE_OFF_HEAP_THRESHOLD),
+                cachedResponseGzipEnabled(config))
+          : null;
+    if (getRecordCache != null) {
+      metrics.monitorCache(getRecordCache.getEntries(), OaiPmhMetrics.CACHE_GET_RECORD);
+    }
+    prefetchCache = config.getBoolean(SYS_PREFETCH_ENABLED, DEFAULT_PREFETCH_ENABLED)
+          ? new PrefetchCache(
+                config.getLong(SYS_PREFETCH_MAX_BYTES, DEFAULT_PREFETCH_MAX_BYTES),
+                config.getLong(SYS_PREFETCH_TTL_MS, DEFAULT_PREFETCH_TTL_MS),
+                config.getInteger(SYS_PREFETCH_MAX_IN_FLIGHT_PER_TENANT,
+                      DEFAULT_PREFETCH_MAX_IN_FLIGHT_PER_TENANT))
+          : null;
+    if (prefetchCache != null) {
+      metrics.registerCache(OaiPmhMetrics.CACHE_PREFETCH);
+      metrics.monitorCache(prefetchCache.getPages(), OaiPmhMetrics.CACHE_PREFETCH);
+    }
+    emptyWindowCache = config.getBoolean(SYS_EMPTY_WINDOW_CACHE_ENABLED,
+          DEFAULT_EMPTY_WINDOW_CACHE_ENABLED)
+          ? new EmptyWindowCache(
+                config.getInteger(SYS_EMPTY_WINDOW_CACHE_CAPACITY,
+                      DEFAULT_EMPTY_WINDOW_CACHE_CAPACITY),
+                config.getLong(SYS_EMPTY_WINDOW_CACHE_TTL_MS, DEFAULT_EMPTY_WINDOW_CACHE_TTL_MS))
+          : null;
+    if (emptyWindowCache != null) {
+      metrics.registerCache(OaiPmhMetrics.CACHE_EMPTY_WINDOWS);
+    }
+    inFlightCalls = config.getBoolean(SYS_UPSTREAM_COALESCING_ENABLED,
+          DEFAULT_UPSTREAM_COALESCING_ENABLED) ? new InFlightCalls() : null;
+    retryAfterThresholdMs = config.getLong(SYS_RETRY_AFTER_THRESHOLD_MS,
+          DEFAULT_RETRY_AFTER_THRESHOLD_MS);
+    retryAfterSeconds = config.getLong(SYS_RETRY_AFTER_SECONDS, DEFAULT_RETRY_AFTER_SECONDS);
+    parkedResponses = retryAfterThresholdMs > 0
+          ? new ParkedResponses(
+                config.getLong(SYS_PARKED_RESPONSES_MAX_BYTES, DEFAULT_PARKED_RESPONSES_MAX_BYTES),
+                config.getLong(SYS_PARKED_RESPONSES_TTL_MS, DEFAULT_PARKED_RESPONSES_TTL_MS))
+          : null;
+    if (parkedResponses != null) {
+      metrics.registerCache(OaiPmhMetrics.CACHE_PARKED);
+      metrics.monitorCache(parkedResponses.getResponses(), OaiPmhMetrics.CACHE_PARKED);
+    }
+    if (config.getBoolean(SYS_LANES_ENABLED, DEFAULT_LANES_ENABLED)) {
+      interactiveLane = createLane(LANE_INTERACTIVE, interactiveClient,
+            config.getInteger(SYS_INTERACTIVE_LANE_MAX_CONCURRENCY,
+                  DEFAULT_INTERACTIVE_LANE_MAX_CONCURRENCY),
+            config.getLong(SYS_INTERACTIVE_LANE_TIMEOUT_MS, DEFAULT_INTERACTIVE_LANE_TIMEOUT_MS),
+            config);
+      bulkLane = createLane(LANE_BULK, streamingClient,
+            config.getInteger(SYS_BULK_LANE_MAX_CONCURRENCY, DEFAULT_BULK_LANE_MAX_CONCURRENCY),
+            config.getLong(SYS_BULK_LANE_TIMEOUT_MS, DEFAULT_BULK_LANE_TIMEOUT_MS), config);
+    } else {
+      interactiveLane = createLane(LANE_DEFAULT, streamingClient, 0, 0, config);
+      bulkLane = interactiveLane;
+    }
+    tenantWeights = WeightedFairQueue.parseWeights(config.getString(SYS_UPSTREAM_TENANT_WEIGHTS));
+    fairQueuePerApiKey = config.getBoolean(SYS_UPSTREAM_FAIR_QUEUE_PER_API_KEY,
+          DEFAULT_UPSTREAM_FAIR_QUEUE_PER_API_KEY);
+    rateLimiter = config.getBoolean(SYS_RATE_LIMIT_ENABLED, DEFAULT_RATE_LIMIT_ENABLED)
+          ? new RateLimiter(
+                config.getDouble(SYS_RATE_LIMIT_REQUESTS_PER_SECOND,
+                      DEFAULT_RATE_LIMIT_REQUESTS_PER_SECOND),
+                config.getDouble(SYS_RATE_LIMIT_BURST_REQUESTS, DEFAULT_RATE_LIMIT_BURST_REQUESTS),
+                config.getDouble(SYS_RATE_LIMIT_BYTES_PER_SECOND,
+                      DEFAULT_RATE_LIMIT_BYTES_PER_SECOND),
+                config.getDouble(SYS_RATE_LIMIT_BURST_BYTES, DEFAULT_RATE_LIMIT_BURST_BYTES))
+          : null;
+    if (rateLimiter != null) {
+      metrics.monitorRateLimiter(rateLimiter);
+    }
+    xmlProcessingPool = config.getBoolean(SYS_XML_OFFLOAD_ENABLED, DEFAULT_XML_OFFLOAD_ENABLED)
+          ? XmlProcessingPool.create(
+                config.getInteger(SYS_XML_OFFLOAD_POOL_SIZE,
+                      Runtime.getRuntime().availableProcessors()),
+                config.getInteger(SYS_XML_OFFLOAD_QUEUE_SIZE, DEFAULT_XML_OFFLOAD_QUEUE_SIZE),
+                config.getBoolean(SYS_XML_OFFLOAD_VIRTUAL_THREADS,
+                      DEFAULT_XML_OFFLOAD_VIRTUAL_THREADS))
+          : XmlProcessingPool.inline();
+    metrics.monitorXmlProcessing(xmlProcessingPool);
+    tenantsCache = new TenantsCache(
+          config.getInteger(SYS_TENANTS_CACHE_CAPACITY, DEFAULT_TENANTS_CACHE_CAPACITY),
+          config.getLong(SYS_TENANTS_CACHE_REFRESH_MS, DEFAULT_TENANTS_CACHE_REFRESH_MS),
+          config.getLong(SYS_TENANTS_CACHE_TTL_MS, DEFAULT_TENANTS_CACHE_TTL_MS),
+          metrics.cache(OaiPmhMetrics.CACHE_TENANTS));
+    tokenCache = new OkapiTokenCache(
+          config.getInteger(SYS_TOKEN_CACHE_CAPACITY, DEFAULT_TOKEN_CACHE_CAPACITY),
+          config.getLong(SYS_TOKEN_RENEW_BEFORE_MS, DEFAULT_TOKEN_RENEW_BEFORE_MS),
+          metrics.registerCache(OaiPmhMetrics.CACHE_TOKENS));
+  }
+
+  /**
+   * Releases the resources of the handler that are not bound to the verticle, once the
+   * verticles sharing it are undeployed.
+   */
+  public void close() {
+    xmlProcessingPool.close();
+  }
+
+  private static boolean cachedResponseGzipEnabled(JsonObject config) {
+    return config.getBoolean(SYS_RESPONSE_CACHE_GZIP_ENABLED,
+          config.getBoolean(SYS_RESPONSE_COMPRESSION, false));
   }
 
   protected void handle(RoutingContext ctx) {
@@ -82,53 +428,629 @@ public class OaiPmhHandler extends Handler {
     log.debug("Client request: {} {}", request.method(), request.absoluteURI());
     log.debug("Client request parameters: " + request.params());
     log.debug("Client request headers: " + Iterables.toString(request.headers()));
+    recordRequestMetrics(ctx);
+    watchDisconnection(ctx);
+    if (serverTimingEnabled) {
+      startRequestTimings(ctx);
+    }
 
     if (!supportedAcceptHeaders(request)) {
       notAcceptableResponse(ctx, request);
       log.error("Provided accept headers are unsupported");
       return;
     }
+    if (rateLimiter != null && isThrottled(ctx)) {
+      return;
+    }
 
+    long tokenStart = System.nanoTime();
     handleCommon(ctx, new String[0], new String[0], (okapiClient, params) -> {
+      timings(ctx).record(Span.TOKEN, tokenStart);
+      ctx.put(API_KEY_TENANT, okapiClient.tenant);
       if (isListRequest(ctx)) {
-        getTenants(okapiClient)
+        getTenants(ctx, okapiClient)
               .thenAccept(list -> {
                 if (isEmpty(list)) {
                   notFound(ctx, "Tenants list is absent or empty");
                 } else if (isSingleTenantHarvesting(list)) {
-                  new OaiPmhOkapiClient(okapiClient).call(request.params(), request.headers(),
-                        response -> handleProxyResponse(ctx, response),
-                        throwable -> oaiPmhFailureHandler(ctx, throwable));
+                  callOaiPmh(ctx, okapiClient);
                 } else {
                   ctx.request().params().set(CENTRAL_TENANT_ID, okapiClient.tenant);
-                  performMultiTenantHarvesting(ctx, list.getFirst());
+                  performMultiTenantHarvesting(ctx, list);
                 }
               });
+      } else if (responseCache != null && CACHEABLE_VERBS.contains(request.getParam(VERB))) {
+        handleCacheableRequest(ctx, okapiClient);
+      } else if (getRecordCache != null && GET_RECORD.equals(request.getParam(VERB))) {
+        handleGetRecordRequest(ctx, okapiClient);
+      } else if (inFlightCalls != null) {
+        long upstreamStart = System.nanoTime();
+        coalesce(okapiClient, request.params(), () -> fetch(ctx, okapiClient, request.params()))
+              .onSuccess(response -> {
+                timings(ctx).record(Span.UPSTREAM, upstreamStart);
+                writeUpstreamResponse(ctx, response);
+              })
+              .onFailure(throwable -> oaiPmhFailureHandler(ctx, throwable));
+      } else {
+        // responses to the other verbs are never rewritten, so they are piped as they come
+        long upstreamStart = System.nanoTime();
+        var lane = lane(ctx);
+        var disconnection = disconnection(ctx);
+        limited(ctx, () -> upstreamClient(okapiClient, lane).send(lane.client(),
+                    request.params(), request.headers(), disconnection),
+              response -> isHealthy(response.statusCode()), disconnection)
+              .onSuccess(response -> {
+                metrics.upstreamResponded(request.getParam(VERB),
+                      System.nanoTime() - upstreamStart);
+                timings(ctx).record(Span.UPSTREAM, upstreamStart);
+                handleStreamedProxyResponse(ctx, response);
+              })
+              .onFailure(throwable -> oaiPmhFailureHandler(ctx, throwable));
+      }
+    });
+  }
+
+  /**
+   * Records latency and size of the response once it is ended or reset, whatever the outcome.
+   */
+  private void recordRequestMetrics(RoutingContext ctx) {
+    long start = System.nanoTime();
+    metrics.requestStarted();
+    ctx.addEndHandler(result -> metrics.requestCompleted(ctx.request().getParam(VERB),
+          ctx.get(API_KEY_TENANT), ctx.response().bytesWritten(), System.nanoTime() - start));
+  }
+
+  /**
+   * Completes the disconnection of the request once the harvester closes or resets the
+   * connection before the response is ended, so that the work done for it can be dropped.
+   */
+  private void watchDisconnection(RoutingContext ctx) {
+    Promise<Void> disconnection = Promise.promise();
+    ctx.put(DISCONNECTION, disconnection);
+    ctx.addEndHandler(result -> {
+      if (result.failed()) {
+        log.info("Harvester has disconnected: {}", result.cause().getMessage());
+        metrics.requestAbandoned();
+        disconnection.tryComplete();
+      }
+    });
+  }
+
+  /**
+   * Sends the spans recorded until the response head is written in the Server-Timing header, and
+   * logs all of them, including the write, once the response is ended or reset.
+   */
+  private void startRequestTimings(RoutingContext ctx) {
+    var timings = new RequestTimings();
+    ctx.put(REQUEST_TIMINGS, timings);
+    long[] writeStart = new long[1];
+    ctx.addHeadersEndHandler(v -> {
+      ctx.response().putHeader(SERVER_TIMING, timings.toServerTiming());
+      writeStart[0] = System.nanoTime();
+    });
+    ctx.addEndHandler(result -> {
+      if (writeStart[0] != 0) {
+        timings.record(Span.WRITE, writeStart[0]);
+      }
+      log.info("Request timings: verb={} tenant={} status={} bytes={} {}",
+            ctx.request().getParam(VERB), ctx.get(API_KEY_TENANT),
+            ctx.response().getStatusCode(), ctx.response().bytesWritten(),
+            timings.toLogString());
+    });
+  }
+
+  private RequestTimings timings(RoutingContext ctx) {
+    RequestTimings timings = ctx.get(REQUEST_TIMINGS);
+    return timings != null ? timings : RequestTimings.DISABLED;
+  }
+
+  private void callOaiPmh(RoutingContext ctx, OkapiClient okapiClient) {
+    var request = ctx.request();
+    ctx.put(UPSTREAM_CLIENT, okapiClient);
+    if (prefetchCache != null && request.getParam(RESUMPTION_TOKEN) != null) {
+      var prefetched = prefetchCache.take(PrefetchCache.key(okapiClient.tenant,
+            request.getParam(VERB), request.getParam(RESUMPTION_TOKEN)));
+      var cacheMeters = metrics.cache(OaiPmhMetrics.CACHE_PREFETCH);
+      if (prefetched != null) {
+        cacheMeters.hit();
+        // a failed prefetch is not reported, the page is requested again instead
+        onCallerContext(prefetched)
+              .onSuccess(body -> processProxyResponse(ctx, SC_OK, null, null, body))
+              .onFailure(throwable -> callOaiPmhUpstream(ctx, okapiClient));
+        return;
+      }
+      cacheMeters.miss();
+    }
+    callOaiPmhUpstream(ctx, okapiClient);
+  }
+
+  private void callOaiPmhUpstream(RoutingContext ctx, OkapiClient okapiClient) {
+    var request = ctx.request();
+    long upstreamStart = System.nanoTime();
+    if (parkedResponses == null || !isFirstRequest(request)) {
+      var upstream = inFlightCalls == null
+            ? fetch(ctx, okapiClient, request.params(), request.headers(), disconnection(ctx))
+            : coalesce(okapiClient, request.params(),
+                  () -> fetch(ctx, okapiClient, request.params()));
+      upstream.onSuccess(response -> processUpstreamResponse(ctx, upstreamStart, response))
+            .onFailure(throwable -> oaiPmhFailureHandler(ctx, throwable));
+      return;
+    }
+    var key = callKey(okapiClient.tenant, request.params());
+    var cacheMeters = metrics.cache(OaiPmhMetrics.CACHE_PARKED);
+    var upstream = parkedResponses.take(key);
+    if (upstream != null) {
+      cacheMeters.hit();
+      upstream = onCallerContext(upstream);
+    } else {
+      cacheMeters.miss();
+      upstream = coalesce(okapiClient, request.params(),
+            () -> fetch(ctx, okapiClient, request.params()));
+    }
+    awaitOrPark(ctx, key, upstream, upstreamStart);
+  }
+
+  /**
+   * Waits for the response to a first request until the threshold. If it takes longer, the
+   * harvester gets 503 with Retry-After, and the call is parked to keep running, so that its
+   * response can be served when the harvester retries.
+   */
+  private void awaitOrPark(RoutingContext ctx, String key, Future<UpstreamResponse> upstream,
+                           long upstreamStart) {
+    var vertx = ctx.vertx();
+    long timerId = vertx.setTimer(retryAfterThresholdMs, id -> {
+      log.info("Response is not ready in time, asking to retry later, key: {}", key);
+      parkedResponses.park(key, upstream);
+      retryLater(ctx);
+    });
+    upstream.onComplete(result -> {
+      // a fired timer has parked the call, and the harvester has its answer already
+      if (!vertx.cancelTimer(timerId)) {
+        return;
+      }
+      if (result.succeeded()) {
+        processUpstreamResponse(ctx, upstreamStart, result.result());
       } else {
-        new OaiPmhOkapiClient(okapiClient).call(request.params(), request.headers(),
-              response -> handleProxyResponse(ctx, response),
-              throwable -> oaiPmhFailureHandler(ctx, throwable));
+        oaiPmhFailureHandler(ctx, result.cause());
       }
     });
   }
 
+  /**
+   * Ends the response with 503 and Retry-After, which OAI-PMH harvesters honour for flow
+   * control.
+   */
+  private void retryLater(RoutingContext ctx) {
+    retryLater(ctx, retryAfterSeconds);
+  }
+
+  private void retryLater(RoutingContext ctx, long seconds) {
+    ctx.response()
+          .setStatusCode(SC_SERVICE_UNAVAILABLE)
+          .putHeader(RETRY_AFTER, String.valueOf(seconds))
+          .end();
+  }
+
+  /**
+   * Takes the request from the rate limit budgets of its API key, or ends it with 503 and the
+   * time until the budgets allow it in Retry-After. The size of the response is taken from the
+   * bytes budget once the response is ended. Missing or malformed API keys are not limited, they
+   * are refused by the API key validation anyway.
+   *
+   * @return true if the request is throttled
+   */
+  private boolean isThrottled(RoutingContext ctx) {
+    var apiKey = keyHelper.getApiKey(ctx);
+    if (apiKey == null) {
+      return false;
+    }
+    ClientInfo clientInfo;
+    try {
+      clientInfo = ApiKeyUtils.parseApiKey(apiKey);
+    } catch (ApiKeyUtils.MalformedApiKeyException e) {
+      return false;
+    }
+    var key = clientInfo.salt + '&' + clientInfo.tenantId + '&' + clientInfo.username;
+    var throttling = rateLimiter.tryAcquire(key);
+    if (throttling == null) {
+      ctx.addEndHandler(result -> rateLimiter.recordBytes(key, ctx.response().bytesWritten()));
+      return false;
+    }
+    // the API key has not been validated yet, so its tenant is only logged and not used to tag
+    // the request metrics
+    log.info("Request is throttled, tenant: {}, budget: {}, retry after: {}s",
+          clientInfo.tenantId, throttling.budget(), throttling.retryAfterSeconds());
+    metrics.requestThrottled(throttling.budget());
+    retryLater(ctx, throttling.retryAfterSeconds());
+    return true;
+  }
+
+  private void processUpstreamResponse(RoutingContext ctx, long upstreamStart,
+                                       UpstreamResponse response) {
+    processUpstreamResponse(ctx, upstreamStart, response, null);
+  }
+
+  /**
+   * Processes the response of mod-oai-pmh.
+   *
+   * @param summary summary of the response if it has been inspected already, null otherwise
+   */
+  private void processUpstreamResponse(RoutingContext ctx, long upstreamStart,
+                                       UpstreamResponse response, ResponseSummary summary) {
+    if (isDisconnected(ctx)) {
+      return;
+    }
+    timings(ctx).record(Span.UPSTREAM, upstreamStart);
+    processProxyResponse(ctx, response.statusCode(), response.statusMessage(),
+          response.contentEncoding(), response.body(), summary);
+  }
+
+  /**
+   * Makes the call, or shares the response of an identical running call if coalescing is
+   * enabled.
+   *
+   * @param parameters parameters of the call
+   * @param call       makes the call
+   */
+  private Future<UpstreamResponse> coalesce(OkapiClient okapiClient, MultiMap parameters,
+                                            Supplier<Future<UpstreamResponse>> call) {
+    if (inFlightCalls == null) {
+      return call.get();
+    }
+    var key = callKey(okapiClient.tenant, parameters);
+    var verb = parameters.get(VERB);
+    return onCallerContext(inFlightCalls.call(key, call, () -> metrics.upstreamCoalesced(verb)));
+  }
+
+  /**
+   * Builds the key identical calls to mod-oai-pmh are coalesced and parked by.
+   */
+  private static String callKey(String tenant, MultiMap parameters) {
+    return InFlightCalls.key(tenant, OaiPmhOkapiClient.getParametersAsString(parameters));
+  }
+
+  /**
+   * Returns the future completed on the context of the caller. The caches, calls in flight and
+   * limiters are shared by all instances of the verticle, so a future they hand out may be
+   * completed on the event loop of another instance, while the request must be carried on on
+   * its own.
+   */
+  private static <T> Future<T> onCallerContext(Future<T> future) {
+    var context = Vertx.currentContext();
+    if (context == null || future.isComplete()) {
+      return future;
+    }
+    Promise<T> promise = Promise.promise();
+    future.onComplete(result -> {
+      if (Vertx.currentContext() == context) {
+        promise.handle(result);
+      } else {
+        context.runOnContext(v -> promise.handle(result));
+      }
+    });
+    return promise.future();
+  }
+
+  /**
+   * Calls mod-oai-pmh and reads the whole response. The call is reset if the harvester
+   * disconnects before the response is read, unless the call may be shared with other requests.
+   * As the response may be shared, stored or parked, the call does not carry the headers of the
+   * harvester's request.
+   */
+  private Future<UpstreamResponse> fetch(RoutingContext ctx, OkapiClient okapiClient,
+                                         MultiMap parameters) {
+    Future<Void> cancellation = inFlightCalls == null
+          ? disconnection(ctx)
+          : Promise.<Void>promise().future();
+    return fetch(ctx, okapiClient, parameters, MultiMap.caseInsensitiveMultiMap(), cancellation);
+  }
+
+  /**
+   * Calls mod-oai-pmh for the harvester's request alone, with the headers of the request, and
+   * reads the whole response.
+   *
+   * @param cancellation completed when the call is no longer needed, the call is reset then
+   */
+  private Future<UpstreamResponse> fetch(RoutingContext ctx, OkapiClient okapiClient,
+                                         MultiMap parameters, MultiMap headers,
+                                         Future<Void> cancellation) {
+    long upstreamStart = System.nanoTime();
+    var lane = lane(ctx);
+    var upstream = limited(ctx, () -> upstreamClient(okapiClient, lane)
+          .send(lane.client(), parameters, headers, cancellation)
+          .compose(response -> {
+            metrics.upstreamResponded(parameters.get(VERB), System.nanoTime() - upstreamStart);
+            return response.body().map(body -> new UpstreamResponse(response.statusCode(),
+                  response.statusMessage(), response.getHeader(HttpHeaders.CONTENT_ENCODING),
+                  body));
+          }), response -> isHealthy(response.statusCode()), cancellation);
+    cancellation.onComplete(result -> {
+      if (!upstream.isComplete()) {
+        log.info("Call to tenant {} is no longer needed, it is reset", okapiClient.tenant);
+        metrics.upstreamCancelled();
+      }
+    });
+    return upstream;
+  }
+
+  /**
+   * Makes the call once the concurrency limit of the lane of the request allows it, or fails with
+   * {@link AdaptiveConcurrencyLimiter.RejectedException} if too many calls are waiting already or
+   * if the call has waited too long. Waiting calls are queued per tenant of the API key, or per
+   * API key if configured so, and dispatched by the weight of the tenant. The first pages of list
+   * requests, which may take hours, do not time the latency of mod-oai-pmh, and calls reset
+   * because they are no longer needed leave the limit as it is.
+   *
+   * @param call         makes the call
+   * @param healthy      tells whether the response shows mod-oai-pmh coping with the load
+   * @param cancellation completed when the call is no longer needed
+   */
+  private <T> Future<T> limited(RoutingContext ctx, Supplier<Future<T>> call,
+                                Predicate<T> healthy, Future<Void> cancellation) {
+    var limiter = lane(ctx).limiter();
+    if (limiter == null) {
+      return call.get();
+    }
+    String tenant = ctx.get(API_KEY_TENANT);
+    var flow = fairQueuePerApiKey ? tenant + '&' + keyHelper.getApiKey(ctx) : tenant;
+    boolean timed = !isListRequest(ctx) || !isFirstRequest(ctx.request());
+    long queueStart = System.nanoTime();
+    return onCallerContext(limiter.acquire(ctx.vertx(), flow,
+                tenantWeights.getOrDefault(tenant, 1.0)))
+          .onSuccess(permit -> metrics.upstreamQueued(tenant, System.nanoTime() - queueStart))
+          .onFailure(throwable -> metrics.upstreamRejected())
+          .compose(permit -> call.get()
+                .andThen(result -> {
+                  if (result.failed() && cancellation.isComplete()) {
+                    permit.cancel();
+                  } else {
+                    permit.release(result.succeeded() && healthy.test(result.result()), timed);
+                  }
+                }));
+  }
+
+  /**
+   * Makes a background call only if the concurrency limit of the lane allows it at once.
+   */
+  private <T> Future<T> limitedInBackground(Lane lane, Supplier<Future<T>> call,
+                                            Predicate<T> healthy) {
+    if (lane.limiter() == null) {
+      return call.get();
+    }
+    var permit = lane.limiter().tryAcquire();
+    if (permit == null) {
+      return Future.failedFuture("Concurrency limit of the repository is reached");
+    }
+    return call.get()
+          .andThen(result -> permit.release(result.succeeded() && healthy.test(result.result())));
+  }
+
+  /**
+   * Creates a lane. Its calls are capped at maxConcurrency, and the cap is the upper bound of
+   * the adaptive limit if upstream_limit_enabled is set.
+   *
+   * @param maxConcurrency max concurrent calls of the lane, 0 for no cap
+   */
+  private Lane createLane(String name, HttpClient client, int maxConcurrency, long timeoutMs,
+                          JsonObject config) {
+    int cap = maxConcurrency > 0 ? maxConcurrency : Integer.MAX_VALUE;
+    int queueSize = config.getInteger(SYS_UPSTREAM_LIMIT_QUEUE_SIZE,
+          DEFAULT_UPSTREAM_LIMIT_QUEUE_SIZE);
+    long maxQueueWaitMs = config.getLong(SYS_UPSTREAM_LIMIT_MAX_QUEUE_WAIT_MS,
+          DEFAULT_UPSTREAM_LIMIT_MAX_QUEUE_WAIT_MS);
+    AdaptiveConcurrencyLimiter limiter = null;
+    if (config.getBoolean(SYS_UPSTREAM_LIMIT_ENABLED, DEFAULT_UPSTREAM_LIMIT_ENABLED)) {
+      int max = Math.min(cap, config.getInteger(SYS_UPSTREAM_LIMIT_MAX,
+            DEFAULT_UPSTREAM_LIMIT_MAX));
+      limiter = new AdaptiveConcurrencyLimiter(
+            config.getInteger(SYS_UPSTREAM_LIMIT_INITIAL, DEFAULT_UPSTREAM_LIMIT_INITIAL),
+            Math.min(max, config.getInteger(SYS_UPSTREAM_LIMIT_MIN, DEFAULT_UPSTREAM_LIMIT_MIN)),
+            max, queueSize, maxQueueWaitMs, config.getLong(
+                  SYS_UPSTREAM_LIMIT_LATENCY_THRESHOLD_MS,
+                  DEFAULT_UPSTREAM_LIMIT_LATENCY_THRESHOLD_MS));
+    } else if (maxConcurrency > 0) {
+      // fixed limit, as min and max are the same the latency threshold never applies
+      limiter = new AdaptiveConcurrencyLimiter(cap, cap, cap, queueSize, maxQueueWaitMs,
+            Long.MAX_VALUE);
+    }
+    if (limiter != null) {
+      metrics.monitorLimiter(limiter, name);
+    }
+    return new Lane(name, client, limiter, timeoutMs);
+  }
+
+  /**
+   * Returns the lane of the request: list requests, whose first pages may take hours, are
+   * bulk, the other verbs are interactive.
+   */
+  private Lane lane(RoutingContext ctx) {
+    return isListRequest(ctx) ? bulkLane : interactiveLane;
+  }
+
+  private static OaiPmhOkapiClient upstreamClient(OkapiClient okapiClient, Lane lane) {
+    return new OaiPmhOkapiClient(okapiClient, lane.timeoutMs());
+  }
+
+  private static boolean isHealthy(int statusCode) {
+    return statusCode < SC_INTERNAL_SERVER_ERROR;
+  }
+
+  /**
+   * Returns the future completed once the harvester closes or resets the connection before the
+   * response is ended.
+   */
+  private Future<Void> disconnection(RoutingContext ctx) {
+    Promise<Void> disconnection = ctx.get(DISCONNECTION);
+    return disconnection != null ? disconnection.future() : Promise.<Void>promise().future();
+  }
+
+  private boolean isDisconnected(RoutingContext ctx) {
+    return disconnection(ctx).isComplete();
+  }
+
+  /**
+   * Serves near-static verbs from the response cache. An expired entry is served while it is
+   * refreshed in the background, and on a miss the response is fetched, stored and written.
+   * Responses other than 200 are piped and not stored.
+   */
+  private void handleCacheableRequest(RoutingContext ctx, OkapiClient okapiClient) {
+    var parameters = MultiMap.caseInsensitiveMultiMap().addAll(ctx.request().params());
+    var key = ResponseCache.key(okapiClient.tenant, parameters);
+    var cacheMeters = metrics.cache(OaiPmhMetrics.CACHE_RESPONSES);
+    var cached = responseCache.get(key);
+    if (cached == null) {
+      cacheMeters.miss();
+      fetchAndCache(ctx, okapiClient, parameters, body -> responseCache.put(key, SC_OK, body));
+      return;
+    }
+    if (responseCache.freshness(cached) == Freshness.STALE) {
+      cacheMeters.staleHit();
+      if (responseCache.startRefresh(key)) {
+        refreshCachedResponse(okapiClient, parameters, key);
+      }
+    } else {
+      cacheMeters.hit();
+    }
+    writeCachedResponse(ctx, cached);
+  }
+
+  /**
+   * Serves GetRecord from the GetRecord cache, fetching and storing the record on a miss.
+   */
+  private void handleGetRecordRequest(RoutingContext ctx, OkapiClient okapiClient) {
+    var parameters = MultiMap.caseInsensitiveMultiMap().addAll(ctx.request().params());
+    var key = GetRecordCache.key(okapiClient.tenant, parameters.get(IDENTIFIER),
+          parameters.get(METADATA_PREFIX));
+    var cached = getRecordCache.get(key);
+    if (cached == null) {
+      fetchAndCache(ctx, okapiClient, parameters, body -> getRecordCache.put(key, SC_OK, body));
+    } else {
+      writeCachedResponse(ctx, cached);
+    }
+  }
+
+  /**
+   * Calls mod-oai-pmh, then stores and writes a 200 response. Other responses are piped and not
+   * stored.
+   *
+   * @param store stores the body of the response and returns the cache entry
+   */
+  private void fetchAndCache(RoutingContext ctx, OkapiClient okapiClient, MultiMap parameters,
+                             Function<Buffer, CachedResponse> store) {
+    long upstreamStart = System.nanoTime();
+    coalesce(okapiClient, parameters, () -> fetch(ctx, okapiClient, parameters))
+          .onSuccess(response -> {
+            timings(ctx).record(Span.UPSTREAM, upstreamStart);
+            if (response.statusCode() == SC_OK) {
+              writeCachedResponse(ctx, store.apply(response.body()));
+            } else {
+              writeUpstreamResponse(ctx, response);
+            }
+          })
+          .onFailure(throwable -> oaiPmhFailureHandler(ctx, throwable));
+  }
+
+  /**
+   * Replaces the cached response with a new one. If mod-oai-pmh fails, the stale entry stays
+   * and is served until its stale window ends.
+   */
+  private void refreshCachedResponse(OkapiClient okapiClient, MultiMap parameters, String key) {
+    limitedInBackground(interactiveLane,
+          () -> upstreamClient(okapiClient, interactiveLane)
+                .send(interactiveLane.client(), parameters),
+          response -> isHealthy(response.statusCode()))
+          .compose(response -> response.body().map(body -> {
+            if (response.statusCode() == SC_OK) {
+              responseCache.put(key, SC_OK, body);
+            } else {
+              log.warn("Cached response is not refreshed, status code: {}, key: {}",
+                    response.statusCode(), key);
+            }
+            return body;
+          }))
+          .onFailure(throwable -> log.warn("Cached response is not refreshed, key: {}, reason: {}",
+                key, throwable.getMessage()))
+          .onComplete(result -> responseCache.finishRefresh(key));
+  }
+
+  /**
+   * Writes a fully read response of mod-oai-pmh as it is.
+   */
+  private void writeUpstreamResponse(RoutingContext ctx, UpstreamResponse response) {
+    if (!EXPECTED_CODES.contains(response.statusCode())) {
+      repositoryErrorResponse(ctx, response.statusCode(), response.statusMessage(),
+            Objects.toString(response.body(), null));
+      return;
+    }
+    var edgeResponse = ctx.response()
+          .setStatusCode(response.statusCode())
+          .putHeader(HttpHeaders.CONTENT_TYPE, TEXT_XML);
+    ofNullable(response.contentEncoding())
+          .ifPresent(value -> edgeResponse.putHeader(HttpHeaders.CONTENT_ENCODING, value));
+    edgeResponse.end(response.body());
+  }
+
+  private void writeCachedResponse(RoutingContext ctx, CachedResponse cached) {
+    var edgeResponse = ctx.response()
+          .setStatusCode(cached.statusCode())
+          .putHeader(HttpHeaders.CONTENT_TYPE, TEXT_XML);
+    if (cached.gzippedBody() != null) {
+      edgeResponse.putHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+      if (acceptsGzip(ctx.request())) {
+        edgeResponse.putHeader(HttpHeaders.CONTENT_ENCODING, GZIP).end(cached.gzippedBody());
+        return;
+      }
+    }
+    edgeResponse.end(cached.body());
+  }
+
+  private boolean acceptsGzip(HttpServerRequest request) {
+    var acceptEncoding = request.getHeader(HttpHeaders.ACCEPT_ENCODING);
+    if (acceptEncoding == null) {
+      return false;
+    }
+    for (var coding : acceptEncoding.split(",")) {
+      var parts = coding.split(";");
+      if (GZIP.equalsIgnoreCase(parts[0].trim())) {
+        return parts.length == 1 || !parts[1].trim().matches("q=0(\\.0*)?");
+      }
+    }
+    return false;
+  }
+
   private boolean isListRequest(RoutingContext ctx) {
     return Set.of(LIST_RECORDS, LIST_IDENTIFIERS).contains(ctx.request().getParam(VERB));
   }
 
-  private CompletableFuture<List<String>> getTenants(OkapiClient okapiClient) {
-    var res = tenantsCache.get(okapiClient.tenant);
-    if (isEmpty(res)) {
-      return new ConsortiaTenantClient(okapiClient).getConsortiaTenants(null)
-            .toCompletionStage().toCompletableFuture()
-            .thenApply(l -> tenantsCache.put(okapiClient.tenant, l).value)
-            .exceptionally(throwable -> {
-              log.info("Returning current tenant instead of tenants list, reason: {}",
-                    throwable.getMessage());
-              return Collections.singletonList(okapiClient.tenant);
-            });
+  private CompletableFuture<List<String>> getTenants(RoutingContext ctx,
+                                                     OkapiClient okapiClient) {
+    long tenantsStart = System.nanoTime();
+    return onCallerContext(tenantsCache.get(okapiClient.tenant,
+                () -> new ConsortiaTenantClient(okapiClient).getConsortiaTenants(null)
+                      .onSuccess(tenants -> preloadCredentials(ctx, tenants))))
+          .otherwise(throwable -> {
+            log.info("Returning current tenant instead of tenants list, reason: {}",
+                  throwable.getMessage());
+            return Collections.singletonList(okapiClient.tenant);
+          })
+          .onComplete(result -> timings(ctx).record(Span.TENANTS, tenantsStart))
+          .toCompletionStage().toCompletableFuture();
+  }
+
+  /**
+   * Reads the passwords of the institutional user in all member tenants ahead of the logins to
+   * them, so that walking the consortium does not wait on the secure store for each tenant.
+   */
+  private void preloadCredentials(RoutingContext ctx, List<String> tenants) {
+    if (credentialsStore == null || tenants.size() < 2) {
+      return;
+    }
+    try {
+      var clientInfo = ApiKeyUtils.parseApiKey(keyHelper.getApiKey(ctx));
+      credentialsStore.preload(ctx.vertx(), clientInfo.salt, tenants, clientInfo.username);
+    } catch (ApiKeyUtils.MalformedApiKeyException e) {
+      log.debug("Credentials are not preloaded, reason: {}", e.getMessage());
     }
-    return CompletableFuture.completedFuture(res);
   }
 
   private boolean isSingleTenantHarvesting(List<String> tenants) {
@@ -142,13 +1064,21 @@ public class OaiPmhHandler extends Handler {
           || (params.size() == 4 && params.containsKey(FROM) && params.containsKey(UNTIL)));
   }
 
-  private void performMultiTenantHarvesting(RoutingContext ctx, String tenantId) {
+  private void performMultiTenantHarvesting(RoutingContext ctx, List<String> tenants) {
     var request = ctx.request();
     if (isFirstRequest(request)) {
-      ctx.request().params().set(TENANT_ID, tenantId);
-      callToTenant(ctx, tenantId);
+      var scan = new TenantScan(tenants, tenants.getFirst(), maxSkippedTenants);
+      ctx.put(TENANT_SCAN, scan);
+      if (tenantProbeParallelism > 1) {
+        probeTenants(ctx, scan);
+      } else {
+        callCurrentTenant(ctx, scan);
+      }
     } else {
       var resumptionTokenParams = parseResumptionToken(request.params().get(RESUMPTION_TOKEN));
+      var nextTenantId = resumptionTokenParams.get(TENANT_ID);
+      var scan = new TenantScan(tenants, nextTenantId, maxSkippedTenants);
+      ctx.put(TENANT_SCAN, scan);
       if (shouldStartHarvestingForNextTenant(resumptionTokenParams)) {
         request.params().remove(RESUMPTION_TOKEN);
         request.params().set(METADATA_PREFIX, resumptionTokenParams.get(METADATA_PREFIX));
@@ -156,20 +1086,305 @@ public class OaiPmhHandler extends Handler {
               .ifPresent(value -> request.params().set(FROM, value));
         ofNullable(resumptionTokenParams.get(UNTIL))
               .ifPresent(value -> request.params().set(UNTIL, value));
+        if (tenantProbeParallelism > 1) {
+          probeTenants(ctx, scan);
+          return;
+        }
       }
-      var nextTenantId = resumptionTokenParams.get(TENANT_ID);
-      ctx.request().params().set(TENANT_ID, nextTenantId);
-      callToTenant(ctx, nextTenantId);
+      callCurrentTenant(ctx, scan);
+    }
+  }
+
+  /**
+   * Calls the current tenant of the scan. Tenants known to have no records in the harvesting
+   * window are skipped without a call, in a loop, as long as the scan allows it. The last tenant
+   * is always called.
+   */
+  private void callCurrentTenant(RoutingContext ctx, TenantScan scan) {
+    while (scan.hasNext() && isKnownEmptyWindow(ctx, scan.current())) {
+      log.info("No records in the window, skipping tenant {}", scan.current());
+      if (!skipTenant(ctx, scan)) {
+        return;
+      }
+    }
+    ctx.request().params().set(TENANT_ID, scan.current());
+    callToTenant(ctx, scan.current());
+  }
+
+  /**
+   * Moves the scan on to the next tenant. If the request has already skipped as many tenants as
+   * allowed, it is ended instead with an empty list and a resumption token that continues the
+   * harvest at the next tenant.
+   *
+   * @return true if the scan has moved on, false if the response has been ended
+   */
+  private boolean skipTenant(RoutingContext ctx, TenantScan scan) {
+    metrics.tenantSwitched();
+    if (scan.skip()) {
+      return true;
+    }
+    endWithContinuationToken(ctx, scan.nextTenant().orElseThrow());
+    return false;
+  }
+
+  /**
+   * Ends the response with an empty list whose resumption token points to the given tenant, the
+   * same way mod-oai-pmh answers when a page has no records to return.
+   */
+  private void endWithContinuationToken(RoutingContext ctx, String nextTenant) {
+    var requestParams = ctx.request().params();
+    log.info("Max number of skipped tenants is reached, central tenant={}, next tenant={}",
+          requestParams.get(CENTRAL_TENANT_ID), nextTenant);
+    var verb = requestParams.get(VERB);
+    var request = new RequestType()
+          .withVerb(VerbType.fromValue(verb))
+          .withMetadataPrefix(requestParams.get(METADATA_PREFIX))
+          .withFrom(requestParams.get(FROM))
+          .withUntil(requestParams.get(UNTIL))
+          .withResumptionToken(requestParams.get(RESUMPTION_TOKEN));
+    var resumptionToken = new ResumptionTokenType()
+          .withValue(buildNewResumptionToken(request, nextTenant));
+    var oaipmh = new OAIPMH()
+          .withResponseDate(Instant.now())
+          .withRequest(request);
+    if (LIST_RECORDS.equals(verb)) {
+      oaipmh.withListRecords(new ListRecordsType().withResumptionToken(resumptionToken));
+    } else {
+      oaipmh.withListIdentifiers(new ListIdentifiersType().withResumptionToken(resumptionToken));
+    }
+    ctx.response()
+          .setStatusCode(SC_OK)
+          .putHeader(HttpHeaders.CONTENT_TYPE, TEXT_XML)
+          .end(ResponseConverter.getInstance().convertToBuffer(oaipmh, marshalFormattedOutput));
+  }
+
+  private TenantScan tenantScan(RoutingContext ctx) {
+    return ctx.get(TENANT_SCAN);
+  }
+
+  /**
+   * Sends the first request of the harvest to up to tenantProbeParallelism tenants at a time,
+   * starting with the current tenant of the scan, and processes the response of the first
+   * tenant, in tenants order, that has not answered with an error such as noRecordsMatch. The
+   * responses of the tenants after it are discarded, so tenants are harvested in the same order
+   * and with the same resumption tokens as when they are called one by one. The last tenant's
+   * response is always processed.
+   */
+  private void probeTenants(RoutingContext ctx, TenantScan scan) {
+    if (isDisconnected(ctx)) {
+      log.info("Harvester has disconnected, tenant {} is not probed", scan.current());
+      return;
+    }
+    if (parkedResponses != null && ctx.get(PROBE_CALLS) == null) {
+      parkProbesAfterThreshold(ctx);
+    }
+    long upstreamStart = System.nanoTime();
+    var tenants = scan.upcoming(tenantProbeParallelism);
+    int remaining = scan.remaining();
+    Promise<Void> settled = Promise.promise();
+    Future<Void> cancellation = Future.any(disconnection(ctx), settled.future()).mapEmpty();
+    // tenants known to have no records are skipped without a call, as the last one is never
+    // skipped it is always probed
+    var probes = IntStream.range(0, tenants.size())
+          .mapToObj(index -> index + 1 < remaining
+                && isKnownEmptyWindow(ctx, tenants.get(index))
+                ? Future.succeededFuture(new TenantProbe(tenants.get(index), null, null))
+                : probeTenant(ctx, tenants.get(index), cancellation))
+          .toList();
+    processProbes(ctx, scan, new ProbeBatch(probes, upstreamStart, settled), 0);
+  }
+
+  /**
+   * Asks the harvester to retry later if no probe response is processed within the threshold,
+   * the same way {@link #awaitOrPark} does for a single tenant. The probe calls of the request
+   * are parked then, and the probes are processed no further, so that the retry picks the calls
+   * up.
+   */
+  private void parkProbesAfterThreshold(RoutingContext ctx) {
+    Map<String, Future<UpstreamResponse>> calls = new LinkedHashMap<>();
+    ctx.put(PROBE_CALLS, calls);
+    var vertx = ctx.vertx();
+    long timerId = vertx.setTimer(retryAfterThresholdMs, id -> {
+      if (ctx.response().ended() || isDisconnected(ctx)) {
+        return;
+      }
+      log.info("Probe responses are not ready in time, asking to retry later, calls: {}",
+            calls.keySet());
+      calls.forEach(parkedResponses::park);
+      retryLater(ctx);
+    });
+    ctx.addEndHandler(result -> vertx.cancelTimer(timerId));
+  }
+
+  /**
+   * Sends the first request of the harvest to the tenant in the bulk lane, as list requests are.
+   *
+   * @param cancellation completed when the probe is no longer needed, the call is reset then
+   *                     unless it may be shared with other requests
+   */
+  private Future<TenantProbe> probeTenant(RoutingContext ctx, String tenant,
+                                          Future<Void> cancellation) {
+    var parameters = MultiMap.caseInsensitiveMultiMap()
+          .addAll(ctx.request().params())
+          .set(TENANT_ID, tenant);
+    Promise<TenantProbe> promise = Promise.promise();
+    Map<String, Future<UpstreamResponse>> calls = ctx.get(PROBE_CALLS);
+    if (calls != null) {
+      calls.put(callKey(tenant, parameters), promise.future().map(TenantProbe::response));
+    }
+    getClient(ctx, tenant)
+          .thenAccept(client -> probeUpstream(ctx, client, parameters, cancellation)
+                .onSuccess(response -> promise.tryComplete(new TenantProbe(tenant, client,
+                      response)))
+                .onFailure(promise::tryFail))
+          .exceptionally(throwable -> {
+            promise.tryFail(throwable instanceof CompletionException
+                  ? throwable.getCause() : throwable);
+            return null;
+          });
+    return promise.future();
+  }
+
+  /**
+   * Calls the tenant for its probe the way {@link #callOaiPmhUpstream} calls a single tenant.
+   * The call parked for a harvester retrying the request is taken if there is one, and the call
+   * is shared with identical ones if coalescing is enabled. Calls that may be shared or parked
+   * do not carry the headers of the harvester's request.
+   */
+  private Future<UpstreamResponse> probeUpstream(RoutingContext ctx, OkapiClient okapiClient,
+                                                 MultiMap parameters,
+                                                 Future<Void> cancellation) {
+    if (parkedResponses != null) {
+      var cacheMeters = metrics.cache(OaiPmhMetrics.CACHE_PARKED);
+      var parked = parkedResponses.take(callKey(okapiClient.tenant, parameters));
+      if (parked != null) {
+        cacheMeters.hit();
+        return onCallerContext(parked);
+      }
+      cacheMeters.miss();
+    }
+    if (inFlightCalls != null) {
+      return coalesce(okapiClient, parameters, () -> fetch(ctx, okapiClient, parameters));
+    }
+    var headers = parkedResponses == null
+          ? ctx.request().headers()
+          : MultiMap.caseInsensitiveMultiMap();
+    return fetch(ctx, okapiClient, parameters, headers, cancellation);
+  }
+
+  private void processProbes(RoutingContext ctx, TenantScan scan, ProbeBatch batch, int index) {
+    if (index == batch.probes().size()) {
+      probeTenants(ctx, scan);
+      return;
+    }
+    batch.probes().get(index)
+          .onSuccess(probe -> {
+            if (ctx.response().ended()) {
+              // the harvester has been asked to retry later, the probe calls are parked
+              return;
+            }
+            var response = probe.response();
+            if (response == null) {
+              log.info("No records in the window, skipping tenant {}", probe.tenant());
+              skipProbedTenant(ctx, scan, batch, index);
+              return;
+            }
+            if (!EXPECTED_CODES.contains(response.statusCode())) {
+              processProbe(ctx, scan, batch, index, probe, null);
+              return;
+            }
+            long inspectStart = System.nanoTime();
+            xmlProcessingPool.execute(() -> ResponseInspector.getInstance()
+                        .inspect(response.body()))
+                  .onSuccess(summary -> {
+                    timings(ctx).record(Span.INSPECT, inspectStart);
+                    processProbe(ctx, scan, batch, index, probe, summary);
+                  })
+                  .onFailure(throwable -> failProbes(ctx, batch, throwable));
+          })
+          .onFailure(throwable -> failProbes(ctx, batch, throwable));
+  }
+
+  /**
+   * Skips the tenant if its response is an error and it is not the last tenant, otherwise
+   * processes the response, with the summary it has been inspected to already. The probes of
+   * the tenants after it are reset then.
+   *
+   * @param summary summary of the response, null if the response is not to be inspected
+   */
+  private void processProbe(RoutingContext ctx, TenantScan scan, ProbeBatch batch, int index,
+                            TenantProbe probe, ResponseSummary summary) {
+    if (ctx.response().ended()) {
+      return;
+    }
+    if (summary != null && summary.isErrorResponse() && scan.hasNext()) {
+      log.info("Error response, skipping tenant {}", probe.tenant());
+      rememberEmptyWindow(ctx, probe.tenant(), summary);
+      skipProbedTenant(ctx, scan, batch, index);
+      return;
+    }
+    batch.settled().tryComplete();
+    ctx.request().params().set(TENANT_ID, probe.tenant());
+    ctx.put(UPSTREAM_CLIENT, probe.client());
+    processUpstreamResponse(ctx, batch.upstreamStart(), probe.response(), summary);
+  }
+
+  private void skipProbedTenant(RoutingContext ctx, TenantScan scan, ProbeBatch batch,
+                                int index) {
+    if (skipTenant(ctx, scan)) {
+      processProbes(ctx, scan, batch, index + 1);
+    } else {
+      batch.settled().tryComplete();
+    }
+  }
+
+  private void failProbes(RoutingContext ctx, ProbeBatch batch, Throwable throwable) {
+    if (ctx.response().ended()) {
+      return;
     }
+    batch.settled().tryComplete();
+    oaiPmhFailureHandler(ctx, throwable);
   }
 
   private void callToTenant(RoutingContext ctx, String tenant) {
-    var request = ctx.request();
+    if (isDisconnected(ctx)) {
+      log.info("Harvester has disconnected, tenant {} is not called", tenant);
+      return;
+    }
     getClient(ctx, tenant)
-          .thenAccept(client -> new OaiPmhOkapiClient(client).call(request.params(),
-                request.headers(),
-                response -> handleProxyResponse(ctx, response),
-                throwable -> oaiPmhFailureHandler(ctx, throwable)));
+          .thenAccept(client -> callOaiPmh(ctx, client));
+  }
+
+  /**
+   * Checks whether the first request of the harvest is known to find no records at the tenant.
+   */
+  private boolean isKnownEmptyWindow(RoutingContext ctx, String tenant) {
+    if (emptyWindowCache == null || !isFirstRequest(ctx.request())) {
+      return false;
+    }
+    var requestParams = ctx.request().params();
+    boolean empty = emptyWindowCache.isEmpty(tenant, requestParams.get(METADATA_PREFIX),
+          requestParams.get(SET), requestParams.get(FROM), requestParams.get(UNTIL));
+    var cacheMeters = metrics.cache(OaiPmhMetrics.CACHE_EMPTY_WINDOWS);
+    if (empty) {
+      cacheMeters.hit();
+    } else {
+      cacheMeters.miss();
+    }
+    return empty;
+  }
+
+  /**
+   * Remembers that the tenant has no records in the harvesting window if it has answered the
+   * first request of the harvest with noRecordsMatch.
+   */
+  private void rememberEmptyWindow(RoutingContext ctx, String tenant, ResponseSummary summary) {
+    if (emptyWindowCache != null && isFirstRequest(ctx.request())
+          && summary.getErrorCodes().contains(NO_RECORDS_MATCH)) {
+      var requestParams = ctx.request().params();
+      emptyWindowCache.putEmpty(tenant, requestParams.get(METADATA_PREFIX),
+            requestParams.get(SET), requestParams.get(FROM), requestParams.get(UNTIL));
+    }
   }
 
   /**
@@ -198,99 +1413,271 @@ public class OaiPmhHandler extends Handler {
   }
 
   /**
-   * This method contains processing of oai-pmh-mod response in normal processing flow.
+   * Processes the response of mod-oai-pmh to a list verb, received now or prefetched.
    *
-   * @param ctx            routing context
-   * @param oaiPmhResponse populated http-response
+   * @param ctx             routing context
+   * @param httpStatusCode  http status code of the response
+   * @param statusMessage   http status message of the response
+   * @param contentEncoding value of the Content-Encoding header of the response, may be null
+   * @param buffer          response body
    */
-  @Override
-  protected void handleProxyResponse(RoutingContext ctx, HttpResponse<Buffer> oaiPmhResponse) {
+  private void processProxyResponse(RoutingContext ctx, int httpStatusCode, String statusMessage,
+                                    String contentEncoding, Buffer buffer) {
+    processProxyResponse(ctx, httpStatusCode, statusMessage, contentEncoding, buffer, null);
+  }
+
+  /**
+   * Processes the response of mod-oai-pmh to a list verb, inspecting it unless it has been
+   * inspected already.
+   *
+   * @param summary summary of the response, null if it is to be inspected
+   */
+  private void processProxyResponse(RoutingContext ctx, int httpStatusCode, String statusMessage,
+                                    String contentEncoding, Buffer buffer,
+                                    ResponseSummary summary) {
     HttpServerResponse edgeResponse = ctx.response();
-    int httpStatusCode = oaiPmhResponse.statusCode();
-    ctx.response().setStatusCode(oaiPmhResponse.statusCode());
+    ctx.response().setStatusCode(httpStatusCode);
 
     if (EXPECTED_CODES.contains(httpStatusCode)) {
       edgeResponse.putHeader(HttpHeaders.CONTENT_TYPE, TEXT_XML);
       // In case the repository logic already compressed the response,
       // lets transfer header to avoid potential doubled compression
-      Optional<String> encodingHeader = ofNullable(oaiPmhResponse
-            .getHeader(String.valueOf(HttpHeaders.CONTENT_ENCODING)));
+      Optional<String> encodingHeader = ofNullable(contentEncoding);
       encodingHeader.ifPresent(value -> edgeResponse.putHeader(
             HttpHeaders.CONTENT_ENCODING, value));
-      Buffer buffer = oaiPmhResponse.body();
-      var oaipmh = ResponseConverter.getInstance().toOaiPmh(buffer.toString());
-      if (isListRecords(oaipmh) && isResumptionTokenOnly(oaipmh.getListRecords())) {
-        processEmptyListResponse(ctx, oaipmh);
-      } else if (isLastResponse(oaipmh)) {
-        log.info("Processing last response for list verb...");
-        processLastResponse(ctx, edgeResponse, oaipmh, buffer);
-      } else if (isListRequest(ctx) && isErrorResponse(oaipmh)) {
-        processErrorResponse(ctx, edgeResponse, buffer);
-      } else {
-        edgeResponse.end(buffer);
-        if (encodingHeader.isEmpty()) {
-          log.debug("Returned oai-pmh response doesn't contain encoding header.");
-        }
+      if (summary != null) {
+        processInspectedResponse(ctx, httpStatusCode, encodingHeader.isPresent(), summary,
+              buffer);
+        return;
       }
+      long inspectStart = System.nanoTime();
+      xmlProcessingPool.execute(() -> ResponseInspector.getInstance().inspect(buffer))
+            .onSuccess(inspected -> {
+              if (isDisconnected(ctx)) {
+                return;
+              }
+              timings(ctx).record(Span.INSPECT, inspectStart);
+              processInspectedResponse(ctx, httpStatusCode, encodingHeader.isPresent(),
+                    inspected, buffer);
+            })
+            .onFailure(throwable -> oaiPmhFailureHandler(ctx, throwable));
+    } else {
+      repositoryErrorResponse(ctx, httpStatusCode, statusMessage, Objects.toString(buffer, null));
+    }
+  }
+
+  private void processInspectedResponse(RoutingContext ctx, int httpStatusCode,
+                                        boolean encoded, ResponseSummary summary,
+                                        Buffer buffer) {
+    HttpServerResponse edgeResponse = ctx.response();
+    if (summary.isListRecords() && summary.isResumptionTokenOnly()) {
+      processEmptyListResponse(ctx, summary);
+    } else if (summary.isLastResponse()) {
+      log.info("Processing last response for list verb...");
+      processLastResponse(ctx, edgeResponse, summary, buffer);
+    } else if (isListRequest(ctx) && summary.isErrorResponse()) {
+      processErrorResponse(ctx, edgeResponse, summary, buffer);
     } else {
-      var message = String.format(ERROR_FROM_REPOSITORY, oaiPmhResponse.statusCode(),
-            oaiPmhResponse.statusMessage(), oaiPmhResponse.bodyAsString());
-      log.error(message);
-      if (!ctx.response().ended()) {
-        ctx.response().setStatusCode(oaiPmhResponse.statusCode()).putHeader(
-              HttpHeaders.CONTENT_TYPE,
-              "text/plain").end(message);
+      edgeResponse.end(buffer);
+      if (!encoded) {
+        log.debug("Returned oai-pmh response doesn't contain encoding header.");
+      }
+      if (prefetchCache != null && httpStatusCode == SC_OK && isListRequest(ctx)
+            && summary.hasResumptionToken() && !summary.getResumptionToken().isEmpty()) {
+        prefetchNextPage(ctx, summary.getResumptionToken());
       }
     }
   }
 
-  private void processEmptyListResponse(RoutingContext ctx, OAIPMH oaipmh) {
+  /**
+   * Requests the page the resumption token points to in the background, with the parameters the
+   * harvester's request for it will be sent to mod-oai-pmh with.
+   */
+  private void prefetchNextPage(RoutingContext ctx, String resumptionToken) {
+    OkapiClient okapiClient = ctx.get(UPSTREAM_CLIENT);
+    var requestParams = ctx.request().params();
+    var verb = requestParams.get(VERB);
+    var parameters = MultiMap.caseInsensitiveMultiMap()
+          .add(VERB, verb)
+          .add(RESUMPTION_TOKEN, resumptionToken);
+    if (isMultiTenantHarvesting(requestParams)) {
+      parameters.add(CENTRAL_TENANT_ID, requestParams.get(CENTRAL_TENANT_ID))
+            .add(TENANT_ID, requestParams.get(TENANT_ID));
+    }
+    prefetchCache.prefetch(okapiClient.tenant,
+          PrefetchCache.key(okapiClient.tenant, verb, resumptionToken),
+          () -> limitedInBackground(bulkLane,
+                      () -> upstreamClient(okapiClient, bulkLane)
+                            .send(bulkLane.client(), parameters),
+                      response -> isHealthy(response.statusCode()))
+                .compose(response -> response.body().compose(body -> {
+                  if (response.statusCode() != SC_OK) {
+                    return Future.failedFuture("Status code: " + response.statusCode());
+                  }
+                  return Future.succeededFuture(body);
+                }))
+                .onFailure(throwable -> log.debug("Next page is not prefetched, reason: {}",
+                      throwable.getMessage())));
+  }
+
+  /**
+   * This method pipes oai-pmh-mod response to the client chunk by chunk. The upstream response
+   * is paused while the write queue of the edge response is full and resumed on drain.
+   *
+   * @param ctx              routing context
+   * @param upstreamResponse oai-pmh-mod response with not yet consumed body
+   */
+  private void handleStreamedProxyResponse(RoutingContext ctx,
+                                           HttpClientResponse upstreamResponse) {
+    int httpStatusCode = upstreamResponse.statusCode();
+    if (!EXPECTED_CODES.contains(httpStatusCode)) {
+      upstreamResponse.body()
+            .onSuccess(body -> repositoryErrorResponse(ctx, httpStatusCode,
+                  upstreamResponse.statusMessage(), body.toString()))
+            .onFailure(throwable -> oaiPmhFailureHandler(ctx, throwable));
+      return;
+    }
+    long receiveStart = System.nanoTime();
+    HttpServerResponse edgeResponse = ctx.response();
+    edgeResponse.setStatusCode(httpStatusCode)
+          .setChunked(true)
+          .putHeader(HttpHeaders.CONTENT_TYPE, TEXT_XML);
+    ofNullable(upstreamResponse.getHeader(HttpHeaders.CONTENT_ENCODING))
+          .ifPresent(value -> edgeResponse.putHeader(HttpHeaders.CONTENT_ENCODING, value));
+    upstreamResponse.handler(chunk -> {
+      edgeResponse.write(chunk);
+      if (edgeResponse.writeQueueFull()) {
+        upstreamResponse.pause();
+        edgeResponse.drainHandler(v -> upstreamResponse.resume());
+      }
+    });
+    disconnection(ctx).onComplete(result -> {
+      log.info("Harvester has disconnected, streamed call is reset");
+      metrics.upstreamCancelled();
+      upstreamResponse.request().reset();
+    });
+    upstreamResponse.exceptionHandler(throwable -> {
+      if (isDisconnected(ctx)) {
+        return;
+      }
+      if (edgeResponse.headWritten()) {
+        log.error("Streaming of the response from repository has failed", throwable);
+        edgeResponse.reset();
+      } else {
+        oaiPmhFailureHandler(ctx, throwable);
+      }
+    });
+    upstreamResponse.endHandler(v -> {
+      timings(ctx).record(Span.RECEIVE, receiveStart);
+      edgeResponse.end();
+    });
+  }
+
+  private void repositoryErrorResponse(RoutingContext ctx, int statusCode, String statusMessage,
+                                       String body) {
+    var message = String.format(ERROR_FROM_REPOSITORY, statusCode, statusMessage, body);
+    log.error(message);
+    if (!ctx.response().ended()) {
+      ctx.response().setStatusCode(statusCode).putHeader(
+            HttpHeaders.CONTENT_TYPE,
+            "text/plain").end(message);
+    }
+  }
+
+  private void processEmptyListResponse(RoutingContext ctx, ResponseSummary summary) {
     var request = ctx.request();
-    var resumptionToken = oaipmh.getListRecords().getResumptionToken().getValue();
+    var resumptionToken = summary.getResumptionToken();
     request.params().set(RESUMPTION_TOKEN, resumptionToken);
     request.params().remove(METADATA_PREFIX);
-    callToTenant(ctx, parseResumptionToken(resumptionToken).get(TENANT_ID));
+    var tenant = parseResumptionToken(resumptionToken).get(TENANT_ID);
+    // the next page is requested from the same tenant, whose client is at hand
+    OkapiClient upstreamClient = ctx.get(UPSTREAM_CLIENT);
+    if (upstreamClient != null && upstreamClient.tenant.equals(tenant)) {
+      callOaiPmh(ctx, upstreamClient);
+    } else {
+      callToTenant(ctx, tenant);
+    }
   }
 
   private void processLastResponse(RoutingContext ctx, HttpServerResponse edgeResponse,
-                                   OAIPMH oaipmh, Buffer buffer) {
+                                   ResponseSummary summary, Buffer buffer) {
     var requestParams = ctx.request().params();
     log.info("Last response, central tenant={}, current tenant={}",
           requestParams.get(CENTRAL_TENANT_ID),
           requestParams.get(TENANT_ID));
-    if (isMultiTenantHarvesting(requestParams)) {
-      getNextTenant(ctx, requestParams.get(CENTRAL_TENANT_ID), requestParams.get(TENANT_ID))
-            .thenAccept(optionalNextTenant -> {
-              if (optionalNextTenant.isPresent()) {
-                updateResumptionTokenValue(oaipmh, optionalNextTenant.get());
-                edgeResponse.end(Buffer.buffer(ResponseConverter.getInstance()
-                      .convertToString(oaipmh)));
-              } else {
-                edgeResponse.end(buffer);
-              }
-            });
+    var scan = tenantScan(ctx);
+    if (isMultiTenantHarvesting(requestParams) && scan != null && scan.hasNext()) {
+      log.info("Next tenant: {}", scan.nextTenant().orElseThrow());
+      metrics.tenantSwitched();
+      endWithNewResumptionToken(ctx, summary, buffer, scan.nextTenant().orElseThrow());
     } else {
       edgeResponse.end(buffer);
     }
   }
 
+  /**
+   * Ends the response with the resumption token pointing to the next tenant. By default the
+   * token is spliced into the original bytes, the response is re-marshaled only if splicing is
+   * disabled or the layout of the response is not recognized.
+   */
+  private void endWithNewResumptionToken(RoutingContext ctx, ResponseSummary summary,
+                                         Buffer buffer, String nextTenant) {
+    var edgeResponse = ctx.response();
+    long rewriteStart = System.nanoTime();
+    var newResumptionTokenValue = buildNewResumptionToken(summary.getRequest(), nextTenant);
+    xmlProcessingPool.execute(() -> rewriteResumptionToken(buffer, summary.getVerb(),
+                newResumptionTokenValue))
+          .onSuccess(responseParts -> {
+            if (isDisconnected(ctx)) {
+              return;
+            }
+            timings(ctx).record(Span.REWRITE, rewriteStart);
+            if (responseParts.size() == 1) {
+              edgeResponse.end(responseParts.getFirst());
+              return;
+            }
+            edgeResponse.putHeader(HttpHeaders.CONTENT_LENGTH, String.valueOf(responseParts
+                  .stream()
+                  .mapToInt(Buffer::length)
+                  .sum()));
+            responseParts.subList(0, responseParts.size() - 1).forEach(edgeResponse::write);
+            edgeResponse.end(responseParts.getLast());
+          })
+          .onFailure(throwable -> oaiPmhFailureHandler(ctx, throwable));
+  }
+
+  /**
+   * Returns the response with the new resumption token, as parts of the original bytes if it
+   * can be spliced in, otherwise re-marshaled.
+   */
+  private List<Buffer> rewriteResumptionToken(Buffer buffer, String verb,
+                                              String newResumptionTokenValue) {
+    Optional<List<Buffer>> parts = resumptionTokenSpliceEnabled
+          ? ResumptionTokenSplicer.splice(buffer, verb, newResumptionTokenValue)
+          : Optional.empty();
+    return parts.orElseGet(() -> {
+      var oaipmh = ResponseConverter.getInstance().toOaiPmh(buffer);
+      updateResumptionTokenValue(oaipmh, newResumptionTokenValue);
+      return List.of(ResponseConverter.getInstance()
+            .convertToBuffer(oaipmh, marshalFormattedOutput));
+    });
+  }
+
   private void processErrorResponse(RoutingContext ctx, HttpServerResponse edgeResponse,
-                                    Buffer buffer) {
+                                    ResponseSummary summary, Buffer buffer) {
     var requestParams = ctx.request().params();
     log.info("Error response, central tenant={}, current tenant={}",
           requestParams.get(CENTRAL_TENANT_ID),
           requestParams.get(TENANT_ID));
     if (isMultiTenantHarvesting(requestParams)) {
-      getNextTenant(ctx, requestParams.get(CENTRAL_TENANT_ID), requestParams.get(TENANT_ID))
-            .thenAccept(optionalNextTenant -> {
-              if (optionalNextTenant.isPresent()) {
-                var nextTenant = optionalNextTenant.get();
-                requestParams.set(TENANT_ID, nextTenant);
-                callToTenant(ctx, nextTenant);
-              } else {
-                edgeResponse.end(buffer);
-              }
-            });
+      rememberEmptyWindow(ctx, requestParams.get(TENANT_ID), summary);
+    }
+    var scan = tenantScan(ctx);
+    if (isMultiTenantHarvesting(requestParams) && scan != null && scan.hasNext()) {
+      // nothing refers to the error response any more once the next tenant is called
+      if (skipTenant(ctx, scan)) {
+        callCurrentTenant(ctx, scan);
+      }
     } else {
       edgeResponse.end(buffer);
     }
@@ -300,26 +1687,7 @@ public class OaiPmhHandler extends Handler {
     return nonNull(requestParams.get(CENTRAL_TENANT_ID)) && nonNull(requestParams.get(TENANT_ID));
   }
 
-  private Optional<String> getNextTenant(List<String> list, String currentTenantId) {
-    log.info("Tenants list: {}", list);
-    var nextTenantIndex = list.indexOf(currentTenantId) + 1;
-    if (list.size() > nextTenantIndex) {
-      log.info("Next tenant: {}", list.get(nextTenantIndex));
-      return Optional.of(list.get(nextTenantIndex));
-    }
-    return Optional.empty();
-  }
-
-  private CompletableFuture<Optional<String>> getNextTenant(RoutingContext ctx,
-                                                            String initialTenantId,
-                                                            String currentTenantId) {
-    return getClient(ctx, initialTenantId)
-          .thenCompose(this::getTenants)
-          .thenApply(list -> getNextTenant(list, currentTenantId));
-  }
-
-  private void updateResumptionTokenValue(OAIPMH oaipmh, String nextTenant) {
-    var newResumptionTokenValue = buildNewResumptionToken(oaipmh, nextTenant);
+  private void updateResumptionTokenValue(OAIPMH oaipmh, String newResumptionTokenValue) {
     if (isListRecords(oaipmh)) {
       var listRecords = oaipmh.getListRecords();
       listRecords.setResumptionToken(isNull(listRecords.getResumptionToken())
@@ -354,6 +1722,17 @@ public class OaiPmhHandler extends Handler {
    * @param throwable throwable object
    */
   private void oaiPmhFailureHandler(RoutingContext ctx, Throwable throwable) {
+    if (isDisconnected(ctx)) {
+      log.debug("Call has failed after the harvester disconnected: {}",
+            throwable != null ? throwable.getMessage() : "");
+      return;
+    }
+    if (throwable instanceof AdaptiveConcurrencyLimiter.RejectedException
+          || throwable instanceof RejectedExecutionException) {
+      log.warn("Request is rejected: {}", throwable.getMessage());
+      retryLater(ctx);
+      return;
+    }
     log.error("Exception in calling OKAPI", throwable);
     if (throwable instanceof TimeoutException) {
       requestTimeout(ctx, throwable.getMessage());
@@ -378,27 +1757,25 @@ public class OaiPmhHandler extends Handler {
     return nonNull(oaipmh.getListRecords());
   }
 
-  private boolean isResumptionTokenOnly(ListRecordsType listRecordsType) {
-    return listRecordsType.getRecords().isEmpty()
-          && nonNull(listRecordsType.getResumptionToken())
-          && !listRecordsType.getResumptionToken().getValue().isEmpty();
-  }
-
   private boolean isFirstRequest(HttpServerRequest request) {
     return isNull(request.params().get(RESUMPTION_TOKEN));
   }
 
-  private boolean isLastResponse(OAIPMH oaipmh) {
-    return (nonNull(oaipmh.getListRecords())
-          && (isNull(oaipmh.getListRecords().getResumptionToken())
-          || oaipmh.getListRecords().getResumptionToken().getValue().isEmpty()))
-          || (nonNull(oaipmh.getListIdentifiers())
-          && (isNull(oaipmh.getListIdentifiers().getResumptionToken())
-          || oaipmh.getListIdentifiers().getResumptionToken().getValue().isEmpty()));
+  /**
+   * Response of a tenant to the first request of the harvest.
+   */
+  private record TenantProbe(String tenant, OkapiClient client, UpstreamResponse response) {
   }
 
-  private boolean isErrorResponse(OAIPMH oaipmh) {
-    return isNotEmpty(oaipmh.getErrors());
+  /**
+   * Probes of a batch of tenants, in tenants order.
+   *
+   * @param upstreamStart when the probes have been sent
+   * @param settled       completed once a response of the batch is processed or the request is
+   *                      ended, which resets the probes still running
+   */
+  private record ProbeBatch(List<Future<TenantProbe>> probes, long upstreamStart,
+                            Promise<Void> settled) {
   }
 
   private CompletableFuture<OkapiClient> getClient(RoutingContext ctx, String tenantId) {
@@ -410,7 +1787,14 @@ public class OaiPmhHandler extends Handler {
       return CompletableFuture.failedFuture(e);
     }
     final OkapiClient client = ocf.getOkapiClient(tenantId);
-    return iuHelper.fetchToken(client, clientInfo.salt, tenantId, clientInfo.username)
-          .map(token -> client).toCompletionStage().toCompletableFuture();
+    long tokenStart = System.nanoTime();
+    return onCallerContext(tokenCache.get(clientInfo.salt, tenantId, clientInfo.username,
+                () -> iuHelper.fetchToken(client, clientInfo.salt, tenantId, clientInfo.username)))
+          .onComplete(result -> timings(ctx).record(Span.TOKEN, tokenStart))
+          .map(token -> {
+            client.setToken(token);
+            return client;
+          })
+          .toCompletionStage().toCompletableFuture();
   }
 }
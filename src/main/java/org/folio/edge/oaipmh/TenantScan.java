@@ -0,0 +1,83 @@
+package org.folio.edge.oaipmh;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Position of a multi-tenant harvesting request in the tenants of the consortium. The tenants
+ * list is taken once per request, and the number of tenants the request may skip is bounded, so
+ * that a request over many tenants without records ends in bounded time.
+ */
+class TenantScan {
+
+  private final List<String> tenants;
+  private final int maxSkippedTenants;
+  private String current;
+  private int index;
+  private int skippedTenants;
+
+  /**
+   * Creates the scan.
+   *
+   * @param tenants           tenants of the consortium, in harvesting order
+   * @param current           tenant the request starts with
+   * @param maxSkippedTenants max number of tenants the request may skip
+   */
+  TenantScan(List<String> tenants, String current, int maxSkippedTenants) {
+    this.tenants = List.copyOf(tenants);
+    this.current = current;
+    // a tenant missing from the list is followed by the first tenant of the list
+    this.index = this.tenants.indexOf(current);
+    this.maxSkippedTenants = maxSkippedTenants;
+  }
+
+  String current() {
+    return current;
+  }
+
+  boolean hasNext() {
+    return index + 1 < tenants.size();
+  }
+
+  Optional<String> nextTenant() {
+    return hasNext() ? Optional.of(tenants.get(index + 1)) : Optional.empty();
+  }
+
+  /**
+   * Returns the number of tenants from the current one, inclusive, to the end of the list. A
+   * current tenant missing from the list is counted, it is followed by the whole list.
+   */
+  int remaining() {
+    return tenants.size() - index;
+  }
+
+  /**
+   * Returns up to max tenants starting with the current one, which is followed by the first
+   * tenants of the list if it is missing from the list.
+   */
+  List<String> upcoming(int max) {
+    if (index < 0) {
+      List<String> upcoming = new ArrayList<>();
+      upcoming.add(current);
+      upcoming.addAll(tenants.subList(0, Math.clamp(max - 1L, 0, tenants.size())));
+      return upcoming;
+    }
+    return tenants.subList(index, Math.min(index + max, tenants.size()));
+  }
+
+  /**
+   * Moves on to the next tenant, unless the request has already skipped as many tenants as
+   * allowed.
+   *
+   * @return true if the scan has moved on, false if the limit is reached
+   */
+  boolean skip() {
+    if (!hasNext() || skippedTenants >= maxSkippedTenants) {
+      return false;
+    }
+    skippedTenants++;
+    current = tenants.get(++index);
+    return true;
+  }
+}
@@ -0,0 +1,48 @@
+package org.folio.edge.oaipmh.cache;
+
+import io.vertx.core.buffer.Buffer;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Response of mod-oai-pmh stored in a cache, ready to be written to harvesters as it is.
+ *
+ * @param statusCode  http status code of the response
+ * @param body        response body
+ * @param gzippedBody gzip-compressed response body, null if compressed bodies are not stored
+ * @param storedAt    time in milliseconds when the response was received from mod-oai-pmh
+ */
+public record CachedResponse(int statusCode, Buffer body, Buffer gzippedBody, long storedAt) {
+
+  /**
+   * Creates the entry for a response received from mod-oai-pmh now.
+   *
+   * @param statusCode  http status code of the response
+   * @param body        response body
+   * @param gzipEnabled true to also store a gzip-compressed copy of the body
+   * @param storedAt    current time in milliseconds
+   * @return the entry
+   */
+  public static CachedResponse of(int statusCode, Buffer body, boolean gzipEnabled,
+                                  long storedAt) {
+    return new CachedResponse(statusCode, body, gzipEnabled ? gzip(body) : null, storedAt);
+  }
+
+  /**
+   * Returns the number of bytes held by the entry.
+   */
+  public int size() {
+    return body.length() + (gzippedBody == null ? 0 : gzippedBody.length());
+  }
+
+  private static Buffer gzip(Buffer body) {
+    var compressed = new ByteArrayOutputStream(body.length() / 4 + 64);
+    try (var gzip = new GZIPOutputStream(compressed)) {
+      gzip.write(body.getBytes());
+    } catch (IOException e) {
+      throw new IllegalStateException("The response cannot be compressed.", e);
+    }
+    return Buffer.buffer(compressed.toByteArray());
+  }
+}
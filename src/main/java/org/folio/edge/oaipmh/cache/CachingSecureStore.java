@@ -0,0 +1,86 @@
+package org.folio.edge.oaipmh.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.vertx.core.Future;
+import io.vertx.core.Vertx;
+import java.time.Duration;
+import java.util.List;
+import java.util.Properties;
+import lombok.extern.slf4j.Slf4j;
+import org.folio.edge.core.security.SecureStore;
+
+/**
+ * Secure store keeping the passwords read from another secure store for a while, so that Vault
+ * or AWS SSM is not asked on every login. The passwords of all member tenants of a consortium
+ * can be read ahead, in parallel, before harvesting reaches them.
+ */
+@Slf4j
+public class CachingSecureStore extends SecureStore {
+
+  private final SecureStore delegate;
+  private final Cache<String, String> passwords;
+
+  /**
+   * Creates the store.
+   *
+   * @param delegate  secure store to read passwords from
+   * @param capacity  max number of cached passwords
+   * @param ttlMillis how long a password is cached
+   */
+  public CachingSecureStore(SecureStore delegate, int capacity, long ttlMillis) {
+    super(new Properties());
+    this.delegate = delegate;
+    this.passwords = Caffeine.newBuilder()
+          .maximumSize(capacity)
+          .expireAfterWrite(Duration.ofMillis(ttlMillis))
+          .recordStats()
+          .build();
+  }
+
+  @Override
+  public String get(String clientId, String tenant, String username) throws NotFoundException {
+    var key = key(clientId, tenant, username);
+    var password = passwords.getIfPresent(key);
+    if (password == null) {
+      password = delegate.get(clientId, tenant, username);
+      if (password != null) {
+        passwords.put(key, password);
+      }
+    }
+    return password;
+  }
+
+  /**
+   * Reads the passwords of the user in the given tenants that are not cached yet. The secure
+   * store may be remote and blocking, so the passwords are read on worker threads, in parallel.
+   * Passwords that cannot be read are skipped, the login to the tenant fails later instead.
+   *
+   * @param vertx    vertx instance to run the reads on
+   * @param clientId client id, i.e. salt, of the API key
+   * @param tenants  tenants to read the passwords for
+   * @param username name of the institutional user
+   * @return future completed when all reads have completed
+   */
+  public Future<Void> preload(Vertx vertx, String clientId, List<String> tenants,
+                              String username) {
+    var reads = tenants.stream()
+          .filter(tenant -> passwords.getIfPresent(key(clientId, tenant, username)) == null)
+          .map(tenant -> vertx.executeBlocking(() -> get(clientId, tenant, username), false)
+                .onFailure(throwable -> log.debug("Password is not preloaded, tenant: {}, "
+                      + "reason: {}", tenant, throwable.getMessage())))
+          .toList();
+    return Future.join(reads).mapEmpty();
+  }
+
+  /**
+   * Returns the cached passwords, to bind their statistics to the metrics registry.
+   */
+  public Cache<String, String> getPasswords() {
+    return passwords;
+  }
+
+  private static String key(String clientId, String tenant, String username) {
+    return clientId + '&' + tenant + '&' + username;
+  }
+}
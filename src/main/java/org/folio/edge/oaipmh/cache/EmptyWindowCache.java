@@ -0,0 +1,149 @@
+package org.folio.edge.oaipmh.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.LongSupplier;
+import java.util.regex.Pattern;
+
+/**
+ * Remembers for a short time the harvesting windows in which a tenant has no records, i.e. for
+ * which mod-oai-pmh has answered with noRecordsMatch, so that multi-tenant harvesting can skip
+ * the tenant without calling it. A window is given by the metadata prefix, the set and the
+ * from and until dates, and an empty window also answers the narrower windows it contains.
+ * ListRecords and ListIdentifiers select the same records, so the verb is not part of the key.
+ */
+public class EmptyWindowCache {
+
+  private static final Pattern DAY = Pattern.compile("\\d{4}-\\d{2}-\\d{2}");
+  private static final Pattern DATE_TIME = Pattern.compile(
+        "\\d{4}-\\d{2}-\\d{2}T\\d{2}:\\d{2}:\\d{2}Z");
+  private static final String EARLIEST = "0000-01-01T00:00:00Z";
+  private static final String LATEST = "9999-12-31T23:59:59Z";
+  /**
+   * Max number of windows kept per tenant, metadata prefix and set.
+   */
+  private static final int MAX_WINDOWS = 16;
+
+  private final Cache<String, List<Window>> windows;
+  private final long ttlMillis;
+  private final LongSupplier clock;
+
+  /**
+   * Creates the cache.
+   *
+   * @param capacity  max number of tenant, metadata prefix and set combinations
+   * @param ttlMillis how long a window is known to be empty
+   */
+  public EmptyWindowCache(int capacity, long ttlMillis) {
+    this(capacity, ttlMillis, System::currentTimeMillis);
+  }
+
+  EmptyWindowCache(int capacity, long ttlMillis, LongSupplier clock) {
+    this.ttlMillis = ttlMillis;
+    this.clock = clock;
+    this.windows = Caffeine.newBuilder()
+          .maximumSize(capacity)
+          .expireAfterWrite(Duration.ofMillis(ttlMillis))
+          .ticker(() -> clock.getAsLong() * 1_000_000)
+          .build();
+  }
+
+  /**
+   * Checks whether the tenant is known to have no records in the window.
+   *
+   * @param tenant         tenant id
+   * @param metadataPrefix metadata prefix of the request
+   * @param set            set of the request, may be null
+   * @param from           from date of the request, may be null
+   * @param until          until date of the request, may be null
+   * @return true if a cached empty window contains the given one
+   */
+  public boolean isEmpty(String tenant, String metadataPrefix, String set, String from,
+                         String until) {
+    var lower = lowerBound(from);
+    var upper = upperBound(until);
+    var cached = windows.getIfPresent(key(tenant, metadataPrefix, set));
+    if (cached == null || lower == null || upper == null) {
+      return false;
+    }
+    long now = clock.getAsLong();
+    return cached.stream()
+          .anyMatch(window -> !window.isExpired(now, ttlMillis) && window.contains(lower, upper));
+  }
+
+  /**
+   * Stores the window in which the tenant has no records. Windows with dates in a format other
+   * than YYYY-MM-DD or YYYY-MM-DDThh:mm:ssZ are not stored.
+   *
+   * @param tenant         tenant id
+   * @param metadataPrefix metadata prefix of the request
+   * @param set            set of the request, may be null
+   * @param from           from date of the request, may be null
+   * @param until          until date of the request, may be null
+   */
+  public void putEmpty(String tenant, String metadataPrefix, String set, String from,
+                       String until) {
+    var lower = lowerBound(from);
+    var upper = upperBound(until);
+    if (lower == null || upper == null) {
+      return;
+    }
+    long now = clock.getAsLong();
+    var window = new Window(lower, upper, now);
+    windows.asMap().compute(key(tenant, metadataPrefix, set), (key, cached) -> {
+      List<Window> updated = new ArrayList<>();
+      if (cached != null) {
+        // windows contained in the new one are replaced by it
+        cached.stream()
+              .filter(old -> !old.isExpired(now, ttlMillis))
+              .filter(old -> !window.contains(old.from, old.until))
+              .forEach(updated::add);
+      }
+      updated.add(window);
+      return List.copyOf(updated.subList(Math.max(0, updated.size() - MAX_WINDOWS),
+            updated.size()));
+    });
+  }
+
+  private static String key(String tenant, String metadataPrefix, String set) {
+    return tenant + '&' + metadataPrefix + '&' + (set == null ? "" : set);
+  }
+
+  /**
+   * Converts the from date to a date and time, so that bounds compare as strings.
+   */
+  private static String lowerBound(String from) {
+    if (from == null) {
+      return EARLIEST;
+    }
+    return toDateTime(from, "T00:00:00Z");
+  }
+
+  private static String upperBound(String until) {
+    if (until == null) {
+      return LATEST;
+    }
+    return toDateTime(until, "T23:59:59Z");
+  }
+
+  private static String toDateTime(String date, String timeOfDay) {
+    if (DAY.matcher(date).matches()) {
+      return date + timeOfDay;
+    }
+    return DATE_TIME.matcher(date).matches() ? date : null;
+  }
+
+  private record Window(String from, String until, long storedAt) {
+
+    boolean contains(String otherFrom, String otherUntil) {
+      return from.compareTo(otherFrom) <= 0 && until.compareTo(otherUntil) >= 0;
+    }
+
+    boolean isExpired(long now, long ttlMillis) {
+      return now - storedAt >= ttlMillis;
+    }
+  }
+}
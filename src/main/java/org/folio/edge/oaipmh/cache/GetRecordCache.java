@@ -0,0 +1,124 @@
+package org.folio.edge.oaipmh.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.vertx.core.buffer.Buffer;
+import java.nio.ByteBuffer;
+import java.time.Duration;
+
+/**
+ * Cache of GetRecord responses keyed on tenant, identifier and metadata prefix, bounded by the
+ * total number of bytes it holds rather than by the number of entries. Caffeine admits new
+ * entries with W-TinyLFU, so a burst of one-off identifiers does not push the hot ones out, and
+ * evicts by weight, i.e. by size. Entries expire after a TTL. Bodies larger than the off-heap
+ * threshold are copied to direct memory so that they do not add to the heap the GC has to trace.
+ * They are copied back to a heap buffer on every hit, as the public Vert.x API cannot wrap direct
+ * memory, so the heap only holds them while they are written to the harvester.
+ */
+public class GetRecordCache {
+
+  private final Cache<String, Entry> entries;
+  private final boolean gzipEnabled;
+  private final int offHeapThreshold;
+
+  /**
+   * Creates the cache.
+   *
+   * @param maxBytes         total size of the cached bodies, in bytes
+   * @param ttlMillis        how long a response is cached
+   * @param offHeapThreshold bodies of at least that many bytes are stored off-heap
+   * @param gzipEnabled      true to store a gzip-compressed copy of every response
+   */
+  public GetRecordCache(long maxBytes, long ttlMillis, int offHeapThreshold,
+                        boolean gzipEnabled) {
+    this.gzipEnabled = gzipEnabled;
+    this.offHeapThreshold = offHeapThreshold;
+    this.entries = Caffeine.newBuilder()
+          .maximumWeight(maxBytes)
+          .weigher((String key, Entry entry) -> key.length() + entry.size())
+          .expireAfterWrite(Duration.ofMillis(ttlMillis))
+          .recordStats()
+          .build();
+  }
+
+  /**
+   * Builds the cache key.
+   */
+  public static String key(String tenant, String identifier, String metadataPrefix) {
+    return tenant + '&' + metadataPrefix + '&' + identifier;
+  }
+
+  public CachedResponse get(String key) {
+    var entry = entries.getIfPresent(key);
+    return entry == null ? null : new CachedResponse(entry.statusCode(), entry.body().toBuffer(),
+          entry.gzippedBody() == null ? null : entry.gzippedBody().toBuffer(), entry.storedAt());
+  }
+
+  /**
+   * Stores a response received from mod-oai-pmh.
+   *
+   * @param key        cache key
+   * @param statusCode http status code of the response
+   * @param body       response body
+   * @return the stored response
+   */
+  public CachedResponse put(String key, int statusCode, Buffer body) {
+    var response = CachedResponse.of(statusCode, body, gzipEnabled, System.currentTimeMillis());
+    entries.put(key, new Entry(response.statusCode(), store(response.body()),
+          response.gzippedBody() == null ? null : store(response.gzippedBody()),
+          response.storedAt()));
+    return response;
+  }
+
+  /**
+   * Returns the underlying cache, to bind its statistics to the metrics registry.
+   */
+  public Cache<String, ?> getEntries() {
+    return entries;
+  }
+
+  /**
+   * Returns whether the body of the cached response is held in direct memory.
+   */
+  boolean isOffHeap(String key) {
+    var entry = entries.getIfPresent(key);
+    return entry != null && entry.body().direct() != null;
+  }
+
+  private Body store(Buffer buffer) {
+    if (buffer.length() < offHeapThreshold) {
+      return new Body(buffer, null);
+    }
+    // memory of direct byte buffers is released by the JDK once the buffer is unreachable, so
+    // evicted entries need no explicit release
+    var direct = ByteBuffer.allocateDirect(buffer.length());
+    direct.put(buffer.getBytes()).flip();
+    return new Body(null, direct.asReadOnlyBuffer());
+  }
+
+  private record Entry(int statusCode, Body body, Body gzippedBody, long storedAt) {
+
+    int size() {
+      return body.length() + (gzippedBody == null ? 0 : gzippedBody.length());
+    }
+  }
+
+  /**
+   * Cached body, either a heap buffer or a read-only view of direct memory.
+   */
+  private record Body(Buffer heap, ByteBuffer direct) {
+
+    int length() {
+      return heap != null ? heap.length() : direct.capacity();
+    }
+
+    Buffer toBuffer() {
+      if (heap != null) {
+        return heap;
+      }
+      var bytes = new byte[direct.capacity()];
+      direct.get(0, bytes);
+      return Buffer.buffer(bytes);
+    }
+  }
+}
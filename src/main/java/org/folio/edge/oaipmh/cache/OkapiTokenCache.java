@@ -0,0 +1,178 @@
+package org.folio.edge.oaipmh.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.vertx.core.Future;
+import io.vertx.core.Promise;
+import io.vertx.core.json.JsonObject;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+import lombok.extern.slf4j.Slf4j;
+import org.folio.edge.oaipmh.metrics.OaiPmhMetrics.CacheMeters;
+
+/**
+ * Cache of Okapi tokens of the institutional users, keyed on salt, tenant and username, so that
+ * API keys for the same user with different salts do not share a token. A token is kept until
+ * shortly before the expiration time in its exp claim, and renewed in the background ahead of
+ * that while it is still served. Concurrent logins for the same key share one login. Tokens
+ * without an exp claim are not cached, and the number of cached tokens is bounded, expired ones
+ * being evicted.
+ */
+@Slf4j
+public class OkapiTokenCache {
+
+  /**
+   * A token is not used any more that long before it expires, to allow for clock skew and for
+   * the time the request carrying it takes to reach Okapi.
+   */
+  private static final long EXPIRY_MARGIN_MILLIS = 10_000L;
+
+  private final Cache<String, Entry> entries;
+  private final Map<String, Future<String>> logins = new ConcurrentHashMap<>();
+  private final long renewBeforeMillis;
+  private final CacheMeters meters;
+  private final LongSupplier clock;
+
+  /**
+   * Creates the cache.
+   *
+   * @param capacity          max number of cached tokens
+   * @param renewBeforeMillis how long before it expires a token is renewed
+   * @param meters            meters to record hits, misses and logins to
+   */
+  public OkapiTokenCache(int capacity, long renewBeforeMillis, CacheMeters meters) {
+    this(capacity, renewBeforeMillis, meters, System::currentTimeMillis);
+  }
+
+  OkapiTokenCache(int capacity, long renewBeforeMillis, CacheMeters meters, LongSupplier clock) {
+    this.entries = Caffeine.newBuilder()
+          .maximumSize(capacity)
+          .expireAfter(new Expiry<String, Entry>() {
+            @Override
+            public long expireAfterCreate(String key, Entry entry, long currentTime) {
+              return TimeUnit.MILLISECONDS.toNanos(
+                    Math.max(0, entry.usableUntil() - clock.getAsLong()));
+            }
+
+            @Override
+            public long expireAfterUpdate(String key, Entry entry, long currentTime,
+                                          long currentDuration) {
+              return expireAfterCreate(key, entry, currentTime);
+            }
+
+            @Override
+            public long expireAfterRead(String key, Entry entry, long currentTime,
+                                        long currentDuration) {
+              return currentDuration;
+            }
+          })
+          .build();
+    this.renewBeforeMillis = renewBeforeMillis;
+    this.meters = meters;
+    this.clock = clock;
+  }
+
+  /**
+   * Returns the token of the user.
+   *
+   * @param salt     salt of the API key, the client id
+   * @param tenant   tenant of the user
+   * @param username name of the institutional user
+   * @param login    logs the user in and returns the token, called only if no login for the
+   *                 user is running
+   * @return the cached token, or a new one if none is cached or the cached one has expired
+   */
+  public Future<String> get(String salt, String tenant, String username,
+                            Supplier<Future<String>> login) {
+    var key = salt + '&' + tenant + '&' + username;
+    var entry = entries.getIfPresent(key);
+    long now = clock.getAsLong();
+    if (entry != null && now < entry.renewAt()) {
+      meters.hit();
+      return Future.succeededFuture(entry.token());
+    }
+    if (entry != null && now < entry.usableUntil()) {
+      meters.staleHit();
+      login(key, login);
+      return Future.succeededFuture(entry.token());
+    }
+    meters.miss();
+    return login(key, login);
+  }
+
+  private Future<String> login(String key, Supplier<Future<String>> login) {
+    Promise<String> promise = Promise.promise();
+    var future = promise.future();
+    var running = logins.putIfAbsent(key, future);
+    if (running != null) {
+      return running;
+    }
+    long start = System.nanoTime();
+    future.onComplete(result -> {
+      meters.loaded(System.nanoTime() - start, result.succeeded());
+      if (result.succeeded()) {
+        store(key, result.result());
+      } else {
+        log.warn("Login has failed, key: {}, reason: {}", key, result.cause().getMessage());
+      }
+      logins.remove(key, future);
+    });
+    try {
+      login.get().onSuccess(promise::complete).onFailure(promise::fail);
+    } catch (RuntimeException e) {
+      promise.tryFail(e);
+    }
+    return future;
+  }
+
+  private void store(String key, String token) {
+    long expiresAt = expirationTime(token);
+    if (expiresAt < 0) {
+      entries.invalidate(key);
+      return;
+    }
+    long now = clock.getAsLong();
+    long usableUntil = expiresAt - EXPIRY_MARGIN_MILLIS;
+    // short-lived tokens are renewed halfway through their lifetime at the latest
+    long renewAt = usableUntil - Math.min(renewBeforeMillis, (usableUntil - now) / 2);
+    entries.put(key, new Entry(token, renewAt, usableUntil));
+  }
+
+  /**
+   * Returns the number of cached tokens, once the evictions due have been done.
+   */
+  long size() {
+    entries.cleanUp();
+    return entries.estimatedSize();
+  }
+
+  /**
+   * Reads the exp claim of a JWT.
+   *
+   * @return expiration time in milliseconds, or -1 if the token is not a JWT with exp claim
+   */
+  static long expirationTime(String token) {
+    var parts = token == null ? new String[0] : token.split("\\.");
+    if (parts.length < 2) {
+      return -1;
+    }
+    try {
+      var payload = new JsonObject(new String(Base64.getUrlDecoder().decode(parts[1]),
+            StandardCharsets.UTF_8));
+      var exp = payload.getLong("exp");
+      return exp == null ? -1 : exp * 1000;
+    } catch (RuntimeException e) {
+      log.debug("Expiration time of the token cannot be read: {}", e.getMessage());
+      return -1;
+    }
+  }
+
+  private record Entry(String token, long renewAt, long usableUntil) {
+  }
+}
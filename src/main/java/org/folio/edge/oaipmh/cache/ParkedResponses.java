@@ -0,0 +1,74 @@
+package org.folio.edge.oaipmh.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.vertx.core.Future;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import org.folio.edge.oaipmh.clients.UpstreamResponse;
+
+/**
+ * Holds the calls to mod-oai-pmh the harvester has been told to retry later, with 503 and
+ * Retry-After, because they took too long. The calls keep running in the background, and their
+ * responses are held until the harvester retries the same request. Each response is served
+ * once. Held responses are bounded by their total size and a TTL.
+ */
+public class ParkedResponses {
+
+  private final Cache<String, UpstreamResponse> responses;
+  private final Map<String, Future<UpstreamResponse>> running = new ConcurrentHashMap<>();
+
+  /**
+   * Creates the store.
+   *
+   * @param maxBytes  total size of the held responses, in bytes
+   * @param ttlMillis how long a response is held for the harvester to retry
+   */
+  public ParkedResponses(long maxBytes, long ttlMillis) {
+    this.responses = Caffeine.newBuilder()
+          .maximumWeight(maxBytes)
+          .weigher((String key, UpstreamResponse response) -> key.length()
+                + (response.body() == null ? 0 : response.body().length()))
+          .expireAfterWrite(Duration.ofMillis(ttlMillis))
+          .recordStats()
+          .build();
+  }
+
+  /**
+   * Parks a running call. Its response is held once it arrives, a failed call is dropped.
+   *
+   * @param key  key of the call
+   * @param call the running call
+   */
+  public void park(String key, Future<UpstreamResponse> call) {
+    running.put(key, call);
+    call.onComplete(result -> {
+      // the response is held only if the retry has not taken the call while it was running
+      if (running.remove(key, call) && result.succeeded()) {
+        responses.put(key, result.result());
+      }
+    });
+  }
+
+  /**
+   * Removes and returns a parked call.
+   *
+   * @param key key of the call
+   * @return the call, completed if its response has arrived, or null if none is parked
+   */
+  public Future<UpstreamResponse> take(String key) {
+    var response = responses.asMap().remove(key);
+    if (response != null) {
+      return Future.succeededFuture(response);
+    }
+    return running.remove(key);
+  }
+
+  /**
+   * Returns the held responses, to bind their statistics to the metrics registry.
+   */
+  public Cache<String, UpstreamResponse> getResponses() {
+    return responses;
+  }
+}
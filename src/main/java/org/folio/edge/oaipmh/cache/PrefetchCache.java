@@ -0,0 +1,114 @@
+package org.folio.edge.oaipmh.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.vertx.core.Future;
+import io.vertx.core.Promise;
+import io.vertx.core.buffer.Buffer;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Holds the pages of ListRecords and ListIdentifiers fetched ahead of the harvester. Once a
+ * page with a resumption token is sent, the next page is requested in the background, so that
+ * mod-oai-pmh works while the harvester parses, and the harvester's request for it is answered
+ * from memory. Each page is served once. Pages are bounded by their total size and a TTL, and
+ * the number of pages fetched at the same time is capped per tenant.
+ */
+public class PrefetchCache {
+
+  private final Cache<String, Buffer> pages;
+  private final Map<String, Future<Buffer>> inFlight = new ConcurrentHashMap<>();
+  private final Map<String, AtomicInteger> inFlightPerTenant = new ConcurrentHashMap<>();
+  private final int maxInFlightPerTenant;
+
+  /**
+   * Creates the cache.
+   *
+   * @param maxBytes             total size of the held pages, in bytes
+   * @param ttlMillis            how long a page is held for the harvester to ask for it
+   * @param maxInFlightPerTenant max number of pages of a tenant fetched at the same time
+   */
+  public PrefetchCache(long maxBytes, long ttlMillis, int maxInFlightPerTenant) {
+    this.maxInFlightPerTenant = maxInFlightPerTenant;
+    this.pages = Caffeine.newBuilder()
+          .maximumWeight(maxBytes)
+          .weigher((String key, Buffer page) -> key.length() + page.length())
+          .expireAfterWrite(Duration.ofMillis(ttlMillis))
+          .recordStats()
+          .build();
+  }
+
+  /**
+   * Builds the cache key.
+   */
+  public static String key(String tenant, String verb, String resumptionToken) {
+    return tenant + '&' + verb + '&' + resumptionToken;
+  }
+
+  /**
+   * Starts fetching a page unless it is already held or being fetched, or the tenant has
+   * reached its limit of pages fetched at the same time.
+   *
+   * @param tenant tenant the page belongs to
+   * @param key    cache key
+   * @param fetch  fetches the body of the page, fails if the page is not to be held
+   * @return true if the page is being fetched, false if the fetch has not been started or has
+   *       failed at once
+   */
+  public boolean prefetch(String tenant, String key, Supplier<Future<Buffer>> fetch) {
+    if (pages.getIfPresent(key) != null || inFlight.containsKey(key)) {
+      return false;
+    }
+    var tenantInFlight = inFlightPerTenant.computeIfAbsent(tenant, t -> new AtomicInteger());
+    if (tenantInFlight.incrementAndGet() > maxInFlightPerTenant) {
+      tenantInFlight.decrementAndGet();
+      return false;
+    }
+    Promise<Buffer> promise = Promise.promise();
+    var future = promise.future();
+    if (inFlight.putIfAbsent(key, future) != null) {
+      tenantInFlight.decrementAndGet();
+      return false;
+    }
+    future.onComplete(result -> {
+      tenantInFlight.decrementAndGet();
+      // the page is kept only if the harvester has not taken it while it was being fetched
+      if (inFlight.remove(key, future) && result.succeeded()) {
+        pages.put(key, result.result());
+      }
+    });
+    try {
+      fetch.get().onSuccess(promise::complete).onFailure(promise::fail);
+    } catch (RuntimeException e) {
+      // fails the fetch, which releases its slot
+      promise.tryFail(e);
+      return false;
+    }
+    return true;
+  }
+
+  /**
+   * Takes the page out of the cache.
+   *
+   * @param key cache key
+   * @return the page, completed later if it is still being fetched, or null if it is not held
+   */
+  public Future<Buffer> take(String key) {
+    var page = pages.asMap().remove(key);
+    if (page != null) {
+      return Future.succeededFuture(page);
+    }
+    return inFlight.remove(key);
+  }
+
+  /**
+   * Returns the held pages, to bind their statistics to the metrics registry.
+   */
+  public Cache<String, Buffer> getPages() {
+    return pages;
+  }
+}
@@ -0,0 +1,146 @@
+package org.folio.edge.oaipmh.cache;
+
+import io.vertx.core.MultiMap;
+import io.vertx.core.buffer.Buffer;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.LongSupplier;
+
+/**
+ * Bounded LRU cache of responses to the near-static verbs (Identify, ListMetadataFormats and
+ * ListSets), keyed on tenant and normalized request parameters. Fresh entries are served as they
+ * are. Entries that are past their TTL but within the stale window are still served while a
+ * single background refresh per key replaces them; if the refresh fails, the stale entry keeps
+ * being served until the stale window ends. Entries are stored encoded, optionally also
+ * gzip-compressed, so a hit costs no XML work.
+ */
+public class ResponseCache {
+
+  /**
+   * Freshness of a cached entry.
+   */
+  public enum Freshness {
+    FRESH, STALE
+  }
+
+  /**
+   * Parameters that do not change the response and are left out of the key, in lower case as
+   * parameter names are compared case-insensitively.
+   */
+  private static final Set<String> IGNORED_PARAMETERS = Set.of("apikey", "apikeypath");
+
+  private final long ttlMillis;
+  private final long staleTtlMillis;
+  private final boolean gzipEnabled;
+  private final LongSupplier clock;
+  private final Map<String, CachedResponse> entries;
+  private final Set<String> refreshing = new HashSet<>();
+
+  /**
+   * Creates the cache.
+   *
+   * @param capacity       max number of entries, across all tenants
+   * @param ttlMillis      how long an entry is fresh
+   * @param staleTtlMillis how long after its TTL an entry may still be served while it is being
+   *                       refreshed or while mod-oai-pmh fails
+   * @param gzipEnabled    true to store a gzip-compressed copy of every entry
+   */
+  public ResponseCache(int capacity, long ttlMillis, long staleTtlMillis, boolean gzipEnabled) {
+    this(capacity, ttlMillis, staleTtlMillis, gzipEnabled, System::currentTimeMillis);
+  }
+
+  ResponseCache(int capacity, long ttlMillis, long staleTtlMillis, boolean gzipEnabled,
+                LongSupplier clock) {
+    this.ttlMillis = ttlMillis;
+    this.staleTtlMillis = staleTtlMillis;
+    this.gzipEnabled = gzipEnabled;
+    this.clock = clock;
+    this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+      @Override
+      protected boolean removeEldestEntry(Map.Entry<String, CachedResponse> eldest) {
+        return size() > capacity;
+      }
+    };
+  }
+
+  /**
+   * Builds the cache key from the tenant and the request parameters sorted by name and value.
+   *
+   * @param tenant     tenant the response belongs to
+   * @param parameters request parameters
+   * @return cache key
+   */
+  public static String key(String tenant, MultiMap parameters) {
+    var key = new StringBuilder(tenant);
+    parameters.entries().stream()
+          .filter(entry -> !IGNORED_PARAMETERS.contains(entry.getKey().toLowerCase(Locale.ROOT)))
+          .sorted(Map.Entry.<String, String>comparingByKey()
+                .thenComparing(Map.Entry.comparingByValue()))
+          .forEach(entry -> key.append('&').append(entry.getKey()).append('=')
+                .append(entry.getValue()));
+    return key.toString();
+  }
+
+  /**
+   * Returns the entry if it is fresh or within the stale window, drops it otherwise.
+   *
+   * @param key cache key
+   * @return the entry or null
+   */
+  public synchronized CachedResponse get(String key) {
+    var entry = entries.get(key);
+    if (entry != null && freshness(entry) == null) {
+      entries.remove(key);
+      return null;
+    }
+    return entry;
+  }
+
+  /**
+   * Returns the freshness of the entry, null if it is past the stale window.
+   */
+  public Freshness freshness(CachedResponse entry) {
+    long age = clock.getAsLong() - entry.storedAt();
+    if (age < ttlMillis) {
+      return Freshness.FRESH;
+    }
+    return age < ttlMillis + staleTtlMillis ? Freshness.STALE : null;
+  }
+
+  /**
+   * Stores a response received from mod-oai-pmh.
+   *
+   * @param key        cache key
+   * @param statusCode http status code of the response
+   * @param body       response body
+   * @return the stored entry
+   */
+  public CachedResponse put(String key, int statusCode, Buffer body) {
+    var entry = CachedResponse.of(statusCode, body, gzipEnabled, clock.getAsLong());
+    synchronized (this) {
+      entries.put(key, entry);
+    }
+    return entry;
+  }
+
+  /**
+   * Marks the entry as being refreshed.
+   *
+   * @param key cache key
+   * @return true if the caller should refresh the entry, false if a refresh is in progress
+   */
+  public synchronized boolean startRefresh(String key) {
+    return refreshing.add(key);
+  }
+
+  public synchronized void finishRefresh(String key) {
+    refreshing.remove(key);
+  }
+
+  public synchronized int size() {
+    return entries.size();
+  }
+}
@@ -0,0 +1,104 @@
+package org.folio.edge.oaipmh.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.vertx.core.Future;
+import io.vertx.core.Promise;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+import org.folio.edge.oaipmh.metrics.OaiPmhMetrics.CacheMeters;
+
+/**
+ * Cache of the tenants lists of consortia, keyed on the tenant of the API key. Concurrent loads
+ * for the same tenant share one call. An entry is refreshed in the background once it is older
+ * than the refresh interval and is still served meanwhile, and an expired entry is served if
+ * loading its replacement fails. Empty lists are not stored.
+ */
+public class TenantsCache {
+
+  private final Cache<String, Entry> entries;
+  private final Map<String, Future<List<String>>> loads = new ConcurrentHashMap<>();
+  private final long refreshAfterMillis;
+  private final long ttlMillis;
+  private final CacheMeters meters;
+  private final LongSupplier clock;
+
+  /**
+   * Creates the cache.
+   *
+   * @param capacity           max number of cached tenants lists
+   * @param refreshAfterMillis age of an entry after which it is refreshed in the background
+   * @param ttlMillis          age of an entry after which it is loaded again before it is
+   *                           served
+   * @param meters             meters to record hits, misses and loads to
+   */
+  public TenantsCache(int capacity, long refreshAfterMillis, long ttlMillis, CacheMeters meters) {
+    this(capacity, refreshAfterMillis, ttlMillis, meters, System::currentTimeMillis);
+  }
+
+  TenantsCache(int capacity, long refreshAfterMillis, long ttlMillis, CacheMeters meters,
+               LongSupplier clock) {
+    this.entries = Caffeine.newBuilder()
+          .maximumSize(capacity)
+          .build();
+    this.refreshAfterMillis = refreshAfterMillis;
+    this.ttlMillis = ttlMillis;
+    this.meters = meters;
+    this.clock = clock;
+  }
+
+  /**
+   * Returns the tenants list of the tenant.
+   *
+   * @param tenant tenant of the API key
+   * @param loader loads the tenants list, called only if no load for the tenant is running
+   * @return the cached list, or the loaded one if there is no entry or the entry has expired
+   */
+  public Future<List<String>> get(String tenant, Supplier<Future<List<String>>> loader) {
+    var entry = entries.getIfPresent(tenant);
+    long age = entry == null ? Long.MAX_VALUE : clock.getAsLong() - entry.loadedAt();
+    if (age < refreshAfterMillis) {
+      meters.hit();
+      return Future.succeededFuture(entry.tenants());
+    }
+    if (age < ttlMillis) {
+      meters.staleHit();
+      load(tenant, loader);
+      return Future.succeededFuture(entry.tenants());
+    }
+    meters.miss();
+    return load(tenant, loader)
+          .recover(throwable -> entry != null
+                ? Future.succeededFuture(entry.tenants())
+                : Future.failedFuture(throwable));
+  }
+
+  private Future<List<String>> load(String tenant, Supplier<Future<List<String>>> loader) {
+    Promise<List<String>> promise = Promise.promise();
+    var future = promise.future();
+    var running = loads.putIfAbsent(tenant, future);
+    if (running != null) {
+      return running;
+    }
+    long start = System.nanoTime();
+    future.onComplete(result -> {
+      meters.loaded(System.nanoTime() - start, result.succeeded());
+      if (result.succeeded() && !result.result().isEmpty()) {
+        entries.put(tenant, new Entry(List.copyOf(result.result()), clock.getAsLong()));
+      }
+      loads.remove(tenant, future);
+    });
+    try {
+      loader.get().onSuccess(promise::complete).onFailure(promise::fail);
+    } catch (RuntimeException e) {
+      promise.tryFail(e);
+    }
+    return future;
+  }
+
+  private record Entry(List<String> tenants, long loadedAt) {
+  }
+}
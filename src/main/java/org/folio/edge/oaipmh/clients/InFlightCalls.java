@@ -0,0 +1,57 @@
+package org.folio.edge.oaipmh.clients;
+
+import io.vertx.core.Future;
+import io.vertx.core.Promise;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Calls to mod-oai-pmh being made, keyed on tenant and parameters. An identical call made while
+ * one is running is not sent, it gets the response of the running one instead.
+ */
+public class InFlightCalls {
+
+  private final Map<String, Future<UpstreamResponse>> calls = new ConcurrentHashMap<>();
+
+  /**
+   * Builds the key of a call.
+   *
+   * @param tenant     tenant the call is made to
+   * @param parameters query string of the call
+   * @return the key
+   */
+  public static String key(String tenant, String parameters) {
+    return tenant + '?' + parameters;
+  }
+
+  /**
+   * Makes the call unless an identical one is running.
+   *
+   * @param key      key of the call
+   * @param call     makes the call, invoked only if no call with the key is running
+   * @param onShared invoked if the response of a running call is shared instead
+   * @return the response
+   */
+  public Future<UpstreamResponse> call(String key, Supplier<Future<UpstreamResponse>> call,
+                                       Runnable onShared) {
+    Promise<UpstreamResponse> promise = Promise.promise();
+    var future = promise.future();
+    var running = calls.putIfAbsent(key, future);
+    if (running != null) {
+      onShared.run();
+      return running;
+    }
+    future.onComplete(result -> calls.remove(key, future));
+    try {
+      call.get().onSuccess(promise::complete).onFailure(promise::fail);
+    } catch (RuntimeException e) {
+      promise.tryFail(e);
+    }
+    return future;
+  }
+
+  int size() {
+    return calls.size();
+  }
+}
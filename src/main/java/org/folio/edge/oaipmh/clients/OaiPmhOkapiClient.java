@@ -1,14 +1,25 @@
 package org.folio.edge.oaipmh.clients;
 
 import static io.vertx.core.http.HttpHeaders.ACCEPT;
+import static io.vertx.core.http.HttpHeaders.ACCEPT_ENCODING;
+import static io.vertx.core.http.HttpHeaders.CONNECTION;
 import static io.vertx.core.http.HttpHeaders.CONTENT_LENGTH;
+import static io.vertx.core.http.HttpHeaders.HOST;
+import static io.vertx.core.http.HttpHeaders.KEEP_ALIVE;
+import static io.vertx.core.http.HttpHeaders.TRANSFER_ENCODING;
+import static io.vertx.core.http.HttpHeaders.UPGRADE;
 import static java.util.stream.Collectors.joining;
+import static org.folio.edge.core.Constants.X_OKAPI_TENANT;
 import static org.folio.edge.oaipmh.utils.Constants.MOD_OAI_PMH_ACCEPTED_TYPES;
 
-import io.vertx.core.Handler;
+import io.vertx.core.Future;
 import io.vertx.core.MultiMap;
-import io.vertx.core.buffer.Buffer;
-import io.vertx.ext.web.client.HttpResponse;
+import io.vertx.core.Promise;
+import io.vertx.core.http.HttpClient;
+import io.vertx.core.http.HttpClientResponse;
+import io.vertx.core.http.HttpMethod;
+import io.vertx.core.http.RequestOptions;
+import java.util.List;
 import lombok.extern.slf4j.Slf4j;
 import org.folio.edge.core.utils.OkapiClient;
 
@@ -16,9 +27,28 @@ import org.folio.edge.core.utils.OkapiClient;
 public class OaiPmhOkapiClient extends OkapiClient {
 
   private static final String OAI_PMH_ENDPOINT = "/oai/records";
+  // headers of the harvester's connection, which do not apply to the connection to mod-oai-pmh.
+  // Accept-Encoding is not forwarded either: the streaming client negotiates compression with
+  // mod-oai-pmh itself and decompresses the responses, which are compressed for the harvester
+  // by the edge server if response_compression is set
+  private static final List<CharSequence> NOT_FORWARDED_HEADERS = List.of(HOST, CONNECTION,
+        KEEP_ALIVE, TRANSFER_ENCODING, UPGRADE, CONTENT_LENGTH, ACCEPT_ENCODING);
+
+  private final long idleTimeout;
 
   public OaiPmhOkapiClient(OkapiClient client) {
+    this(client, 0);
+  }
+
+  /**
+   * Creates the client with its own timeout for streamed calls.
+   *
+   * @param client    client to copy
+   * @param timeoutMs idle timeout of streamed calls, 0 for the request timeout
+   */
+  public OaiPmhOkapiClient(OkapiClient client, long timeoutMs) {
     super(client);
+    idleTimeout = timeoutMs > 0 ? timeoutMs : reqTimeout;
     fixDefaultHeaders();
   }
 
@@ -31,31 +61,71 @@ public class OaiPmhOkapiClient extends OkapiClient {
   }
 
   /**
-   * This method calls OAI-PMH-MOD to retrieve response for 'verb' from mod-oai-pmh.
+   * This method calls OAI-PMH-MOD and completes the future as soon as the status and headers of
+   * the response are received. The body is not consumed.
    *
+   * @param httpClient http client used for streamed calls
    * @param parameters multimap of HTTP GET parameters
-   * @param headers    multimap of HTTP GET headers
+   * @return response with not yet consumed body
+   */
+  public Future<HttpClientResponse> send(HttpClient httpClient, MultiMap parameters) {
+    return send(httpClient, parameters, Promise.<Void>promise().future());
+  }
+
+  /**
+   * This method calls OAI-PMH-MOD and completes the future as soon as the status and headers of
+   * the response are received. The body is not consumed. The request is reset when the
+   * cancellation completes, which fails the call if the response has not been read by then.
+   *
+   * @param httpClient   http client used for streamed calls
+   * @param parameters   multimap of HTTP GET parameters
+   * @param cancellation completed when the call is no longer needed
+   * @return response with not yet consumed body
+   */
+  public Future<HttpClientResponse> send(HttpClient httpClient, MultiMap parameters,
+                                         Future<Void> cancellation) {
+    return send(httpClient, parameters, MultiMap.caseInsensitiveMultiMap(), cancellation);
+  }
+
+  /**
+   * This method calls OAI-PMH-MOD with the headers of the harvester's request and completes the
+   * future as soon as the status and headers of the response are received. The body is not
+   * consumed. The request is reset when the cancellation completes.
+   *
+   * @param httpClient   http client used for streamed calls
+   * @param parameters   multimap of HTTP GET parameters
+   * @param headers      multimap of HTTP GET headers, the ones of the connection, Accept and
+   *                     Accept-Encoding are not forwarded
+   * @param cancellation completed when the call is no longer needed
+   * @return response with not yet consumed body
    */
-  public void call(MultiMap parameters, MultiMap headers,
-                   Handler<HttpResponse<Buffer>> responseHandler,
-                   Handler<Throwable> exceptionHandler) {
-    // "Content-Length" header appearing from POST request to edge-oai-pmh API
-    // should be removed as unnecessary
-    // for GET request to mod-oai-pmh
-    headers.remove(CONTENT_LENGTH);
+  public Future<HttpClientResponse> send(HttpClient httpClient, MultiMap parameters,
+                                         MultiMap headers, Future<Void> cancellation) {
+    var requestHeaders = MultiMap.caseInsensitiveMultiMap().addAll(headers);
+    NOT_FORWARDED_HEADERS.forEach(requestHeaders::remove);
     // EDGOAIPMH-39
-    headers.remove(ACCEPT);
-    headers.add(ACCEPT, MOD_OAI_PMH_ACCEPTED_TYPES);
-    String url = getUrl(parameters);
-    get(
-          url,
-          tenant,
-          headers,
-          responseHandler,
-          exceptionHandler);
+    requestHeaders.setAll(defaultHeaders)
+          .set(X_OKAPI_TENANT, tenant);
+    var options = new RequestOptions()
+          .setMethod(HttpMethod.GET)
+          .setAbsoluteURI(getUrl(parameters))
+          .setHeaders(requestHeaders)
+          .setIdleTimeout(idleTimeout);
+    log.debug("Streaming GET {} tenant: {}", options.getURI(), tenant);
+    return httpClient.request(options)
+          .compose(request -> {
+            cancellation.onComplete(result -> request.reset());
+            return request.send();
+          });
   }
 
-  private String getParametersAsString(MultiMap parameters) {
+  /**
+   * This method builds the query string of a call to OAI-PMH-MOD.
+   *
+   * @param parameters multimap of HTTP GET parameters
+   * @return query string without the API key path parameter
+   */
+  public static String getParametersAsString(MultiMap parameters) {
     return parameters.entries().stream()
           .filter(e -> !e.getKey().equals("apiKeyPath"))
           .map(e -> e.getKey() + "=" + e.getValue())
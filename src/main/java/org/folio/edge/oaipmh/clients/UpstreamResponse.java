@@ -0,0 +1,15 @@
+package org.folio.edge.oaipmh.clients;
+
+import io.vertx.core.buffer.Buffer;
+
+/**
+ * Fully read response of mod-oai-pmh, which can be handed to several requests.
+ *
+ * @param statusCode      http status code
+ * @param statusMessage   http status message
+ * @param contentEncoding value of the Content-Encoding header, may be null
+ * @param body            response body
+ */
+public record UpstreamResponse(int statusCode, String statusMessage, String contentEncoding,
+                               Buffer body) {
+}
@@ -0,0 +1,190 @@
+package org.folio.edge.oaipmh.limit;
+
+import io.vertx.core.Future;
+import io.vertx.core.Promise;
+import io.vertx.core.Vertx;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Limits the number of calls to mod-oai-pmh running at the same time. The limit adapts to the
+ * measured latency of the calls, AIMD style: it grows by one per limit-sized batch of calls
+ * that complete within the latency threshold, and shrinks by the backoff ratio whenever a
+ * call is slower or fails. Calls known to be slow only shrink the limit if they fail, and calls
+ * cancelled by the caller leave it as it is. Calls beyond the limit wait in a bounded queue,
+ * which is shared among flows, such as tenants, with weighted fair queuing, and are rejected
+ * once the queue is full or once they have waited too long.
+ */
+public class AdaptiveConcurrencyLimiter {
+
+  private static final double BACKOFF_RATIO = 0.9;
+
+  private final int minLimit;
+  private final int maxLimit;
+  private final int maxQueued;
+  private final long maxQueueWaitMillis;
+  private final long latencyThresholdNanos;
+  private final WeightedFairQueue<Promise<Permit>> queue = new WeightedFairQueue<>();
+  private double limit;
+  private int inFlight;
+
+  /**
+   * Creates the limiter.
+   *
+   * @param initialLimit           limit to start with
+   * @param minLimit               limit never shrinks below it
+   * @param maxLimit               limit never grows above it
+   * @param maxQueued              max number of calls waiting for a permit
+   * @param maxQueueWaitMillis     max time a call waits for a permit, 0 for no max
+   * @param latencyThresholdMillis calls slower than that shrink the limit
+   */
+  public AdaptiveConcurrencyLimiter(int initialLimit, int minLimit, int maxLimit, int maxQueued,
+                                    long maxQueueWaitMillis, long latencyThresholdMillis) {
+    this.minLimit = minLimit;
+    this.maxLimit = maxLimit;
+    this.maxQueued = maxQueued;
+    this.maxQueueWaitMillis = maxQueueWaitMillis;
+    this.latencyThresholdNanos = TimeUnit.MILLISECONDS.toNanos(latencyThresholdMillis);
+    this.limit = Math.clamp(initialLimit, minLimit, maxLimit);
+  }
+
+  /**
+   * Returns a permit to call mod-oai-pmh, at once if the limit allows it, or once a running call
+   * completes and it is the turn of the flow.
+   *
+   * @param vertx  used to time the wait in the queue
+   * @param flow   flow the call belongs to
+   * @param weight weight of the flow, positive
+   * @return permit to release once the call completes, failed with {@link RejectedException}
+   *       if the queue is full or if the call has waited for the max queue wait
+   */
+  public Future<Permit> acquire(Vertx vertx, String flow, double weight) {
+    Promise<Permit> promise = Promise.promise();
+    synchronized (this) {
+      if (inFlight < (int) limit) {
+        inFlight++;
+        return Future.succeededFuture(new Permit());
+      }
+      if (queue.size() >= maxQueued) {
+        return Future.failedFuture(new RejectedException());
+      }
+      queue.add(flow, weight, promise);
+    }
+    if (maxQueueWaitMillis > 0) {
+      vertx.setTimer(maxQueueWaitMillis, id -> expire(promise));
+    }
+    return promise.future();
+  }
+
+  /**
+   * Rejects the call if it is still waiting for a permit.
+   */
+  private void expire(Promise<Permit> promise) {
+    boolean waiting;
+    synchronized (this) {
+      waiting = queue.remove(promise);
+    }
+    if (waiting) {
+      promise.fail(new RejectedException());
+    }
+  }
+
+  /**
+   * Returns a permit only if the limit allows it at once, for calls that can as well be left
+   * out, such as background ones.
+   *
+   * @return the permit, or null
+   */
+  public synchronized Permit tryAcquire() {
+    if (inFlight < (int) limit && queue.isEmpty()) {
+      inFlight++;
+      return new Permit();
+    }
+    return null;
+  }
+
+  private void release(long latencyNanos, boolean succeeded, boolean timed) {
+    List<Promise<Permit>> granted = new ArrayList<>();
+    synchronized (this) {
+      inFlight--;
+      if (!succeeded || (timed && latencyNanos > latencyThresholdNanos)) {
+        limit = Math.max(minLimit, limit * BACKOFF_RATIO);
+      } else if (timed) {
+        limit = Math.min(maxLimit, limit + 1 / limit);
+      }
+      while (!queue.isEmpty() && inFlight < (int) limit) {
+        inFlight++;
+        granted.add(queue.poll());
+      }
+    }
+    // waiting calls are resumed outside the lock, as they may acquire permits themselves
+    granted.forEach(promise -> promise.complete(new Permit()));
+  }
+
+  public synchronized int getLimit() {
+    return (int) limit;
+  }
+
+  public synchronized int getInFlight() {
+    return inFlight;
+  }
+
+  public synchronized int getQueued() {
+    return queue.size();
+  }
+
+  /**
+   * Permit to make one call. Releasing it more than once has no effect.
+   */
+  public class Permit {
+
+    private final long start = System.nanoTime();
+    private final AtomicBoolean released = new AtomicBoolean();
+
+    /**
+     * Releases the permit once the call has completed, and adapts the limit to its outcome.
+     *
+     * @param succeeded whether mod-oai-pmh has responded
+     */
+    public void release(boolean succeeded) {
+      release(succeeded, true);
+    }
+
+    /**
+     * Releases the permit once the call has completed, and adapts the limit to its outcome.
+     *
+     * @param succeeded whether mod-oai-pmh has responded
+     * @param timed     whether the latency of the call tells the load of mod-oai-pmh, calls
+     *                  known to be slow, such as the first page of a harvest, are not timed and
+     *                  leave the limit as it is unless they fail
+     */
+    public void release(boolean succeeded, boolean timed) {
+      if (released.compareAndSet(false, true)) {
+        AdaptiveConcurrencyLimiter.this.release(System.nanoTime() - start, succeeded, timed);
+      }
+    }
+
+    /**
+     * Releases the permit of a call that the caller has reset, such as one whose harvester has
+     * disconnected, leaving the limit as it is.
+     */
+    public void cancel() {
+      if (released.compareAndSet(false, true)) {
+        // neither failed nor timed, as the call tells nothing about the load of mod-oai-pmh
+        AdaptiveConcurrencyLimiter.this.release(System.nanoTime() - start, true, false);
+      }
+    }
+  }
+
+  /**
+   * Thrown when a call is rejected because too many calls are waiting already.
+   */
+  public static class RejectedException extends RuntimeException {
+
+    public RejectedException() {
+      super("Too many requests to the repository, please retry later");
+    }
+  }
+}
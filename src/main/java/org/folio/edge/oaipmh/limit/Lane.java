@@ -0,0 +1,17 @@
+package org.folio.edge.oaipmh.limit;
+
+import io.vertx.core.http.HttpClient;
+
+/**
+ * Execution lane of the calls to mod-oai-pmh. Calls of different lanes do not share
+ * connections nor concurrency slots, so slow calls of one lane cannot delay the calls of
+ * another.
+ *
+ * @param name      name of the lane, used to tag its metrics
+ * @param client    http client with the connection pool of the lane
+ * @param limiter   limiter of the concurrent calls of the lane, null if they are not limited
+ * @param timeoutMs idle timeout of the calls of the lane, 0 for the request timeout
+ */
+public record Lane(String name, HttpClient client, AdaptiveConcurrencyLimiter limiter,
+                   long timeoutMs) {
+}
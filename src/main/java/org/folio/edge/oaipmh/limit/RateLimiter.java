@@ -0,0 +1,125 @@
+package org.folio.edge.oaipmh.limit;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Limits how fast each harvester, identified by its API key, can go. Every key has a budget of
+ * requests per second and a budget of response bytes per second, each kept in a token bucket.
+ * A request is let through while the key has a request token and its bytes budget is not in
+ * debt, and the size of its response is taken from the bytes budget once it is sent. Keys not
+ * seen for a while are forgotten, their buckets are full again by then anyway.
+ */
+public class RateLimiter {
+
+  public static final String BUDGET_REQUESTS = "requests";
+  public static final String BUDGET_BYTES = "bytes";
+
+  private static final int MAX_KEYS = 100_000;
+  private static final Duration IDLE_TIMEOUT = Duration.ofHours(1);
+
+  private final double requestsPerSecond;
+  private final double burstRequests;
+  private final double bytesPerSecond;
+  private final double burstBytes;
+  private final Cache<String, Buckets> buckets = Caffeine.newBuilder()
+        .maximumSize(MAX_KEYS)
+        .expireAfterAccess(IDLE_TIMEOUT)
+        .build();
+
+  /**
+   * Creates the limiter.
+   *
+   * @param requestsPerSecond requests per second allowed per key, 0 for no limit
+   * @param burstRequests     requests a key can make at once
+   * @param bytesPerSecond    response bytes per second allowed per key, 0 for no limit
+   * @param burstBytes        response bytes a key can receive at once
+   */
+  public RateLimiter(double requestsPerSecond, double burstRequests, double bytesPerSecond,
+                     double burstBytes) {
+    this.requestsPerSecond = requestsPerSecond;
+    this.burstRequests = burstRequests;
+    this.bytesPerSecond = bytesPerSecond;
+    this.burstBytes = burstBytes;
+  }
+
+  /**
+   * Takes a request from the budget of the key.
+   *
+   * @param key API key of the harvester
+   * @return null if the request is let through, otherwise the budget it is over and when to
+   *       retry
+   */
+  public Throttling tryAcquire(String key) {
+    var keyBuckets = buckets.get(key, k -> new Buckets(
+          requestsPerSecond > 0 ? new TokenBucket(burstRequests, requestsPerSecond) : null,
+          bytesPerSecond > 0 ? new TokenBucket(burstBytes, bytesPerSecond) : null));
+    if (keyBuckets.bytes() != null) {
+      long waitNanos = keyBuckets.bytes().tryAcquire(0);
+      if (waitNanos > 0) {
+        return new Throttling(BUDGET_BYTES, waitNanos);
+      }
+    }
+    if (keyBuckets.requests() != null) {
+      long waitNanos = keyBuckets.requests().tryAcquire(1);
+      if (waitNanos > 0) {
+        return new Throttling(BUDGET_REQUESTS, waitNanos);
+      }
+    }
+    return null;
+  }
+
+  /**
+   * Takes the size of a response sent to the key from its bytes budget.
+   *
+   * @param key   API key of the harvester
+   * @param bytes size of the response
+   */
+  public void recordBytes(String key, long bytes) {
+    var keyBuckets = buckets.getIfPresent(key);
+    if (keyBuckets != null && keyBuckets.bytes() != null) {
+      keyBuckets.bytes().consume(bytes);
+    }
+  }
+
+  /**
+   * Returns the number of API keys tracked.
+   */
+  public long getKeys() {
+    return buckets.estimatedSize();
+  }
+
+  /**
+   * Returns the number of API keys that are over one of their budgets right now.
+   */
+  public long getThrottledKeys() {
+    return buckets.asMap().values().stream()
+          .filter(keyBuckets -> keyBuckets.requests() != null
+                && keyBuckets.requests().getAvailable() < 1
+                || keyBuckets.bytes() != null && keyBuckets.bytes().getAvailable() < 0)
+          .count();
+  }
+
+  /**
+   * Budget a request is over.
+   *
+   * @param budget          {@link #BUDGET_REQUESTS} or {@link #BUDGET_BYTES}
+   * @param retryAfterNanos time until the budget allows a request again
+   */
+  public record Throttling(String budget, long retryAfterNanos) {
+
+    /**
+     * Returns the time until the budget allows a request again, rounded up to whole seconds as
+     * the Retry-After header needs, and at least one second.
+     */
+    public long retryAfterSeconds() {
+      return Math.max(1, (retryAfterNanos + TimeUnit.SECONDS.toNanos(1) - 1)
+            / TimeUnit.SECONDS.toNanos(1));
+    }
+  }
+
+  private record Buckets(TokenBucket requests, TokenBucket bytes) {
+  }
+}
@@ -0,0 +1,86 @@
+package org.folio.edge.oaipmh.limit;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.LongSupplier;
+
+/**
+ * Lock-free token bucket. Tokens are refilled at a constant rate up to the capacity of the
+ * bucket, and the state is replaced with compare-and-set, so concurrent takers never block.
+ * Tokens may also be consumed after the fact, for costs known only once the work is done such
+ * as the size of a response, which can leave the bucket in debt until it is refilled.
+ */
+public class TokenBucket {
+
+  private final double capacity;
+  private final double tokensPerNano;
+  private final LongSupplier clock;
+  private final AtomicReference<State> state;
+
+  /**
+   * Creates a full bucket.
+   *
+   * @param capacity        max number of tokens, i.e. the burst allowed
+   * @param tokensPerSecond refill rate, positive
+   */
+  public TokenBucket(double capacity, double tokensPerSecond) {
+    this(capacity, tokensPerSecond, System::nanoTime);
+  }
+
+  TokenBucket(double capacity, double tokensPerSecond, LongSupplier clock) {
+    this.capacity = capacity;
+    this.tokensPerNano = tokensPerSecond / TimeUnit.SECONDS.toNanos(1);
+    this.clock = clock;
+    this.state = new AtomicReference<>(new State(capacity, clock.getAsLong()));
+  }
+
+  /**
+   * Takes the tokens if the bucket holds them. With 0 tokens it only tells whether the bucket
+   * is in debt.
+   *
+   * @param tokens number of tokens to take
+   * @return 0 if the tokens are taken, otherwise the time until the bucket holds them, in
+   *       nanoseconds
+   */
+  public long tryAcquire(double tokens) {
+    while (true) {
+      var current = state.get();
+      var refilled = refill(current);
+      if (refilled.tokens() < tokens) {
+        return (long) Math.ceil((tokens - refilled.tokens()) / tokensPerNano);
+      }
+      if (state.compareAndSet(current, new State(refilled.tokens() - tokens, refilled.time()))) {
+        return 0;
+      }
+    }
+  }
+
+  /**
+   * Takes the tokens whether the bucket holds them or not.
+   *
+   * @param tokens number of tokens to take
+   */
+  public void consume(double tokens) {
+    state.updateAndGet(current -> {
+      var refilled = refill(current);
+      return new State(refilled.tokens() - tokens, refilled.time());
+    });
+  }
+
+  /**
+   * Returns the number of tokens in the bucket, negative if it is in debt.
+   */
+  public double getAvailable() {
+    return refill(state.get()).tokens();
+  }
+
+  private State refill(State current) {
+    // the clock may be read by another thread before this one, time never goes back
+    long now = Math.max(clock.getAsLong(), current.time());
+    return new State(Math.min(capacity, current.tokens() + (now - current.time()) * tokensPerNano),
+          now);
+  }
+
+  private record State(double tokens, long time) {
+  }
+}
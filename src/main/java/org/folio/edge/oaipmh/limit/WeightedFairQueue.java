@@ -0,0 +1,100 @@
+package org.folio.edge.oaipmh.limit;
+
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.PriorityQueue;
+
+/**
+ * Queue of items of several flows, dispatched with weighted fair queuing. Each item gets a
+ * virtual finish time, one over the weight of its flow after the later of the current virtual
+ * time and the finish time of the previous item of the flow, and items are polled in finish
+ * time order. A flow with twice the weight of another is thus served twice as often while both
+ * have items waiting, and a flow that has been idle does not build up credit. Not thread-safe.
+ *
+ * @param <T> type of the items
+ */
+public class WeightedFairQueue<T> {
+
+  private final PriorityQueue<Entry<T>> entries = new PriorityQueue<>(
+        Comparator.<Entry<T>>comparingDouble(Entry::finish).thenComparingLong(Entry::sequence));
+  private final Map<String, Double> lastFinish = new HashMap<>();
+  private double virtualTime;
+  private long sequence;
+
+  /**
+   * Adds an item.
+   *
+   * @param flow   flow of the item
+   * @param weight weight of the flow, positive
+   * @param item   the item
+   */
+  public void add(String flow, double weight, T item) {
+    double start = Math.max(virtualTime, lastFinish.getOrDefault(flow, 0.0));
+    double finish = start + 1 / weight;
+    lastFinish.put(flow, finish);
+    entries.add(new Entry<>(flow, finish, sequence++, item));
+  }
+
+  /**
+   * Removes and returns the item with the earliest finish time.
+   *
+   * @return the item, or null if the queue is empty
+   */
+  public T poll() {
+    var entry = entries.poll();
+    if (entry == null) {
+      return null;
+    }
+    virtualTime = entry.finish();
+    // the flow has no items left, so it is dropped to keep the map bounded by the queue
+    lastFinish.remove(entry.flow(), entry.finish());
+    return entry.item();
+  }
+
+  /**
+   * Removes the item, wherever it is in the queue.
+   *
+   * @return true if the item was in the queue
+   */
+  public boolean remove(T item) {
+    return entries.removeIf(entry -> entry.item() == item);
+  }
+
+  public int size() {
+    return entries.size();
+  }
+
+  public boolean isEmpty() {
+    return entries.isEmpty();
+  }
+
+  /**
+   * Parses weights given as comma separated flow:weight pairs, such as "central:1,college:4".
+   *
+   * @param weights the weights, may be null or empty
+   * @return weights by flow
+   * @throws IllegalArgumentException if a pair cannot be parsed or a weight is not positive
+   */
+  public static Map<String, Double> parseWeights(String weights) {
+    Map<String, Double> parsed = new HashMap<>();
+    if (weights == null || weights.isBlank()) {
+      return parsed;
+    }
+    for (var pair : weights.split(",")) {
+      var parts = pair.split(":");
+      if (parts.length != 2) {
+        throw new IllegalArgumentException("Weight is not a flow:weight pair: " + pair);
+      }
+      double weight = Double.parseDouble(parts[1].trim());
+      if (weight <= 0) {
+        throw new IllegalArgumentException("Weight is not positive: " + pair);
+      }
+      parsed.put(parts[0].trim(), weight);
+    }
+    return parsed;
+  }
+
+  private record Entry<T>(String flow, double finish, long sequence, T item) {
+  }
+}
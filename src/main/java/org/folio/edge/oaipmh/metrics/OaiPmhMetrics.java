@@ -0,0 +1,390 @@
+package org.folio.edge.oaipmh.metrics;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.FunctionTimer;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import io.micrometer.core.instrument.binder.jvm.JvmGcMetrics;
+import io.micrometer.core.instrument.binder.jvm.JvmMemoryMetrics;
+import io.micrometer.core.instrument.binder.jvm.JvmThreadMetrics;
+import io.micrometer.core.instrument.binder.system.ProcessorMetrics;
+import io.micrometer.prometheusmetrics.PrometheusConfig;
+import io.micrometer.prometheusmetrics.PrometheusMeterRegistry;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import org.folio.edge.oaipmh.limit.AdaptiveConcurrencyLimiter;
+import org.folio.edge.oaipmh.limit.RateLimiter;
+import org.folio.edge.oaipmh.utils.ResponseConverter;
+import org.folio.edge.oaipmh.utils.XmlProcessingPool;
+import org.openarchives.oai._2.VerbType;
+
+/**
+ * Metrics of the edge module in Prometheus format. All meters that do not depend on the tenant
+ * are registered up front, and per-tenant meters are registered once per tenant and kept in a
+ * map, so recording never looks meters up in the registry.
+ */
+public class OaiPmhMetrics {
+
+  public static final String PROMETHEUS_CONTENT_TYPE = "text/plain; version=0.0.4; charset=utf-8";
+  public static final String CACHE_TENANTS = "tenants";
+  public static final String CACHE_RESPONSES = "responses";
+  public static final String CACHE_GET_RECORD = "getRecord";
+  public static final String CACHE_PREFETCH = "prefetch";
+  public static final String CACHE_EMPTY_WINDOWS = "emptyWindows";
+  public static final String CACHE_TOKENS = "tokens";
+  public static final String CACHE_CREDENTIALS = "credentials";
+  public static final String CACHE_PARKED = "parked";
+
+  private static final String UNKNOWN = "unknown";
+  private static final String VERB = "verb";
+  private static final String TENANT = "tenant";
+  private static final String CACHE = "cache";
+  private static final String RESULT = "result";
+  // bad verbs are tagged as unknown to keep the number of time series bounded
+  private static final Set<String> VERBS = Arrays.stream(VerbType.values())
+        .map(VerbType::value)
+        .collect(Collectors.toUnmodifiableSet());
+  private static final Duration MIN_EXPECTED_LATENCY = Duration.ofMillis(1);
+  private static final Duration MAX_EXPECTED_LATENCY = Duration.ofMinutes(10);
+
+  private final PrometheusMeterRegistry registry =
+        new PrometheusMeterRegistry(PrometheusConfig.DEFAULT);
+  private final Map<String, Map<String, Timer>> requestTimers = new ConcurrentHashMap<>();
+  private final Map<String, Timer> upstreamTimers;
+  private final Map<String, Timer> queueWaitTimers = new ConcurrentHashMap<>();
+  private final Map<String, Counter> throttledRequests = new ConcurrentHashMap<>();
+  private final Map<String, Counter> coalescedCalls;
+  private final Map<String, DistributionSummary> responseSizes;
+  private final Map<String, CacheMeters> caches = new ConcurrentHashMap<>();
+  private final Counter tenantSwitches;
+  private final Counter abandonedRequests;
+  private final Counter cancelledCalls;
+  private final Counter rejectedCalls;
+  private final Timer eventLoopLag;
+  private final LongAdder inFlightRequests = new LongAdder();
+
+  /**
+   * Creates the registry and registers the meters.
+   */
+  public OaiPmhMetrics() {
+    upstreamTimers = perVerb(verb -> Timer.builder("oai.pmh.upstream.requests")
+          .description("Latency of mod-oai-pmh calls until the response head is received")
+          .tag(VERB, verb)
+          .publishPercentileHistogram()
+          .minimumExpectedValue(MIN_EXPECTED_LATENCY)
+          .maximumExpectedValue(MAX_EXPECTED_LATENCY)
+          .register(registry));
+    coalescedCalls = perVerb(verb -> Counter.builder("oai.pmh.upstream.coalesced")
+          .description("Number of mod-oai-pmh calls saved by sharing the response of an "
+                + "identical running call")
+          .tag(VERB, verb)
+          .register(registry));
+    responseSizes = perVerb(verb -> DistributionSummary.builder("oai.pmh.response.size")
+          .description("Size of the responses sent to harvesters")
+          .baseUnit("bytes")
+          .tag(VERB, verb)
+          .publishPercentileHistogram()
+          .register(registry));
+    tenantSwitches = Counter.builder("oai.pmh.tenant.switches")
+          .description("Number of times multi-tenant harvesting moved on to the next tenant")
+          .register(registry);
+    abandonedRequests = Counter.builder("oai.pmh.requests.abandoned")
+          .description("Number of requests whose harvester disconnected before the response "
+                + "was ended")
+          .register(registry);
+    cancelledCalls = Counter.builder("oai.pmh.upstream.cancelled")
+          .description("Number of mod-oai-pmh calls reset because the harvester disconnected")
+          .register(registry);
+    rejectedCalls = Counter.builder("oai.pmh.upstream.rejected")
+          .description("Number of requests rejected because too many were waiting for a call "
+                + "to mod-oai-pmh")
+          .register(registry);
+    eventLoopLag = Timer.builder("oai.pmh.eventloop.lag")
+          .description("Delay of a periodic task on the event loop behind its schedule, i.e. how "
+                + "long the event loop has been blocked")
+          .publishPercentileHistogram()
+          .minimumExpectedValue(MIN_EXPECTED_LATENCY)
+          .maximumExpectedValue(Duration.ofSeconds(10))
+          .register(registry);
+    Gauge.builder("oai.pmh.requests.inflight", inFlightRequests, LongAdder::sum)
+          .description("Number of requests being processed")
+          .register(registry);
+    registerCache(CACHE_TENANTS);
+    registerCache(CACHE_RESPONSES);
+    registerResponseConverter(ResponseConverter.getInstance());
+    new JvmMemoryMetrics().bindTo(registry);
+    new JvmGcMetrics().bindTo(registry);
+    new JvmThreadMetrics().bindTo(registry);
+    new ProcessorMetrics().bindTo(registry);
+  }
+
+  private void registerResponseConverter(ResponseConverter converter) {
+    FunctionTimer.builder("oai.pmh.jaxb.unmarshal", converter,
+                ResponseConverter::getUnmarshalCount, ResponseConverter::getUnmarshalTimeNanos,
+                TimeUnit.NANOSECONDS)
+          .description("Time spent unmarshalling OAI-PMH responses")
+          .register(registry);
+    FunctionTimer.builder("oai.pmh.jaxb.marshal", converter,
+                ResponseConverter::getMarshalCount, ResponseConverter::getMarshalTimeNanos,
+                TimeUnit.NANOSECONDS)
+          .description("Time spent marshalling OAI-PMH responses")
+          .register(registry);
+    FunctionCounter.builder("oai.pmh.jaxb.pool", converter, ResponseConverter::getPoolHits)
+          .description("Marshaller and unmarshaller pool lookups")
+          .tag(RESULT, "hit")
+          .register(registry);
+    FunctionCounter.builder("oai.pmh.jaxb.pool", converter, ResponseConverter::getPoolMisses)
+          .description("Marshaller and unmarshaller pool lookups")
+          .tag(RESULT, "miss")
+          .register(registry);
+  }
+
+  /**
+   * Registers the time spent on XML work on the event loop and on the threads of the pool, and
+   * the number of tasks waiting for a thread.
+   */
+  public void monitorXmlProcessing(XmlProcessingPool pool) {
+    FunctionTimer.builder("oai.pmh.xml.processing", pool, XmlProcessingPool::getInlineCount,
+                XmlProcessingPool::getInlineTimeNanos, TimeUnit.NANOSECONDS)
+          .description("Time spent inspecting and rewriting OAI-PMH responses")
+          .tag("thread", "eventloop")
+          .register(registry);
+    FunctionTimer.builder("oai.pmh.xml.processing", pool, XmlProcessingPool::getOffloadedCount,
+                XmlProcessingPool::getOffloadedTimeNanos, TimeUnit.NANOSECONDS)
+          .description("Time spent inspecting and rewriting OAI-PMH responses")
+          .tag("thread", "worker")
+          .register(registry);
+    Gauge.builder("oai.pmh.xml.queued", pool, XmlProcessingPool::getQueued)
+          .description("Number of XML tasks waiting for a thread of the pool")
+          .register(registry);
+  }
+
+  public void eventLoopLagged(long durationNanos) {
+    eventLoopLag.record(durationNanos, TimeUnit.NANOSECONDS);
+  }
+
+  /**
+   * Registers the hit, miss and load meters of a cache, so that they can be fetched with
+   * {@link #cache(String)}.
+   *
+   * @param name name of the cache, used as cache tag
+   * @return the meters of the cache
+   */
+  public CacheMeters registerCache(String name) {
+    return caches.computeIfAbsent(name, cache -> new CacheMeters(
+          cacheCounter(cache, "hit"), cacheCounter(cache, "miss"), cacheCounter(cache, "stale"),
+          cacheLoadTimer(cache, "success"), cacheLoadTimer(cache, "failure")));
+  }
+
+  private Timer cacheLoadTimer(String cache, String result) {
+    return Timer.builder("oai.pmh.cache.loads")
+          .description("Time taken to load cache entries")
+          .tag(CACHE, cache)
+          .tag(RESULT, result)
+          .register(registry);
+  }
+
+  private Counter cacheCounter(String cache, String result) {
+    return Counter.builder("oai.pmh.cache.requests")
+          .description("Cache lookups")
+          .tag(CACHE, cache)
+          .tag(RESULT, result)
+          .register(registry);
+  }
+
+  /**
+   * Binds hit, miss, eviction and size statistics of a Caffeine cache.
+   *
+   * @param cache cache built with statistics recording enabled
+   * @param name  name of the cache, used as cache tag
+   */
+  public void monitorCache(Cache<?, ?> cache, String name) {
+    CaffeineCacheMetrics.monitor(registry, cache, name);
+  }
+
+  public CacheMeters cache(String name) {
+    return caches.get(name);
+  }
+
+  public void requestStarted() {
+    inFlightRequests.increment();
+  }
+
+  /**
+   * Records a completed request.
+   *
+   * @param verb          OAI-PMH verb of the request, as sent by the harvester
+   * @param tenant        tenant of the API key, null if it has not been resolved
+   * @param responseBytes number of bytes written to the harvester
+   * @param durationNanos time from receiving the request until the response was ended or reset
+   */
+  public void requestCompleted(String verb, String tenant, long responseBytes,
+                               long durationNanos) {
+    inFlightRequests.decrement();
+    var verbTag = toVerbTag(verb);
+    requestTimers.computeIfAbsent(tenant == null ? UNKNOWN : tenant, this::registerRequestTimers)
+          .get(verbTag)
+          .record(durationNanos, TimeUnit.NANOSECONDS);
+    responseSizes.get(verbTag).record(responseBytes);
+  }
+
+  public void upstreamResponded(String verb, long durationNanos) {
+    upstreamTimers.get(toVerbTag(verb)).record(durationNanos, TimeUnit.NANOSECONDS);
+  }
+
+  public void upstreamCoalesced(String verb) {
+    coalescedCalls.get(toVerbTag(verb)).increment();
+  }
+
+  public void requestAbandoned() {
+    abandonedRequests.increment();
+  }
+
+  public void upstreamCancelled() {
+    cancelledCalls.increment();
+  }
+
+  /**
+   * Records the time a request has waited for a call to mod-oai-pmh.
+   *
+   * @param tenant        tenant of the API key
+   * @param durationNanos time from queueing the call until it was allowed to start
+   */
+  public void upstreamQueued(String tenant, long durationNanos) {
+    queueWaitTimers.computeIfAbsent(tenant == null ? UNKNOWN : tenant,
+                key -> Timer.builder("oai.pmh.upstream.queue.wait")
+                      .description("Time requests have waited for a call to mod-oai-pmh")
+                      .tag(TENANT, key)
+                      .publishPercentileHistogram()
+                      .maximumExpectedValue(MAX_EXPECTED_LATENCY)
+                      .register(registry))
+          .record(durationNanos, TimeUnit.NANOSECONDS);
+  }
+
+  public void upstreamRejected() {
+    rejectedCalls.increment();
+  }
+
+  /**
+   * Records a request throttled because its API key is over one of its rate limit budgets. The
+   * tenant tag is always unknown: requests are throttled before their API key is validated, and
+   * the tenant of an unvalidated key must not create series.
+   */
+  public void requestThrottled(String budget) {
+    throttledRequests.computeIfAbsent(budget,
+                key -> Counter.builder("oai.pmh.requests.throttled")
+                      .description("Number of requests throttled by the rate limit of their "
+                            + "API key")
+                      .tag(TENANT, UNKNOWN)
+                      .tag("budget", budget)
+                      .register(registry))
+          .increment();
+  }
+
+  /**
+   * Registers gauges of the API keys tracked by the rate limiter and of those over a budget.
+   */
+  public void monitorRateLimiter(RateLimiter rateLimiter) {
+    Gauge.builder("oai.pmh.ratelimit.keys", rateLimiter, RateLimiter::getKeys)
+          .description("Number of API keys tracked by the rate limiter")
+          .register(registry);
+    Gauge.builder("oai.pmh.ratelimit.throttled.keys", rateLimiter, RateLimiter::getThrottledKeys)
+          .description("Number of API keys over their requests or bytes budget")
+          .register(registry);
+  }
+
+  /**
+   * Registers gauges of the limit, the running calls and the queue of the concurrency limiter of
+   * a lane.
+   */
+  public void monitorLimiter(AdaptiveConcurrencyLimiter limiter, String lane) {
+    Gauge.builder("oai.pmh.upstream.limit", limiter, AdaptiveConcurrencyLimiter::getLimit)
+          .description("Current limit of concurrent calls to mod-oai-pmh")
+          .tag("lane", lane)
+          .register(registry);
+    Gauge.builder("oai.pmh.upstream.inflight", limiter, AdaptiveConcurrencyLimiter::getInFlight)
+          .description("Number of calls to mod-oai-pmh being made")
+          .tag("lane", lane)
+          .register(registry);
+    Gauge.builder("oai.pmh.upstream.queued", limiter, AdaptiveConcurrencyLimiter::getQueued)
+          .description("Number of requests waiting for a call to mod-oai-pmh")
+          .tag("lane", lane)
+          .register(registry);
+  }
+
+  public void tenantSwitched() {
+    tenantSwitches.increment();
+  }
+
+  /**
+   * Returns all metrics in Prometheus text format. Scraping walks every meter, so it should not
+   * be called on an event loop.
+   */
+  public String scrape() {
+    return registry.scrape();
+  }
+
+  private Map<String, Timer> registerRequestTimers(String tenant) {
+    return perVerb(verb -> Timer.builder("oai.pmh.requests")
+          .description("Latency of requests from harvesters")
+          .tag(VERB, verb)
+          .tag(TENANT, tenant)
+          .publishPercentileHistogram()
+          .minimumExpectedValue(MIN_EXPECTED_LATENCY)
+          .maximumExpectedValue(MAX_EXPECTED_LATENCY)
+          .register(registry));
+  }
+
+  private static <T> Map<String, T> perVerb(Function<String, T> meterFactory) {
+    return Stream.concat(VERBS.stream(), Stream.of(UNKNOWN))
+          .collect(Collectors.toUnmodifiableMap(Function.identity(), meterFactory));
+  }
+
+  private static String toVerbTag(String verb) {
+    return verb != null && VERBS.contains(verb) ? verb : UNKNOWN;
+  }
+
+  /**
+   * Hit, miss and stale hit counters and load timers of a cache.
+   */
+  public record CacheMeters(Counter hits, Counter misses, Counter staleHits,
+                            Timer loads, Timer failedLoads) {
+
+    public void hit() {
+      hits.increment();
+    }
+
+    public void miss() {
+      misses.increment();
+    }
+
+    /**
+     * Records a hit of an expired entry that was served while being refreshed.
+     */
+    public void staleHit() {
+      staleHits.increment();
+    }
+
+    /**
+     * Records the duration of a load of an entry.
+     *
+     * @param durationNanos time taken by the load
+     * @param succeeded     true if the entry has been loaded
+     */
+    public void loaded(long durationNanos, boolean succeeded) {
+      (succeeded ? loads : failedLoads).record(durationNanos, TimeUnit.NANOSECONDS);
+    }
+  }
+}
@@ -0,0 +1,119 @@
+package org.folio.edge.oaipmh.metrics;
+
+/**
+ * Durations of the phases of one request, reported in the Server-Timing header and in the
+ * request log line. Durations are added up into a per-request array as the phases complete and
+ * formatted only once, when the header or the log line is written.
+ */
+public class RequestTimings {
+
+  /**
+   * Timings that record nothing, used when Server-Timing is disabled.
+   */
+  public static final RequestTimings DISABLED = new RequestTimings(false);
+
+  /**
+   * Request phases, in the order they are reported.
+   */
+  public enum Span {
+    /**
+     * API key resolution and token fetch, from the secure store and Okapi, for every tenant.
+     */
+    TOKEN("token"),
+    /**
+     * Resolution of the consortia tenants list.
+     */
+    TENANTS("tenants"),
+    /**
+     * Calls to mod-oai-pmh until the response is received. Responses that are inspected are
+     * buffered by the Okapi client, so for them the span includes the body receive.
+     */
+    UPSTREAM("upstream"),
+    /**
+     * Receive of piped response bodies, overlapping with the write to the harvester.
+     */
+    RECEIVE("receive"),
+    /**
+     * Inspection of list responses.
+     */
+    INSPECT("inspect"),
+    /**
+     * Replacement of the resumption token with the one of the next tenant.
+     */
+    REWRITE("rewrite"),
+    /**
+     * Write of the response to the harvester, reported in the log line only since it starts
+     * after the headers have been sent.
+     */
+    WRITE("write");
+
+    private final String metricName;
+
+    Span(String metricName) {
+      this.metricName = metricName;
+    }
+  }
+
+  private static final Span[] SPANS = Span.values();
+
+  private final boolean enabled;
+  private final long start = System.nanoTime();
+  private final long[] durations = new long[SPANS.length];
+  private int recorded;
+
+  public RequestTimings() {
+    this(true);
+  }
+
+  private RequestTimings(boolean enabled) {
+    this.enabled = enabled;
+  }
+
+  /**
+   * Adds the time elapsed since the given start to the span.
+   *
+   * @param span       the span
+   * @param startNanos {@link System#nanoTime()} at the start of the phase
+   */
+  public void record(Span span, long startNanos) {
+    if (enabled) {
+      durations[span.ordinal()] += System.nanoTime() - startNanos;
+      recorded |= 1 << span.ordinal();
+    }
+  }
+
+  /**
+   * Formats the spans recorded so far and the total elapsed time as Server-Timing header value,
+   * e.g. "token;dur=12.5, upstream;dur=830.1, total;dur=845.0".
+   */
+  public String toServerTiming() {
+    var header = new StringBuilder(128);
+    for (var span : SPANS) {
+      if ((recorded & 1 << span.ordinal()) != 0) {
+        appendMillis(header.append(span.metricName).append(";dur="), durations[span.ordinal()]);
+        header.append(", ");
+      }
+    }
+    return appendMillis(header.append("total;dur="), System.nanoTime() - start).toString();
+  }
+
+  /**
+   * Formats the spans recorded so far and the total elapsed time as key-value pairs for logging,
+   * e.g. "token=12.5 upstream=830.1 total=845.0".
+   */
+  public String toLogString() {
+    var line = new StringBuilder(128);
+    for (var span : SPANS) {
+      if ((recorded & 1 << span.ordinal()) != 0) {
+        appendMillis(line.append(span.metricName).append('='), durations[span.ordinal()]);
+        line.append(' ');
+      }
+    }
+    return appendMillis(line.append("total="), System.nanoTime() - start).toString();
+  }
+
+  private static StringBuilder appendMillis(StringBuilder builder, long nanos) {
+    long tenthsOfMillis = nanos / 100_000;
+    return builder.append(tenthsOfMillis / 10).append('.').append(tenthsOfMillis % 10);
+  }
+}
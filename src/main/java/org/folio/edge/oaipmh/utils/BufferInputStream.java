@@ -0,0 +1,44 @@
+package org.folio.edge.oaipmh.utils;
+
+import io.vertx.core.buffer.Buffer;
+import java.io.InputStream;
+
+/**
+ * Read-only {@link InputStream} view over a Vert.x {@link Buffer}, so that parsers can consume
+ * the response bytes without copying the whole buffer into an array or a string first.
+ */
+class BufferInputStream extends InputStream {
+
+  private final Buffer buffer;
+  private final int length;
+  private int position;
+
+  BufferInputStream(Buffer buffer) {
+    this.buffer = buffer;
+    this.length = buffer.length();
+  }
+
+  @Override
+  public int read() {
+    return position < length ? buffer.getByte(position++) & 0xFF : -1;
+  }
+
+  @Override
+  public int read(byte[] dst, int off, int len) {
+    if (len == 0) {
+      return 0;
+    }
+    if (position >= length) {
+      return -1;
+    }
+    int count = Math.min(len, length - position);
+    buffer.getBytes(position, position + count, dst, off);
+    position += count;
+    return count;
+  }
+
+  @Override
+  public int available() {
+    return length - position;
+  }
+}
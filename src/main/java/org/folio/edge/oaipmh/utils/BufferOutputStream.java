@@ -0,0 +1,27 @@
+package org.folio.edge.oaipmh.utils;
+
+import io.vertx.core.buffer.Buffer;
+import java.io.OutputStream;
+
+/**
+ * {@link OutputStream} appending everything written to a Vert.x {@link Buffer}, so that
+ * marshaled responses can be written out without an intermediate array or string.
+ */
+class BufferOutputStream extends OutputStream {
+
+  private final Buffer buffer;
+
+  BufferOutputStream(Buffer buffer) {
+    this.buffer = buffer;
+  }
+
+  @Override
+  public void write(int b) {
+    buffer.appendByte((byte) b);
+  }
+
+  @Override
+  public void write(byte[] src, int off, int len) {
+    buffer.appendBytes(src, off, len);
+  }
+}
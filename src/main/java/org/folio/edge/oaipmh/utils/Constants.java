@@ -10,11 +10,149 @@ public class Constants {
   public static final String CENTRAL_TENANT_ID = "centralTenantId";
   public static final String FROM = "from";
   public static final String UNTIL = "until";
+  public static final String SET = "set";
+  public static final String NO_RECORDS_MATCH = "noRecordsMatch";
   public static final String KEY_VALUE_DELIMITER = "=";
   public static final Character PARAMETER_DELIMITER = '&';
   public static final String LIST_RECORDS = "ListRecords";
   public static final String LIST_IDENTIFIERS = "ListIdentifiers";
+  public static final String IDENTIFY = "Identify";
+  public static final String LIST_METADATA_FORMATS = "ListMetadataFormats";
+  public static final String LIST_SETS = "ListSets";
+  public static final String GET_RECORD = "GetRecord";
+  public static final String OAI_NAMESPACE = "http://www.openarchives.org/OAI/2.0/";
 
+  public static final String SYS_UPSTREAM_MAX_POOL_SIZE = "upstream_max_pool_size";
+  public static final int DEFAULT_UPSTREAM_MAX_POOL_SIZE = 50;
+  public static final String SYS_RESUMPTION_TOKEN_SPLICE_ENABLED =
+        "resumption_token_splice_enabled";
+  public static final boolean DEFAULT_RESUMPTION_TOKEN_SPLICE_ENABLED = true;
+  public static final String SYS_MARSHAL_FORMATTED_OUTPUT = "marshal_formatted_output";
+  public static final boolean DEFAULT_MARSHAL_FORMATTED_OUTPUT = true;
+  public static final String SYS_SERVER_TIMING_ENABLED = "server_timing_enabled";
+  public static final boolean DEFAULT_SERVER_TIMING_ENABLED = false;
+  public static final String SYS_RESPONSE_CACHE_ENABLED = "response_cache_enabled";
+  public static final boolean DEFAULT_RESPONSE_CACHE_ENABLED = false;
+  public static final String SYS_RESPONSE_CACHE_CAPACITY = "response_cache_capacity";
+  public static final int DEFAULT_RESPONSE_CACHE_CAPACITY = 1000;
+  public static final String SYS_RESPONSE_CACHE_TTL_MS = "response_cache_ttl_ms";
+  public static final long DEFAULT_RESPONSE_CACHE_TTL_MS = 600_000L;
+  public static final String SYS_RESPONSE_CACHE_STALE_TTL_MS = "response_cache_stale_ttl_ms";
+  public static final long DEFAULT_RESPONSE_CACHE_STALE_TTL_MS = 3_600_000L;
+  public static final String SYS_RESPONSE_CACHE_GZIP_ENABLED = "response_cache_gzip_enabled";
+  public static final String SYS_GET_RECORD_CACHE_ENABLED = "get_record_cache_enabled";
+  public static final boolean DEFAULT_GET_RECORD_CACHE_ENABLED = false;
+  public static final String SYS_GET_RECORD_CACHE_MAX_BYTES = "get_record_cache_max_bytes";
+  public static final long DEFAULT_GET_RECORD_CACHE_MAX_BYTES = 64L * 1024 * 1024;
+  public static final String SYS_GET_RECORD_CACHE_TTL_MS = "get_record_cache_ttl_ms";
+  public static final long DEFAULT_GET_RECORD_CACHE_TTL_MS = 300_000L;
+  public static final String SYS_GET_RECORD_CACHE_OFF_HEAP_THRESHOLD =
+        "get_record_cache_off_heap_threshold";
+  public static final int DEFAULT_GET_RECORD_CACHE_OFF_HEAP_THRESHOLD = 16 * 1024;
+  public static final String SYS_PREFETCH_ENABLED = "prefetch_enabled";
+  public static final boolean DEFAULT_PREFETCH_ENABLED = false;
+  public static final String SYS_PREFETCH_MAX_BYTES = "prefetch_max_bytes";
+  public static final long DEFAULT_PREFETCH_MAX_BYTES = 64L * 1024 * 1024;
+  public static final String SYS_PREFETCH_TTL_MS = "prefetch_ttl_ms";
+  public static final long DEFAULT_PREFETCH_TTL_MS = 60_000L;
+  public static final String SYS_PREFETCH_MAX_IN_FLIGHT_PER_TENANT =
+        "prefetch_max_in_flight_per_tenant";
+  public static final int DEFAULT_PREFETCH_MAX_IN_FLIGHT_PER_TENANT = 4;
+  public static final String SYS_TENANT_PROBE_PARALLELISM = "tenant_probe_parallelism";
+  public static final int DEFAULT_TENANT_PROBE_PARALLELISM = 1;
+  public static final String SYS_MAX_SKIPPED_TENANTS = "max_skipped_tenants";
+  public static final int DEFAULT_MAX_SKIPPED_TENANTS = 50;
+  public static final String SYS_TENANTS_CACHE_CAPACITY = "tenants_cache_capacity";
+  public static final int DEFAULT_TENANTS_CACHE_CAPACITY = 100;
+  public static final String SYS_TENANTS_CACHE_TTL_MS = "tenants_cache_ttl_ms";
+  public static final long DEFAULT_TENANTS_CACHE_TTL_MS = 3_600_000L;
+  public static final String SYS_TENANTS_CACHE_REFRESH_MS = "tenants_cache_refresh_ms";
+  public static final long DEFAULT_TENANTS_CACHE_REFRESH_MS = 3_000_000L;
+  public static final String SYS_TOKEN_RENEW_BEFORE_MS = "token_renew_before_ms";
+  public static final long DEFAULT_TOKEN_RENEW_BEFORE_MS = 60_000L;
+  public static final String SYS_TOKEN_CACHE_CAPACITY = "token_cache_capacity";
+  public static final int DEFAULT_TOKEN_CACHE_CAPACITY = 1000;
+  public static final String SYS_CREDENTIALS_CACHE_ENABLED = "credentials_cache_enabled";
+  public static final boolean DEFAULT_CREDENTIALS_CACHE_ENABLED = false;
+  public static final String SYS_CREDENTIALS_CACHE_CAPACITY = "credentials_cache_capacity";
+  public static final int DEFAULT_CREDENTIALS_CACHE_CAPACITY = 1000;
+  public static final String SYS_CREDENTIALS_CACHE_TTL_MS = "credentials_cache_ttl_ms";
+  public static final long DEFAULT_CREDENTIALS_CACHE_TTL_MS = 300_000L;
+  public static final String SYS_UPSTREAM_COALESCING_ENABLED = "upstream_coalescing_enabled";
+  public static final boolean DEFAULT_UPSTREAM_COALESCING_ENABLED = false;
+  public static final String SYS_RETRY_AFTER_THRESHOLD_MS = "retry_after_threshold_ms";
+  public static final long DEFAULT_RETRY_AFTER_THRESHOLD_MS = 0L;
+  public static final String SYS_RETRY_AFTER_SECONDS = "retry_after_seconds";
+  public static final long DEFAULT_RETRY_AFTER_SECONDS = 60L;
+  public static final String SYS_PARKED_RESPONSES_MAX_BYTES = "parked_responses_max_bytes";
+  public static final long DEFAULT_PARKED_RESPONSES_MAX_BYTES = 256L * 1024 * 1024;
+  public static final String SYS_PARKED_RESPONSES_TTL_MS = "parked_responses_ttl_ms";
+  public static final long DEFAULT_PARKED_RESPONSES_TTL_MS = 900_000L;
+  public static final String SYS_UPSTREAM_LIMIT_ENABLED = "upstream_limit_enabled";
+  public static final boolean DEFAULT_UPSTREAM_LIMIT_ENABLED = false;
+  public static final String SYS_UPSTREAM_LIMIT_INITIAL = "upstream_limit_initial";
+  public static final int DEFAULT_UPSTREAM_LIMIT_INITIAL = 20;
+  public static final String SYS_UPSTREAM_LIMIT_MIN = "upstream_limit_min";
+  public static final int DEFAULT_UPSTREAM_LIMIT_MIN = 2;
+  public static final String SYS_UPSTREAM_LIMIT_MAX = "upstream_limit_max";
+  public static final int DEFAULT_UPSTREAM_LIMIT_MAX = 200;
+  public static final String SYS_UPSTREAM_LIMIT_QUEUE_SIZE = "upstream_limit_queue_size";
+  public static final int DEFAULT_UPSTREAM_LIMIT_QUEUE_SIZE = 100;
+  public static final String SYS_UPSTREAM_LIMIT_MAX_QUEUE_WAIT_MS =
+        "upstream_limit_max_queue_wait_ms";
+  public static final long DEFAULT_UPSTREAM_LIMIT_MAX_QUEUE_WAIT_MS = 30_000L;
+  public static final String SYS_UPSTREAM_LIMIT_LATENCY_THRESHOLD_MS =
+        "upstream_limit_latency_threshold_ms";
+  public static final long DEFAULT_UPSTREAM_LIMIT_LATENCY_THRESHOLD_MS = 30_000L;
+  public static final String SYS_UPSTREAM_TENANT_WEIGHTS = "upstream_tenant_weights";
+  public static final String SYS_UPSTREAM_FAIR_QUEUE_PER_API_KEY =
+        "upstream_fair_queue_per_api_key";
+  public static final boolean DEFAULT_UPSTREAM_FAIR_QUEUE_PER_API_KEY = false;
+  public static final String SYS_LANES_ENABLED = "lanes_enabled";
+  public static final boolean DEFAULT_LANES_ENABLED = false;
+  public static final String SYS_INTERACTIVE_LANE_POOL_SIZE = "interactive_lane_pool_size";
+  public static final int DEFAULT_INTERACTIVE_LANE_POOL_SIZE = 20;
+  public static final String SYS_INTERACTIVE_LANE_MAX_CONCURRENCY =
+        "interactive_lane_max_concurrency";
+  public static final int DEFAULT_INTERACTIVE_LANE_MAX_CONCURRENCY = 50;
+  public static final String SYS_INTERACTIVE_LANE_TIMEOUT_MS = "interactive_lane_timeout_ms";
+  public static final long DEFAULT_INTERACTIVE_LANE_TIMEOUT_MS = 60_000L;
+  public static final String SYS_BULK_LANE_MAX_CONCURRENCY = "bulk_lane_max_concurrency";
+  public static final int DEFAULT_BULK_LANE_MAX_CONCURRENCY = 20;
+  public static final String SYS_BULK_LANE_TIMEOUT_MS = "bulk_lane_timeout_ms";
+  public static final long DEFAULT_BULK_LANE_TIMEOUT_MS = 0L;
+  public static final String SYS_RATE_LIMIT_ENABLED = "rate_limit_enabled";
+  public static final boolean DEFAULT_RATE_LIMIT_ENABLED = false;
+  public static final String SYS_RATE_LIMIT_REQUESTS_PER_SECOND =
+        "rate_limit_requests_per_second";
+  public static final double DEFAULT_RATE_LIMIT_REQUESTS_PER_SECOND = 10;
+  public static final String SYS_RATE_LIMIT_BURST_REQUESTS = "rate_limit_burst_requests";
+  public static final double DEFAULT_RATE_LIMIT_BURST_REQUESTS = 20;
+  public static final String SYS_RATE_LIMIT_BYTES_PER_SECOND = "rate_limit_bytes_per_second";
+  public static final double DEFAULT_RATE_LIMIT_BYTES_PER_SECOND = 0;
+  public static final String SYS_RATE_LIMIT_BURST_BYTES = "rate_limit_burst_bytes";
+  public static final double DEFAULT_RATE_LIMIT_BURST_BYTES = 100 * 1024 * 1024;
+  public static final String SYS_XML_OFFLOAD_ENABLED = "xml_offload_enabled";
+  public static final boolean DEFAULT_XML_OFFLOAD_ENABLED = false;
+  public static final String SYS_XML_OFFLOAD_POOL_SIZE = "xml_offload_pool_size";
+  public static final String SYS_XML_OFFLOAD_QUEUE_SIZE = "xml_offload_queue_size";
+  public static final int DEFAULT_XML_OFFLOAD_QUEUE_SIZE = 1000;
+  public static final String SYS_XML_OFFLOAD_VIRTUAL_THREADS = "xml_offload_virtual_threads";
+  public static final boolean DEFAULT_XML_OFFLOAD_VIRTUAL_THREADS = false;
+  public static final String SYS_EVENT_LOOP_LAG_PROBE_MS = "event_loop_lag_probe_ms";
+  public static final long DEFAULT_EVENT_LOOP_LAG_PROBE_MS = 1000L;
+  public static final String SYS_VERTICLE_INSTANCES = "verticle_instances";
+  public static final String SYS_EMPTY_WINDOW_CACHE_ENABLED = "empty_window_cache_enabled";
+  public static final boolean DEFAULT_EMPTY_WINDOW_CACHE_ENABLED = false;
+  public static final String SYS_EMPTY_WINDOW_CACHE_CAPACITY = "empty_window_cache_capacity";
+  public static final int DEFAULT_EMPTY_WINDOW_CACHE_CAPACITY = 1000;
+  public static final String SYS_EMPTY_WINDOW_CACHE_TTL_MS = "empty_window_cache_ttl_ms";
+  public static final long DEFAULT_EMPTY_WINDOW_CACHE_TTL_MS = 60_000L;
+  public static final String FOLIO_CLIENT_TLS_ENABLED = "FOLIO_CLIENT_TLS_ENABLED";
+  public static final String FOLIO_CLIENT_TLS_TRUSTSTORETYPE = "FOLIO_CLIENT_TLS_TRUSTSTORETYPE";
+  public static final String FOLIO_CLIENT_TLS_TRUSTSTOREPATH = "FOLIO_CLIENT_TLS_TRUSTSTOREPATH";
+  public static final String FOLIO_CLIENT_TLS_TRUSTSTOREPASSWORD =
+        "FOLIO_CLIENT_TLS_TRUSTSTOREPASSWORD";
 
   private Constants() {
   }
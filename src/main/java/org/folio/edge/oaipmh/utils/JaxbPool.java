@@ -0,0 +1,53 @@
+package org.folio.edge.oaipmh.utils;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.atomic.LongAdder;
+import javax.xml.bind.JAXBException;
+
+/**
+ * Bounded pool of pre-configured, not thread-safe JAXB marshallers or unmarshallers. An instance
+ * is borrowed for one call and released afterwards; when the pool is empty a new instance is
+ * created, and released instances that do not fit into the pool are dropped.
+ *
+ * @param <T> type of pooled objects
+ */
+class JaxbPool<T> {
+
+  @FunctionalInterface
+  interface Factory<T> {
+    T create() throws JAXBException;
+  }
+
+  private final BlockingQueue<T> pool;
+  private final Factory<T> factory;
+  private final LongAdder hits = new LongAdder();
+  private final LongAdder misses = new LongAdder();
+
+  JaxbPool(int capacity, Factory<T> factory) {
+    this.pool = new ArrayBlockingQueue<>(capacity);
+    this.factory = factory;
+  }
+
+  T borrow() throws JAXBException {
+    var pooled = pool.poll();
+    if (pooled != null) {
+      hits.increment();
+      return pooled;
+    }
+    misses.increment();
+    return factory.create();
+  }
+
+  void release(T pooled) {
+    pool.offer(pooled);
+  }
+
+  long getHits() {
+    return hits.sum();
+  }
+
+  long getMisses() {
+    return misses.sum();
+  }
+}
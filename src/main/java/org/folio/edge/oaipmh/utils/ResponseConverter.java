@@ -1,15 +1,17 @@
 package org.folio.edge.oaipmh.utils;
 
 import com.sun.xml.bind.marshaller.NamespacePrefixMapper;
-import java.io.ByteArrayOutputStream;
-import java.io.IOException;
+import io.vertx.core.buffer.Buffer;
 import java.io.StringReader;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
 import javax.xml.bind.JAXBContext;
 import javax.xml.bind.JAXBException;
 import javax.xml.bind.Marshaller;
 import javax.xml.bind.Unmarshaller;
+import javax.xml.transform.Source;
+import javax.xml.transform.stream.StreamSource;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.openarchives.oai._2.OAIPMH;
@@ -20,6 +22,10 @@ public class ResponseConverter {
 
   private static final Logger logger = LogManager.getLogger(ResponseConverter.class);
   private static final Map<String, String> NAMESPACE_PREFIX_MAP = new HashMap<>();
+  private static final String SCHEMA_LOCATION =
+        "http://www.openarchives.org/OAI/2.0/ http://www.openarchives.org/OAI/2.0/OAI-PMH.xsd";
+  // sized after the default event loop pool, so that every event loop can reuse an instance
+  private static final int POOL_CAPACITY = 2 * Runtime.getRuntime().availableProcessors();
   private final NamespacePrefixMapper namespacePrefixMapper;
 
   private static final ResponseConverter ourInstance;
@@ -39,14 +45,21 @@ public class ResponseConverter {
   }
 
   private final JAXBContext jaxbContext;
+  private final JaxbPool<Marshaller> formattedMarshallers;
+  private final JaxbPool<Marshaller> compactMarshallers;
+  private final JaxbPool<Unmarshaller> unmarshallers;
+  private final LongAdder marshalCount = new LongAdder();
+  private final LongAdder marshalTimeNanos = new LongAdder();
+  private final LongAdder unmarshalCount = new LongAdder();
+  private final LongAdder unmarshalTimeNanos = new LongAdder();
 
   public static ResponseConverter getInstance() {
     return ourInstance;
   }
 
   /**
-   * The main purpose is to initialize JAXB Marshaller and Unmarshaller to use
-   * the instances for business logic operations.
+   * The main purpose is to initialize JAXB context and the pools of pre-configured Marshaller
+   * and Unmarshaller instances to use them for business logic operations.
    */
   private ResponseConverter() throws JAXBException {
     jaxbContext = JAXBContext.newInstance(OAIPMH.class);
@@ -57,6 +70,17 @@ public class ResponseConverter {
         return NAMESPACE_PREFIX_MAP.getOrDefault(namespaceUri, suggestion);
       }
     };
+    formattedMarshallers = new JaxbPool<>(POOL_CAPACITY, () -> createMarshaller(true));
+    compactMarshallers = new JaxbPool<>(POOL_CAPACITY, () -> createMarshaller(false));
+    unmarshallers = new JaxbPool<>(POOL_CAPACITY, jaxbContext::createUnmarshaller);
+  }
+
+  private Marshaller createMarshaller(boolean formattedOutput) throws JAXBException {
+    Marshaller jaxbMarshaller = jaxbContext.createMarshaller();
+    jaxbMarshaller.setProperty(Marshaller.JAXB_SCHEMA_LOCATION, SCHEMA_LOCATION);
+    jaxbMarshaller.setProperty(Marshaller.JAXB_FORMATTED_OUTPUT, formattedOutput);
+    jaxbMarshaller.setProperty("com.sun.xml.bind.namespacePrefixMapper", namespacePrefixMapper);
+    return jaxbMarshaller;
   }
 
   /**
@@ -66,17 +90,31 @@ public class ResponseConverter {
    * @return marshaled {@link OAIPMH} object as string representation
    */
   public String convertToString(OAIPMH oaipmh) {
-    try (var stream = new ByteArrayOutputStream()) {
-      Marshaller jaxbMarshaller = jaxbContext.createMarshaller();
-      jaxbMarshaller.setProperty(Marshaller.JAXB_SCHEMA_LOCATION,
-          "http://www.openarchives.org/OAI/2.0/ http://www.openarchives.org/OAI/2.0/OAI-PMH.xsd");
-      jaxbMarshaller.setProperty(Marshaller.JAXB_FORMATTED_OUTPUT, Boolean.TRUE);
-      jaxbMarshaller.setProperty("com.sun.xml.bind.namespacePrefixMapper", namespacePrefixMapper);
-      jaxbMarshaller.marshal(oaipmh, stream);
-      return stream.toString();
-    } catch (JAXBException | IOException e) {
+    return convertToBuffer(oaipmh, true).toString();
+  }
+
+  /**
+   * Marshals {@link OAIPMH} object directly into a buffer.
+   *
+   * @param oaipmh          {@link OAIPMH} object to marshal
+   * @param formattedOutput true to indent the output, false for compact output
+   * @return marshaled {@link OAIPMH} object
+   */
+  public Buffer convertToBuffer(OAIPMH oaipmh, boolean formattedOutput) {
+    var pool = formattedOutput ? formattedMarshallers : compactMarshallers;
+    long start = System.nanoTime();
+    try {
+      Marshaller jaxbMarshaller = pool.borrow();
+      var buffer = Buffer.buffer();
+      jaxbMarshaller.marshal(oaipmh, new BufferOutputStream(buffer));
+      pool.release(jaxbMarshaller);
+      return buffer;
+    } catch (JAXBException e) {
       throw new IllegalStateException("The OAI-PMH response cannot be converted to "
             + "string representation.", e);
+    } finally {
+      marshalCount.increment();
+      marshalTimeNanos.add(System.nanoTime() - start);
     }
   }
 
@@ -88,10 +126,64 @@ public class ResponseConverter {
    */
   public OAIPMH toOaiPmh(String oaipmhResponse) {
     try (StringReader reader = new StringReader(oaipmhResponse)) {
-      Unmarshaller jaxbUnmarshaller = jaxbContext.createUnmarshaller();
-      return (OAIPMH) jaxbUnmarshaller.unmarshal(reader);
+      return unmarshal(new StreamSource(reader));
+    }
+  }
+
+  /**
+   * Unmarshals {@link OAIPMH} object directly from the response bytes.
+   *
+   * @param oaipmhResponse the {@link OAIPMH} response as received from mod-oai-pmh
+   * @return the {@link OAIPMH} object based on passed buffer
+   */
+  public OAIPMH toOaiPmh(Buffer oaipmhResponse) {
+    return unmarshal(new StreamSource(new BufferInputStream(oaipmhResponse)));
+  }
+
+  private OAIPMH unmarshal(Source source) {
+    long start = System.nanoTime();
+    try {
+      Unmarshaller jaxbUnmarshaller = unmarshallers.borrow();
+      var oaipmh = (OAIPMH) jaxbUnmarshaller.unmarshal(source);
+      unmarshallers.release(jaxbUnmarshaller);
+      return oaipmh;
     } catch (JAXBException e) {
       throw new IllegalStateException("The string cannot be converted to OAI-PMH response.", e);
+    } finally {
+      unmarshalCount.increment();
+      unmarshalTimeNanos.add(System.nanoTime() - start);
     }
   }
+
+  /**
+   * Returns how many times a pooled Marshaller or Unmarshaller has been reused.
+   */
+  public long getPoolHits() {
+    return formattedMarshallers.getHits() + compactMarshallers.getHits()
+          + unmarshallers.getHits();
+  }
+
+  /**
+   * Returns how many times a new Marshaller or Unmarshaller had to be created.
+   */
+  public long getPoolMisses() {
+    return formattedMarshallers.getMisses() + compactMarshallers.getMisses()
+          + unmarshallers.getMisses();
+  }
+
+  public long getMarshalCount() {
+    return marshalCount.sum();
+  }
+
+  public long getMarshalTimeNanos() {
+    return marshalTimeNanos.sum();
+  }
+
+  public long getUnmarshalCount() {
+    return unmarshalCount.sum();
+  }
+
+  public long getUnmarshalTimeNanos() {
+    return unmarshalTimeNanos.sum();
+  }
 }
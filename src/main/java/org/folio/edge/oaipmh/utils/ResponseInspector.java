@@ -0,0 +1,168 @@
+package org.folio.edge.oaipmh.utils;
+
+import static java.util.Objects.isNull;
+import static javax.xml.stream.XMLStreamConstants.END_ELEMENT;
+import static javax.xml.stream.XMLStreamConstants.START_ELEMENT;
+import static org.folio.edge.oaipmh.utils.Constants.FROM;
+import static org.folio.edge.oaipmh.utils.Constants.IDENTIFIER;
+import static org.folio.edge.oaipmh.utils.Constants.LIST_IDENTIFIERS;
+import static org.folio.edge.oaipmh.utils.Constants.LIST_RECORDS;
+import static org.folio.edge.oaipmh.utils.Constants.METADATA_PREFIX;
+import static org.folio.edge.oaipmh.utils.Constants.OAI_NAMESPACE;
+import static org.folio.edge.oaipmh.utils.Constants.RESUMPTION_TOKEN;
+import static org.folio.edge.oaipmh.utils.Constants.UNTIL;
+import static org.folio.edge.oaipmh.utils.Constants.VERB;
+
+import io.vertx.core.buffer.Buffer;
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import lombok.extern.slf4j.Slf4j;
+import org.openarchives.oai._2.RequestType;
+import org.openarchives.oai._2.VerbType;
+
+/**
+ * Streaming (StAX) inspector of mod-oai-pmh responses. Unlike {@link ResponseConverter#toOaiPmh}
+ * it does not build the JAXB object graph, it only pulls out the verb, the echoed request, the
+ * resumption token, the number of records and the error codes, and it stops reading as soon as
+ * these are known.
+ */
+@Slf4j
+public class ResponseInspector {
+
+  private static final String REQUEST = "request";
+  private static final String ERROR = "error";
+  private static final String CODE = "code";
+  private static final String SET = "set";
+  private static final String RECORD = "record";
+  private static final String HEADER = "header";
+  private static final String COMPLETE_LIST_SIZE = "completeListSize";
+  private static final String CURSOR = "cursor";
+  private static final String EXPIRATION_DATE = "expirationDate";
+  private static final int ROOT_CHILD_DEPTH = 2;
+  private static final int LIST_CHILD_DEPTH = 3;
+
+  private static final ResponseInspector ourInstance = new ResponseInspector();
+
+  private final XMLInputFactory xmlInputFactory;
+
+  public static ResponseInspector getInstance() {
+    return ourInstance;
+  }
+
+  private ResponseInspector() {
+    xmlInputFactory = XMLInputFactory.newFactory();
+    xmlInputFactory.setProperty(XMLInputFactory.SUPPORT_DTD, Boolean.FALSE);
+    xmlInputFactory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, Boolean.FALSE);
+  }
+
+  /**
+   * Inspects OAI-PMH response bytes.
+   *
+   * @param buffer OAI-PMH response as received from mod-oai-pmh
+   * @return summary of the response, empty summary if the buffer is empty
+   */
+  public ResponseSummary inspect(Buffer buffer) {
+    var summary = new ResponseSummary();
+    if (isNull(buffer) || buffer.length() == 0) {
+      return summary;
+    }
+    XMLStreamReader reader = null;
+    try {
+      reader = xmlInputFactory.createXMLStreamReader(new BufferInputStream(buffer));
+      inspect(reader, summary);
+      return summary;
+    } catch (XMLStreamException e) {
+      throw new IllegalStateException("The OAI-PMH response cannot be inspected.", e);
+    } finally {
+      close(reader);
+    }
+  }
+
+  private void inspect(XMLStreamReader reader, ResponseSummary summary)
+      throws XMLStreamException {
+    int depth = 0;
+    while (reader.hasNext()) {
+      int event = reader.next();
+      if (event == END_ELEMENT) {
+        depth--;
+      } else if (event == START_ELEMENT) {
+        depth++;
+        if (!OAI_NAMESPACE.equals(reader.getNamespaceURI())) {
+          continue;
+        }
+        var name = reader.getLocalName();
+        if (depth == ROOT_CHILD_DEPTH) {
+          if (REQUEST.equals(name)) {
+            summary.setRequest(readRequest(reader));
+            // getElementText() has consumed the end tag of the request element
+            depth--;
+          } else if (ERROR.equals(name)) {
+            summary.addErrorCode(reader.getAttributeValue(null, CODE));
+          } else if (isVerb(name)) {
+            summary.setVerb(name);
+            if (!isListVerb(name)) {
+              // nothing else is needed from non-list responses
+              return;
+            }
+          }
+        } else if (depth == LIST_CHILD_DEPTH && isListVerb(summary.getVerb())) {
+          if (RESUMPTION_TOKEN.equals(name)) {
+            readResumptionToken(reader, summary);
+            // the resumption token is the last child of the list element
+            return;
+          } else if (RECORD.equals(name) || HEADER.equals(name)) {
+            summary.setRecordCount(summary.getRecordCount() + 1);
+          }
+        }
+      }
+    }
+  }
+
+  private RequestType readRequest(XMLStreamReader reader) throws XMLStreamException {
+    var request = new RequestType()
+          .withVerb(toVerbType(reader.getAttributeValue(null, VERB)))
+          .withIdentifier(reader.getAttributeValue(null, IDENTIFIER))
+          .withMetadataPrefix(reader.getAttributeValue(null, METADATA_PREFIX))
+          .withFrom(reader.getAttributeValue(null, FROM))
+          .withUntil(reader.getAttributeValue(null, UNTIL))
+          .withSet(reader.getAttributeValue(null, SET))
+          .withResumptionToken(reader.getAttributeValue(null, RESUMPTION_TOKEN));
+    return request.withValue(reader.getElementText());
+  }
+
+  private void readResumptionToken(XMLStreamReader reader, ResponseSummary summary)
+      throws XMLStreamException {
+    summary.setCompleteListSize(reader.getAttributeValue(null, COMPLETE_LIST_SIZE));
+    summary.setCursor(reader.getAttributeValue(null, CURSOR));
+    summary.setExpirationDate(reader.getAttributeValue(null, EXPIRATION_DATE));
+    summary.setResumptionToken(reader.getElementText());
+  }
+
+  private VerbType toVerbType(String verb) {
+    for (VerbType verbType : VerbType.values()) {
+      if (verbType.value().equals(verb)) {
+        return verbType;
+      }
+    }
+    return null;
+  }
+
+  private boolean isVerb(String name) {
+    return toVerbType(name) != null;
+  }
+
+  private boolean isListVerb(String name) {
+    return LIST_RECORDS.equals(name) || LIST_IDENTIFIERS.equals(name);
+  }
+
+  private void close(XMLStreamReader reader) {
+    if (reader != null) {
+      try {
+        reader.close();
+      } catch (XMLStreamException e) {
+        log.debug("The xml stream reader cannot be closed: {}", e.getMessage());
+      }
+    }
+  }
+}
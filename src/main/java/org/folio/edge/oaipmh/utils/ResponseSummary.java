@@ -0,0 +1,77 @@
+package org.folio.edge.oaipmh.utils;
+
+import static java.util.Objects.nonNull;
+import static org.folio.edge.oaipmh.utils.Constants.LIST_IDENTIFIERS;
+import static org.folio.edge.oaipmh.utils.Constants.LIST_RECORDS;
+
+import java.util.ArrayList;
+import java.util.List;
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.Setter;
+import org.openarchives.oai._2.RequestType;
+
+/**
+ * Findings of {@link ResponseInspector} about an OAI-PMH response: the verb element, the echoed
+ * request, the resumption token, the number of records (or headers) and the error codes.
+ */
+@Getter
+@Setter(AccessLevel.PACKAGE)
+public class ResponseSummary {
+
+  /**
+   * Local name of the verb element (e.g. "ListRecords"), null if the response has errors only.
+   */
+  private String verb;
+  private RequestType request;
+  /**
+   * Value of the resumptionToken element, null if the element is absent.
+   */
+  private String resumptionToken;
+  private String completeListSize;
+  private String cursor;
+  private String expirationDate;
+  /**
+   * Number of record (ListRecords) or header (ListIdentifiers) elements.
+   */
+  private int recordCount;
+  @Setter(AccessLevel.NONE)
+  private final List<String> errorCodes = new ArrayList<>();
+
+  void addErrorCode(String errorCode) {
+    errorCodes.add(errorCode);
+  }
+
+  public boolean isListRecords() {
+    return LIST_RECORDS.equals(verb);
+  }
+
+  public boolean isListIdentifiers() {
+    return LIST_IDENTIFIERS.equals(verb);
+  }
+
+  public boolean hasResumptionToken() {
+    return nonNull(resumptionToken);
+  }
+
+  /**
+   * Checks whether the list response carries a non-empty resumption token but no records, which
+   * happens when mod-oai-pmh skips a page full of suppressed or deleted records.
+   */
+  public boolean isResumptionTokenOnly() {
+    return recordCount == 0 && hasResumptionToken() && !resumptionToken.isEmpty();
+  }
+
+  /**
+   * Checks whether the response is the last page of a list, i.e. the list has no resumption token
+   * or an empty one.
+   */
+  public boolean isLastResponse() {
+    return (isListRecords() || isListIdentifiers())
+          && (!hasResumptionToken() || resumptionToken.isEmpty());
+  }
+
+  public boolean isErrorResponse() {
+    return !errorCodes.isEmpty();
+  }
+}
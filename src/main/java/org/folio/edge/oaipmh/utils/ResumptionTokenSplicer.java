@@ -0,0 +1,123 @@
+package org.folio.edge.oaipmh.utils;
+
+import static java.nio.charset.StandardCharsets.US_ASCII;
+
+import io.vertx.core.buffer.Buffer;
+import java.util.List;
+import java.util.Optional;
+import lombok.experimental.UtilityClass;
+
+/**
+ * Replaces the resumption token of an OAI-PMH list response directly in the response bytes.
+ * The records stay byte-identical to the ones received from mod-oai-pmh, and the new response
+ * is returned as slices of the original buffer around the new token, so nothing is re-encoded
+ * or copied.
+ */
+@UtilityClass
+public class ResumptionTokenSplicer {
+
+  private static final String RESUMPTION_TOKEN_ELEMENT = "resumptionToken";
+  private static final byte[] TOKEN_START_TAG = ("<" + RESUMPTION_TOKEN_ELEMENT)
+        .getBytes(US_ASCII);
+  private static final byte[] TOKEN_END_TAG = ("</" + RESUMPTION_TOKEN_ELEMENT + ">")
+        .getBytes(US_ASCII);
+
+  /**
+   * Splices the resumption token into the response.
+   *
+   * @param response   ListRecords or ListIdentifiers response as received from mod-oai-pmh
+   * @param verb       name of the list element, i.e. ListRecords or ListIdentifiers
+   * @param tokenValue new value of the resumption token
+   * @return parts of the new response to be written in order, or empty optional if the layout
+   *         of the response is not recognized and the response has to be re-marshaled instead
+   */
+  public static Optional<List<Buffer>> splice(Buffer response, String verb, String tokenValue) {
+    int listEnd = lastIndexOf(response, ("</" + verb + ">").getBytes(US_ASCII),
+          response.length());
+    if (listEnd < 0) {
+      return Optional.empty();
+    }
+    // the resumption token, if any, is the last child of the list element
+    int contentEnd = skipWhitespaceBackwards(response, listEnd);
+    int endTagStart = contentEnd - TOKEN_END_TAG.length;
+    if (endTagStart > 0 && matches(response, TOKEN_END_TAG, endTagStart)) {
+      // <resumptionToken completeListSize="62" cursor="62">value</resumptionToken>
+      int startTagEnd = lastIndexOf(response, (byte) '>', endTagStart);
+      if (!isTokenStartTag(response, lastIndexOf(response, (byte) '<', startTagEnd))) {
+        return Optional.empty();
+      }
+      return Optional.of(List.of(response.slice(0, startTagEnd + 1), Buffer.buffer(tokenValue),
+            response.slice(endTagStart, response.length())));
+    }
+    if (contentEnd > 1 && response.getByte(contentEnd - 1) == '>'
+          && response.getByte(contentEnd - 2) == '/'
+          && isTokenStartTag(response, lastIndexOf(response, (byte) '<', contentEnd))) {
+      // <resumptionToken completeListSize="62" cursor="62"/>
+      var content = Buffer.buffer(">" + tokenValue).appendBytes(TOKEN_END_TAG);
+      return Optional.of(List.of(response.slice(0, contentEnd - 2), content,
+            response.slice(contentEnd, response.length())));
+    }
+    // no resumption token element in the response, so the new one is added as the last child
+    var tokenElement = Buffer.buffer(tokenElement(tokenValue))
+          .appendBuffer(response.slice(contentEnd, listEnd));
+    return Optional.of(List.of(response.slice(0, listEnd), tokenElement,
+          response.slice(listEnd, response.length())));
+  }
+
+  private static boolean isTokenStartTag(Buffer buffer, int index) {
+    return index >= 0 && index + TOKEN_START_TAG.length < buffer.length()
+          && matches(buffer, TOKEN_START_TAG, index)
+          && isTagNameEnd(buffer.getByte(index + TOKEN_START_TAG.length));
+  }
+
+  private static String tokenElement(String tokenValue) {
+    return "<" + RESUMPTION_TOKEN_ELEMENT + ">" + tokenValue + "</" + RESUMPTION_TOKEN_ELEMENT
+          + ">";
+  }
+
+  private static boolean isTagNameEnd(byte b) {
+    return b == '>' || b == '/' || isWhitespace(b);
+  }
+
+  private static int skipWhitespaceBackwards(Buffer buffer, int end) {
+    int index = end;
+    while (index > 0 && isWhitespace(buffer.getByte(index - 1))) {
+      index--;
+    }
+    return index;
+  }
+
+  private static boolean isWhitespace(byte b) {
+    return b == ' ' || b == '\n' || b == '\r' || b == '\t';
+  }
+
+  private static int lastIndexOf(Buffer buffer, byte value, int end) {
+    for (int i = end - 1; i >= 0; i--) {
+      if (buffer.getByte(i) == value) {
+        return i;
+      }
+    }
+    return -1;
+  }
+
+  /**
+   * Searches backwards for the last occurrence of the pattern that ends before the given index.
+   */
+  private static int lastIndexOf(Buffer buffer, byte[] pattern, int end) {
+    for (int i = end - pattern.length; i >= 0; i--) {
+      if (matches(buffer, pattern, i)) {
+        return i;
+      }
+    }
+    return -1;
+  }
+
+  private static boolean matches(Buffer buffer, byte[] pattern, int index) {
+    for (int j = 0; j < pattern.length; j++) {
+      if (buffer.getByte(index + j) != pattern[j]) {
+        return false;
+      }
+    }
+    return true;
+  }
+}
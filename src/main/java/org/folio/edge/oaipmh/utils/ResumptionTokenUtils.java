@@ -25,11 +25,15 @@ import org.openarchives.oai._2.RequestType;
 @UtilityClass
 public class ResumptionTokenUtils {
   public static String buildNewResumptionToken(OAIPMH oaipmh, String tenantId) {
+    return buildNewResumptionToken(oaipmh.getRequest(), tenantId);
+  }
+
+  public static String buildNewResumptionToken(RequestType request, String tenantId) {
     Map<String, String> params = new LinkedHashMap<>();
     params.put(TENANT_ID, tenantId);
-    params.put(METADATA_PREFIX, fetchMetadataPrefix(oaipmh.getRequest()));
-    ofNullable(fetchFrom(oaipmh.getRequest())).ifPresent(value -> params.put(FROM, value));
-    ofNullable(fetchUntil(oaipmh.getRequest())).ifPresent(value -> params.put(UNTIL, value));
+    params.put(METADATA_PREFIX, fetchMetadataPrefix(request));
+    ofNullable(fetchFrom(request)).ifPresent(value -> params.put(FROM, value));
+    ofNullable(fetchUntil(request)).ifPresent(value -> params.put(UNTIL, value));
     return toResumptionToken(params);
   }
 
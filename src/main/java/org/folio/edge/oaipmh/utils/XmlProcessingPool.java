@@ -0,0 +1,145 @@
+package org.folio.edge.oaipmh.utils;
+
+import io.vertx.core.Context;
+import io.vertx.core.Future;
+import io.vertx.core.Promise;
+import io.vertx.core.Vertx;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Runs the CPU heavy XML work, such as inspecting or re-marshalling a page of records, off the
+ * event loop. Tasks run on a fixed number of platform or virtual threads with a bounded queue,
+ * and their results are handed back on the Vert.x context of the caller. A pool created with
+ * {@link #inline()} runs the tasks on the calling thread, as before there was a pool.
+ */
+public class XmlProcessingPool {
+
+  private static final String THREAD_NAME_PREFIX = "oai-pmh-xml-";
+
+  private final ThreadPoolExecutor executor;
+  private final LongAdder inlineCount = new LongAdder();
+  private final LongAdder inlineTimeNanos = new LongAdder();
+  private final LongAdder offloadedCount = new LongAdder();
+  private final LongAdder offloadedTimeNanos = new LongAdder();
+
+  private XmlProcessingPool(ThreadPoolExecutor executor) {
+    this.executor = executor;
+  }
+
+  /**
+   * Creates the pool.
+   *
+   * @param poolSize       number of threads running tasks
+   * @param queueSize      max number of tasks waiting for a thread, tasks beyond it are rejected
+   *                       with {@link RejectedExecutionException}
+   * @param virtualThreads whether the threads are virtual rather than platform threads
+   */
+  public static XmlProcessingPool create(int poolSize, int queueSize, boolean virtualThreads) {
+    ThreadFactory threadFactory = virtualThreads
+          ? Thread.ofVirtual().name(THREAD_NAME_PREFIX, 0).factory()
+          : Thread.ofPlatform().name(THREAD_NAME_PREFIX, 0).daemon().factory();
+    return new XmlProcessingPool(new ThreadPoolExecutor(poolSize, poolSize, 0,
+          TimeUnit.MILLISECONDS, new ArrayBlockingQueue<>(queueSize), threadFactory));
+  }
+
+  /**
+   * Creates the pool that runs tasks on the calling thread.
+   */
+  public static XmlProcessingPool inline() {
+    return new XmlProcessingPool(null);
+  }
+
+  /**
+   * Runs the task.
+   *
+   * @param task XML work, must not touch the routing context or the response
+   * @return result of the task, completed on the context of the caller
+   */
+  public <T> Future<T> execute(Callable<T> task) {
+    if (executor == null) {
+      long start = System.nanoTime();
+      try {
+        return Future.succeededFuture(task.call());
+      } catch (Throwable e) {
+        return Future.failedFuture(e);
+      } finally {
+        inlineCount.increment();
+        inlineTimeNanos.add(System.nanoTime() - start);
+      }
+    }
+    Context context = Vertx.currentContext();
+    Promise<T> promise = Promise.promise();
+    try {
+      executor.execute(() -> {
+        long start = System.nanoTime();
+        T result = null;
+        Throwable failure = null;
+        try {
+          result = task.call();
+        } catch (Throwable e) {
+          // errors too, such as a stack overflow on deeply nested XML, so that the caller is
+          // never left waiting
+          failure = e;
+        }
+        // recorded before the caller is resumed, so that it sees the task counted
+        offloadedCount.increment();
+        offloadedTimeNanos.add(System.nanoTime() - start);
+        complete(context, promise, result, failure);
+      });
+    } catch (RejectedExecutionException e) {
+      return Future.failedFuture(e);
+    }
+    return promise.future();
+  }
+
+  private static <T> void complete(Context context, Promise<T> promise, T result,
+                                   Throwable failure) {
+    Runnable completion = failure == null
+          ? () -> promise.complete(result)
+          : () -> promise.fail(failure);
+    if (context == null) {
+      completion.run();
+    } else {
+      context.runOnContext(v -> completion.run());
+    }
+  }
+
+  /**
+   * Stops the threads of the pool once the tasks queued have run. Tasks submitted afterwards are
+   * rejected.
+   */
+  public void close() {
+    if (executor != null) {
+      executor.shutdown();
+    }
+  }
+
+  public long getInlineCount() {
+    return inlineCount.sum();
+  }
+
+  public long getInlineTimeNanos() {
+    return inlineTimeNanos.sum();
+  }
+
+  public long getOffloadedCount() {
+    return offloadedCount.sum();
+  }
+
+  public long getOffloadedTimeNanos() {
+    return offloadedTimeNanos.sum();
+  }
+
+  /**
+   * Returns the number of tasks waiting for a thread.
+   */
+  public int getQueued() {
+    return executor == null ? 0 : executor.getQueue().size();
+  }
+}
@@ -9,8 +9,22 @@ import static org.folio.edge.core.Constants.SYS_RESPONSE_COMPRESSION;
 import static org.folio.edge.core.Constants.SYS_SECURE_STORE_PROP_FILE;
 import static org.folio.edge.core.Constants.TEXT_PLAIN;
 import static org.folio.edge.core.Constants.TEXT_XML;
+import static org.folio.edge.oaipmh.utils.Constants.SYS_EMPTY_WINDOW_CACHE_ENABLED;
+import static org.folio.edge.oaipmh.utils.Constants.SYS_MAX_SKIPPED_TENANTS;
+import static org.folio.edge.oaipmh.utils.Constants.SYS_RESPONSE_CACHE_ENABLED;
+import static org.folio.edge.oaipmh.utils.Constants.SYS_RESUMPTION_TOKEN_SPLICE_ENABLED;
+import static org.folio.edge.oaipmh.utils.Constants.SYS_RETRY_AFTER_SECONDS;
+import static org.folio.edge.oaipmh.utils.Constants.SYS_RETRY_AFTER_THRESHOLD_MS;
+import static org.folio.edge.oaipmh.utils.Constants.SYS_SERVER_TIMING_ENABLED;
+import static org.folio.edge.oaipmh.utils.Constants.SYS_TENANT_PROBE_PARALLELISM;
+import static org.folio.edge.oaipmh.utils.Constants.SYS_UPSTREAM_COALESCING_ENABLED;
+import static org.folio.edge.oaipmh.utils.Constants.SYS_VERTICLE_INSTANCES;
+import static org.folio.edge.oaipmh.utils.OaiPmhMockOkapi.NO_RECORDS_FROM;
 import static org.folio.edge.oaipmh.utils.OaiPmhMockOkapi.REQUEST_TIMEOUT_MS;
+import static org.folio.edge.oaipmh.utils.OaiPmhMockOkapi.SLOW_RESPONSE_MS;
+import static org.folio.edge.oaipmh.utils.OaiPmhMockOkapi.SLOW_SET;
 import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.matchesPattern;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
@@ -22,13 +36,22 @@ import io.restassured.config.DecoderConfig;
 import io.restassured.http.Header;
 import io.restassured.response.Response;
 import io.vertx.core.DeploymentOptions;
+import io.vertx.core.Future;
 import io.vertx.core.Vertx;
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.http.HttpClientRequest;
+import io.vertx.core.http.HttpMethod;
+import io.vertx.core.http.PoolOptions;
 import io.vertx.junit5.VertxExtension;
 import io.vertx.junit5.VertxTestContext;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
 import java.util.stream.Collectors;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.http.HttpHeaders;
@@ -36,6 +59,7 @@ import org.apache.http.HttpStatus;
 import org.folio.edge.core.utils.ApiKeyUtils;
 import org.folio.edge.core.utils.test.TestUtils;
 import org.folio.edge.oaipmh.utils.OaiPmhMockOkapi;
+import org.folio.edge.oaipmh.utils.ResumptionTokenUtils;
 import org.junit.jupiter.api.AfterAll;
 import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.Test;
@@ -43,6 +67,7 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.CsvSource;
 import org.junit.jupiter.params.provider.ValueSource;
+import org.openarchives.oai._2.RequestType;
 
 @Slf4j
 @ExtendWith(VertxExtension.class)
@@ -62,6 +87,10 @@ class OaiPmhTest {
   private static final String EXPECTED_ERROR_INTERNAL_SERVER_ERROR_MSG = "Error in the response "
         + "from repository: status code - 500, response status message - Internal Server Error";
 
+  private static final Map<String, String> PROBE_PROPERTIES = Map.of(
+        SYS_TENANT_PROBE_PARALLELISM, "2",
+        SYS_EMPTY_WINDOW_CACHE_ENABLED, Boolean.toString(true));
+
   private static OaiPmhMockOkapi mockOkapi;
 
   @BeforeAll
@@ -82,6 +111,8 @@ class OaiPmhTest {
     knownTenants.add("tenant4");
     knownTenants.add("tenant5");
     knownTenants.add("tenant6");
+    knownTenants.add("central3");
+    knownTenants.add("tenant7");
 
     int okapiPort = TestUtils.getPort();
 
@@ -91,6 +122,8 @@ class OaiPmhTest {
     System.setProperty(SYS_LOG_LEVEL, "TRACE");
     System.setProperty(SYS_REQUEST_TIMEOUT_MS, String.valueOf(REQUEST_TIMEOUT_MS));
     System.setProperty(SYS_RESPONSE_COMPRESSION, Boolean.toString(true));
+    System.setProperty(SYS_SERVER_TIMING_ENABLED, Boolean.toString(true));
+    System.setProperty(SYS_RESPONSE_CACHE_ENABLED, Boolean.toString(true));
 
     final DeploymentOptions opt = new DeploymentOptions();
     vertx
@@ -132,6 +165,60 @@ class OaiPmhTest {
     assertEquals("\"OK\"", resp.body().asString());
   }
 
+  @Test
+  void testAdminMetrics() {
+    log.info("=== Test the metrics endpoint ===");
+
+    RestAssured
+          .get(String.format("/oai?verb=Identify&apikey=%s", API_KEY))
+          .then()
+          .statusCode(HttpStatus.SC_OK);
+
+    final Response resp = RestAssured
+          .get("/admin/metrics")
+          .then()
+          .statusCode(HttpStatus.SC_OK)
+          .header(HttpHeaders.CONTENT_TYPE, containsString(TEXT_PLAIN))
+          .extract()
+          .response();
+
+    String body = resp.body().asString();
+    assertTrue(body.contains(
+          "oai_pmh_requests_seconds_count{tenant=\"diku\",verb=\"Identify\"}"));
+    assertTrue(body.contains("oai_pmh_upstream_requests_seconds_bucket{"));
+    assertTrue(body.contains("oai_pmh_response_size_bytes_count{verb=\"Identify\"}"));
+    assertTrue(body.contains("oai_pmh_requests_inflight"));
+  }
+
+  @Test
+  void testServerTimingOnCacheMiss() {
+    log.info("=== Test the Server-Timing header of a response fetched from mod-oai-pmh ===");
+
+    RestAssured
+          .get(String.format("/oai?verb=Identify&apikey=%s",
+                ApiKeyUtils.generateApiKey(10, "tenant3", "user")))
+          .then()
+          .statusCode(HttpStatus.SC_OK)
+          .header("Server-Timing", matchesPattern(
+                "token;dur=[0-9.]+, upstream;dur=[0-9.]+, total;dur=[0-9.]+"));
+  }
+
+  @Test
+  void testServerTimingOnCacheHit() {
+    log.info("=== Test the Server-Timing header of a response served from the cache ===");
+
+    var apiKey = ApiKeyUtils.generateApiKey(10, "tenant6", "user");
+    RestAssured
+          .get(String.format("/oai?verb=Identify&apikey=%s", apiKey))
+          .then()
+          .statusCode(HttpStatus.SC_OK);
+    RestAssured
+          .get(String.format("/oai?verb=Identify&apikey=%s", apiKey))
+          .then()
+          .statusCode(HttpStatus.SC_OK)
+          .header("Server-Timing", matchesPattern("token;dur=[0-9.]+, total;dur=[0-9.]+"));
+  }
+
   @Test
   void testGetRecordNotFoundHttpGet() {
     log.info("=== Test GetRecord OAI-PMH error - not found (HTTP GET)===");
@@ -707,9 +794,14 @@ class OaiPmhTest {
 
   @ParameterizedTest
   @CsvSource({"ListRecords,0", "ListIdentifiers,1"})
-  void shouldAddResumptionTokenForLastResponseWhenNextTenantIsPresent(String verb, int mockIndex) {
+  void shouldAddResumptionTokenForLastResponseWhenNextTenantIsPresent(String verb, int mockIndex,
+                                                                     Vertx vertx)
+        throws Exception {
     log.info("=== Test successful add resumption token if next tenant is present ===");
 
+    // the response is re-marshaled, as it was before resumption tokens were spliced
+    int port = deployModule(vertx, Map.of(SYS_RESUMPTION_TOKEN_SPLICE_ENABLED,
+          Boolean.toString(false)));
     var pathsToMockFiles = List.of(OaiPmhMockOkapi.PATH_TO_LIST_RECORDS_WITH_TOKEN_MOCK,
           OaiPmhMockOkapi.PATH_TO_LIST_IDENTIFIERS_WITH_TOKEN_MOCK);
 
@@ -717,10 +809,10 @@ class OaiPmhTest {
     String expectedMockBody = OaiPmhMockOkapi.getOaiPmhResponseAsXml(expectedMockPath);
 
     final Response resp = RestAssured
-          .get(String.format("/oai?verb=%s&resumptionToken="
+          .get(String.format("http://localhost:%d/oai?verb=%s&resumptionToken="
                       + "bWV0YWRhdGFQcmVmaXg9b2FpX2RjJnRlbmFudElkPXRlbmFudDQmcGFyYW09cGFyYW0"
                       + "&apikey=%s",
-                verb, ApiKeyUtils.generateApiKey(10, "central", "user")))
+                port, verb, ApiKeyUtils.generateApiKey(10, "central", "user")))
           .then()
           .contentType(TEXT_XML)
           .statusCode(HttpStatus.SC_OK)
@@ -806,4 +898,306 @@ class OaiPmhTest {
     String actualBody = resp.body().asString();
     assertEquals(expectedMockBody, actualBody);
   }
+
+  @Test
+  void shouldResetUpstreamCallWhenHarvesterDisconnects(Vertx vertx, VertxTestContext context) {
+    log.info("=== Test upstream call is reset when the harvester disconnects ===");
+
+    // tenant5 answers with an error after a while, which would move the harvest on to tenant6
+    var set = "disconnect-" + SLOW_SET + "tenant5";
+    vertx.createHttpClient()
+          .request(HttpMethod.GET, RestAssured.port, "localhost", String.format(
+                "/oai?verb=ListRecords&metadataPrefix=oai_dc&from=2023-08-30&until=2023-08-31"
+                      + "&set=%s&apikey=%s", set,
+                ApiKeyUtils.generateApiKey(10, "central2", "user")))
+          .onSuccess(request -> {
+            request.send();
+            awaitCondition(vertx, () -> mockOkapi.getListRecordsCalls("tenant5", set) == 1,
+                  () -> {
+                    request.reset();
+                    awaitCondition(vertx,
+                          () -> mockOkapi.getListRecordsResets("tenant5", set) == 1,
+                          () -> vertx.setTimer(SLOW_RESPONSE_MS, id -> context.verify(() -> {
+                            assertEquals(0, mockOkapi.getListRecordsCalls("tenant6", set));
+                            context.completeNow();
+                          })));
+                  });
+          })
+          .onFailure(context::failNow);
+  }
+
+  @Test
+  void shouldAskToRetryLaterAndServeParkedResponse(Vertx vertx) throws Exception {
+    log.info("=== Test slow first request gets Retry-After and the retry gets parked response ===");
+
+    int port = deployModule(vertx, Map.of(SYS_RETRY_AFTER_THRESHOLD_MS, "100",
+          SYS_RETRY_AFTER_SECONDS, "1"));
+    Path expectedMockPath = Paths.get(OaiPmhMockOkapi.PATH_TO_LIST_RECORDS_MOCK);
+    String expectedMockBody = OaiPmhMockOkapi.getOaiPmhResponseAsXml(expectedMockPath);
+    var set = "park-" + SLOW_SET + "tenant4";
+    var url = String.format("http://localhost:%d/oai?verb=ListRecords&metadataPrefix=oai_dc"
+          + "&set=%s&apikey=%s", port, set, ApiKeyUtils.generateApiKey(10, "tenant4", "user"));
+
+    RestAssured
+          .get(url)
+          .then()
+          .statusCode(HttpStatus.SC_SERVICE_UNAVAILABLE)
+          .header("Retry-After", "1");
+
+    // the harvester honours Retry-After, by then the parked call has its response
+    TimeUnit.SECONDS.sleep(1);
+    final Response resp = RestAssured
+          .get(url)
+          .then()
+          .contentType(TEXT_XML)
+          .statusCode(HttpStatus.SC_OK)
+          .extract()
+          .response();
+
+    assertEquals(expectedMockBody, resp.body().asString());
+    assertEquals(1, mockOkapi.getListRecordsCalls("tenant4", set));
+  }
+
+  @Test
+  void shouldShareHandlerBetweenVerticleInstances(Vertx vertx, VertxTestContext context)
+        throws Exception {
+    log.info("=== Test verticle instances share one handler and release it on undeploy ===");
+
+    var sharedComponents = vertx.sharedData().getLocalMap(MainVerticle.SHARED_COMPONENTS);
+    int deployedBefore = sharedComponents.size();
+    int port = TestUtils.getPort();
+    var deploymentId = deployModule(vertx, DeploymentVerticle.class, port, Map.of(
+          SYS_VERTICLE_INSTANCES, "2",
+          SYS_UPSTREAM_COALESCING_ENABLED, Boolean.toString(true)));
+    assertEquals(deployedBefore + 1, sharedComponents.size());
+
+    String expectedMockBody = OaiPmhMockOkapi.getOaiPmhResponseAsXml(
+          Paths.get(OaiPmhMockOkapi.PATH_TO_LIST_RECORDS_MOCK));
+    var set = "instances-" + SLOW_SET + "tenant4";
+    var uri = String.format("/oai?verb=ListRecords&metadataPrefix=oai_dc&set=%s&apikey=%s", set,
+          ApiKeyUtils.generateApiKey(10, "tenant4", "user"));
+    // the connections are spread over the instances, and the call coalesced by one of them
+    // completes on the event loop of the others too
+    var client = vertx.createHttpClient(new PoolOptions().setHttp1MaxSize(4));
+    var bodies = new ArrayList<Future<Buffer>>();
+    for (int i = 0; i < 4; i++) {
+      bodies.add(client.request(HttpMethod.GET, port, "localhost", uri)
+            .compose(HttpClientRequest::send)
+            .compose(response -> response.statusCode() == HttpStatus.SC_OK
+                  ? response.body()
+                  : Future.failedFuture("Unexpected status " + response.statusCode())));
+    }
+
+    Future.all(bodies)
+          .compose(all -> {
+            context.verify(() -> {
+              bodies.forEach(body -> assertEquals(expectedMockBody, body.result().toString()));
+              assertEquals(1, mockOkapi.getListRecordsCalls("tenant4", set));
+            });
+            return vertx.undeploy(deploymentId);
+          })
+          .onComplete(context.succeeding(v -> context.verify(() -> {
+            assertEquals(deployedBefore, sharedComponents.size());
+            context.completeNow();
+          })));
+  }
+
+  @Test
+  void shouldHarvestTenantsInOrderWhenProbedInParallel(Vertx vertx) throws Exception {
+    log.info("=== Test tenants are harvested in order when probed in parallel ===");
+
+    int port = deployModule(vertx, PROBE_PROPERTIES);
+    Path expectedMockPath = Paths.get(OaiPmhMockOkapi.PATH_TO_LIST_RECORDS_CONSORTIA_MOCK);
+    String expectedMockBody = OaiPmhMockOkapi.getOaiPmhResponseAsXml(expectedMockPath);
+
+    // tenant2 answers first, but the response of tenant1 comes first
+    var set = "order-" + SLOW_SET + "tenant1";
+    final Response resp = RestAssured
+          .get(String.format("http://localhost:%d/oai?verb=ListRecords&metadataPrefix=oai_dc"
+                + "&set=%s&apikey=%s", port, set,
+                ApiKeyUtils.generateApiKey(10, "central", "user")))
+          .then()
+          .contentType(TEXT_XML)
+          .statusCode(HttpStatus.SC_OK)
+          .extract()
+          .response();
+
+    assertEquals(expectedMockBody, resp.body().asString());
+    assertEquals(1, mockOkapi.getListRecordsCalls("tenant1", set));
+    assertEquals(1, mockOkapi.getListRecordsCalls("tenant2", set));
+  }
+
+  @Test
+  void shouldResetProbesOfLaterTenants(Vertx vertx, VertxTestContext context)
+        throws Exception {
+    log.info("=== Test probes of the tenants after the harvested one are reset ===");
+
+    int port = deployModule(vertx, PROBE_PROPERTIES);
+    Path expectedMockPath = Paths.get(OaiPmhMockOkapi.PATH_TO_LIST_RECORDS_CONSORTIA_MOCK);
+    String expectedMockBody = OaiPmhMockOkapi.getOaiPmhResponseAsXml(expectedMockPath);
+
+    var set = "discard-" + SLOW_SET + "tenant2";
+    final Response resp = RestAssured
+          .get(String.format("http://localhost:%d/oai?verb=ListRecords&metadataPrefix=oai_dc"
+                + "&set=%s&apikey=%s", port, set,
+                ApiKeyUtils.generateApiKey(10, "central", "user")))
+          .then()
+          .contentType(TEXT_XML)
+          .statusCode(HttpStatus.SC_OK)
+          .extract()
+          .response();
+
+    assertEquals(expectedMockBody, resp.body().asString());
+    awaitCondition(vertx, () -> mockOkapi.getListRecordsResets("tenant2", set) == 1,
+          context::completeNow);
+  }
+
+  @Test
+  void shouldSkipTenantsKnownEmptyButAlwaysProbeLastOne(Vertx vertx) throws Exception {
+    log.info("=== Test tenants known to have no records are not probed, but the last one ===");
+
+    int port = deployModule(vertx, PROBE_PROPERTIES);
+    Path expectedMockPath = Paths.get(OaiPmhMockOkapi.PATH_TO_LIST_RECORDS_ERROR_MOCK);
+    String expectedMockBody = OaiPmhMockOkapi.getOaiPmhResponseAsXml(expectedMockPath);
+
+    var set = "empty";
+    var url = String.format("http://localhost:%d/oai?verb=ListRecords&metadataPrefix=oai_dc"
+          + "&from=%s&set=%s&apikey=%s", port, NO_RECORDS_FROM, set,
+          ApiKeyUtils.generateApiKey(10, "central2", "user"));
+    for (int i = 0; i < 2; i++) {
+      final Response resp = RestAssured
+            .get(url)
+            .then()
+            .contentType(TEXT_XML)
+            .statusCode(HttpStatus.SC_OK)
+            .extract()
+            .response();
+      assertEquals(expectedMockBody, resp.body().asString());
+    }
+
+    assertEquals(1, mockOkapi.getListRecordsCalls("tenant5", set));
+    assertEquals(2, mockOkapi.getListRecordsCalls("tenant6", set));
+  }
+
+  @Test
+  void shouldParkProbesAndServeThemWhenHarvesterRetries(Vertx vertx) throws Exception {
+    log.info("=== Test probes are coalesced and parked when the first page is slow ===");
+
+    var properties = new HashMap<>(PROBE_PROPERTIES);
+    properties.put(SYS_UPSTREAM_COALESCING_ENABLED, Boolean.toString(true));
+    properties.put(SYS_RETRY_AFTER_THRESHOLD_MS, "100");
+    properties.put(SYS_RETRY_AFTER_SECONDS, "1");
+    int port = deployModule(vertx, properties);
+    Path expectedMockPath = Paths.get(OaiPmhMockOkapi.PATH_TO_LIST_RECORDS_CONSORTIA_MOCK);
+    String expectedMockBody = OaiPmhMockOkapi.getOaiPmhResponseAsXml(expectedMockPath);
+    var set = "park-probes-" + SLOW_SET + "tenant1";
+    var url = String.format("http://localhost:%d/oai?verb=ListRecords&metadataPrefix=oai_dc"
+          + "&set=%s&apikey=%s", port, set, ApiKeyUtils.generateApiKey(10, "central", "user"));
+
+    RestAssured
+          .get(url)
+          .then()
+          .statusCode(HttpStatus.SC_SERVICE_UNAVAILABLE)
+          .header("Retry-After", "1");
+
+    TimeUnit.SECONDS.sleep(1);
+    final Response resp = RestAssured
+          .get(url)
+          .then()
+          .contentType(TEXT_XML)
+          .statusCode(HttpStatus.SC_OK)
+          .extract()
+          .response();
+
+    assertEquals(expectedMockBody, resp.body().asString());
+    assertEquals(1, mockOkapi.getListRecordsCalls("tenant1", set));
+    assertEquals(1, mockOkapi.getListRecordsCalls("tenant2", set));
+  }
+
+  @Test
+  void shouldContinueAtNextTenantOnceMaxSkippedTenantsIsReached(Vertx vertx) throws Exception {
+    log.info("=== Test harvest continues at the next tenant after max skipped tenants ===");
+
+    int port = deployModule(vertx, Map.of(SYS_MAX_SKIPPED_TENANTS, "1"));
+    var apiKey = ApiKeyUtils.generateApiKey(10, "central3", "user");
+    // tenant5 is skipped, tenant6 would be the second one, so tenant7 is left to the next request
+    var token = ResumptionTokenUtils.buildNewResumptionToken(new RequestType()
+          .withMetadataPrefix("oai_dc")
+          .withFrom(NO_RECORDS_FROM), "tenant7");
+
+    RestAssured
+          .get(String.format("http://localhost:%d/oai?verb=ListRecords&metadataPrefix=oai_dc"
+                + "&from=%s&apikey=%s", port, NO_RECORDS_FROM, apiKey))
+          .then()
+          .contentType(TEXT_XML)
+          .statusCode(HttpStatus.SC_OK)
+          .body(containsString("<resumptionToken>" + token + "</resumptionToken>"));
+    assertEquals(1, mockOkapi.getListRecordsCalls("tenant5", null));
+    assertEquals(1, mockOkapi.getListRecordsCalls("tenant6", null));
+    assertEquals(0, mockOkapi.getListRecordsCalls("tenant7", null));
+
+    Path expectedMockPath = Paths.get(OaiPmhMockOkapi.PATH_TO_LIST_RECORDS_ERROR_MOCK);
+    String expectedMockBody = OaiPmhMockOkapi.getOaiPmhResponseAsXml(expectedMockPath);
+    final Response resp = RestAssured
+          .get(String.format("http://localhost:%d/oai?verb=ListRecords&resumptionToken=%s"
+                + "&apikey=%s", port, token, apiKey))
+          .then()
+          .contentType(TEXT_XML)
+          .statusCode(HttpStatus.SC_OK)
+          .extract()
+          .response();
+
+    assertEquals(expectedMockBody, resp.body().asString());
+    assertEquals(1, mockOkapi.getListRecordsCalls("tenant6", null));
+    assertEquals(1, mockOkapi.getListRecordsCalls("tenant7", null));
+  }
+
+  /**
+   * Deploys the module once more on a port of its own, with the system properties of setUpOnce
+   * and the given ones. The system properties are restored once the module is deployed.
+   *
+   * @return port of the module
+   */
+  private static int deployModule(Vertx vertx, Map<String, String> properties)
+        throws Exception {
+    int port = TestUtils.getPort();
+    deployModule(vertx, MainVerticle.class, port, properties);
+    return port;
+  }
+
+  /**
+   * Deploys the verticle on the given port, with the system properties of setUpOnce and the
+   * given ones.
+   *
+   * @return deployment id of the verticle
+   */
+  private static String deployModule(Vertx vertx, Class<?> verticle, int port,
+                                     Map<String, String> properties) throws Exception {
+    var deploymentProperties = new HashMap<>(properties);
+    deploymentProperties.put(SYS_PORT, String.valueOf(port));
+    var previous = new HashMap<String, String>();
+    deploymentProperties.forEach((key, value) -> previous.put(key,
+          System.setProperty(key, value)));
+    try {
+      return vertx.deployVerticle(verticle.getName(), new DeploymentOptions())
+            .toCompletionStage().toCompletableFuture().get(10, TimeUnit.SECONDS);
+    } finally {
+      previous.forEach((key, value) -> {
+        if (value == null) {
+          System.clearProperty(key);
+        } else {
+          System.setProperty(key, value);
+        }
+      });
+    }
+  }
+
+  private static void awaitCondition(Vertx vertx, BooleanSupplier condition, Runnable then) {
+    vertx.setPeriodic(10, id -> {
+      if (condition.getAsBoolean()) {
+        vertx.cancelTimer(id);
+        then.run();
+      }
+    });
+  }
 }
@@ -0,0 +1,59 @@
+package org.folio.edge.oaipmh;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+import java.util.Optional;
+import org.junit.jupiter.api.Test;
+
+class TenantScanTest {
+
+  private static final List<String> TENANTS = List.of("central", "member1", "member2", "member3");
+
+  @Test
+  void shouldSkipTenantsUpToLimit() {
+    var scan = new TenantScan(TENANTS, "central", 2);
+
+    assertTrue(scan.skip());
+    assertEquals("member1", scan.current());
+    assertTrue(scan.skip());
+    assertEquals("member2", scan.current());
+    assertFalse(scan.skip());
+    assertEquals("member2", scan.current());
+    assertEquals(Optional.of("member3"), scan.nextTenant());
+  }
+
+  @Test
+  void shouldNotSkipLastTenant() {
+    var scan = new TenantScan(TENANTS, "member3", 10);
+
+    assertFalse(scan.hasNext());
+    assertFalse(scan.skip());
+    assertEquals(Optional.empty(), scan.nextTenant());
+  }
+
+  @Test
+  void shouldReturnUpcomingTenants() {
+    var scan = new TenantScan(TENANTS, "member1", 10);
+
+    assertEquals(3, scan.remaining());
+    assertEquals(List.of("member1", "member2"), scan.upcoming(2));
+    assertEquals(List.of("member1", "member2", "member3"), scan.upcoming(5));
+  }
+
+  @Test
+  void shouldContinueWithFirstTenantAfterUnknownOne() {
+    var scan = new TenantScan(TENANTS, "unknown", 10);
+
+    assertEquals(Optional.of("central"), scan.nextTenant());
+    assertEquals(5, scan.remaining());
+    assertEquals(List.of("unknown"), scan.upcoming(1));
+    assertEquals(List.of("unknown", "central", "member1"), scan.upcoming(3));
+    assertEquals(5, scan.upcoming(10).size());
+    assertTrue(scan.skip());
+    assertEquals("central", scan.current());
+    assertEquals(4, scan.remaining());
+  }
+}
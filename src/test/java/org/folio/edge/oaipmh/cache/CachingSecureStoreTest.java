@@ -0,0 +1,60 @@
+package org.folio.edge.oaipmh.cache;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import io.vertx.core.Vertx;
+import io.vertx.junit5.VertxExtension;
+import io.vertx.junit5.VertxTestContext;
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.folio.edge.core.security.SecureStore;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+
+@ExtendWith(VertxExtension.class)
+class CachingSecureStoreTest {
+
+  private final AtomicInteger reads = new AtomicInteger();
+  private final SecureStore delegate = new SecureStore(new Properties()) {
+    @Override
+    public String get(String clientId, String tenant, String username) throws NotFoundException {
+      reads.incrementAndGet();
+      if ("unknown".equals(tenant)) {
+        throw new NotFoundException("No password for " + tenant);
+      }
+      return tenant + "-password";
+    }
+  };
+  private final CachingSecureStore store = new CachingSecureStore(delegate, 10, 60_000);
+
+  @Test
+  void shouldCachePasswords() throws Exception {
+    assertEquals("diku-password", store.get("salt", "diku", "user"));
+    assertEquals("diku-password", store.get("salt", "diku", "user"));
+    assertEquals(1, reads.get());
+    assertEquals("diku-password", store.get("salt", "diku", "other"));
+    assertEquals(2, reads.get());
+  }
+
+  @Test
+  void shouldNotCacheMissingPasswords() {
+    assertThrows(SecureStore.NotFoundException.class, () -> store.get("salt", "unknown", "user"));
+    assertThrows(SecureStore.NotFoundException.class, () -> store.get("salt", "unknown", "user"));
+    assertEquals(2, reads.get());
+  }
+
+  @Test
+  void shouldPreloadUncachedPasswords(Vertx vertx, VertxTestContext context) throws Exception {
+    store.get("salt", "central", "user");
+
+    store.preload(vertx, "salt", List.of("central", "member", "unknown"), "user")
+          .onComplete(context.succeeding(result -> context.verify(() -> {
+            assertEquals(3, reads.get());
+            assertEquals("member-password", store.get("salt", "member", "user"));
+            assertEquals(3, reads.get());
+            context.completeNow();
+          })));
+  }
+}
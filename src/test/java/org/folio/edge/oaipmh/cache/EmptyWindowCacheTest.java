@@ -0,0 +1,54 @@
+package org.folio.edge.oaipmh.cache;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.jupiter.api.Test;
+
+class EmptyWindowCacheTest {
+
+  private final AtomicLong now = new AtomicLong(1_000_000L);
+  private final EmptyWindowCache cache = new EmptyWindowCache(10, 100, now::get);
+
+  @Test
+  void shouldAnswerContainedWindows() {
+    cache.putEmpty("diku", "oai_dc", null, "2023-08-01", "2023-08-31");
+
+    assertTrue(cache.isEmpty("diku", "oai_dc", null, "2023-08-01", "2023-08-31"));
+    assertTrue(cache.isEmpty("diku", "oai_dc", null, "2023-08-10", "2023-08-20"));
+    assertTrue(cache.isEmpty("diku", "oai_dc", null, "2023-08-31T10:00:00Z", "2023-08-31"));
+    assertFalse(cache.isEmpty("diku", "oai_dc", null, "2023-07-31", "2023-08-20"));
+    assertFalse(cache.isEmpty("diku", "oai_dc", null, "2023-08-10", null));
+    assertFalse(cache.isEmpty("diku", "marc21", null, "2023-08-10", "2023-08-20"));
+    assertFalse(cache.isEmpty("diku", "oai_dc", "set1", "2023-08-10", "2023-08-20"));
+    assertFalse(cache.isEmpty("other", "oai_dc", null, "2023-08-10", "2023-08-20"));
+  }
+
+  @Test
+  void shouldTreatMissingDatesAsOpenBounds() {
+    cache.putEmpty("diku", "oai_dc", null, "2023-08-01", null);
+
+    assertTrue(cache.isEmpty("diku", "oai_dc", null, "2023-08-02", null));
+    assertTrue(cache.isEmpty("diku", "oai_dc", null, "2023-08-02", "2030-01-01"));
+    assertFalse(cache.isEmpty("diku", "oai_dc", null, null, "2023-08-02"));
+  }
+
+  @Test
+  void shouldForgetWindowAfterTtl() {
+    cache.putEmpty("diku", "oai_dc", null, "2023-08-01", "2023-08-31");
+    now.addAndGet(50);
+    cache.putEmpty("diku", "oai_dc", null, "2023-09-01", "2023-09-30");
+    now.addAndGet(50);
+
+    assertFalse(cache.isEmpty("diku", "oai_dc", null, "2023-08-01", "2023-08-31"));
+    assertTrue(cache.isEmpty("diku", "oai_dc", null, "2023-09-01", "2023-09-30"));
+  }
+
+  @Test
+  void shouldNotStoreWindowWithUnknownDateFormat() {
+    cache.putEmpty("diku", "oai_dc", null, "2023-08-01T10:00:00.000Z", null);
+
+    assertFalse(cache.isEmpty("diku", "oai_dc", null, "2023-08-01T10:00:00.000Z", null));
+  }
+}
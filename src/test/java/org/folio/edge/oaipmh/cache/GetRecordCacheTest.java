@@ -0,0 +1,63 @@
+package org.folio.edge.oaipmh.cache;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import io.vertx.core.buffer.Buffer;
+import org.junit.jupiter.api.Test;
+
+class GetRecordCacheTest {
+
+  private static final Buffer BODY = Buffer.buffer("<OAI-PMH><GetRecord/></OAI-PMH>");
+
+  @Test
+  void shouldBuildKeyFromTenantIdentifierAndMetadataPrefix() {
+    assertEquals("diku&oai_dc&oai:folio.org:diku/1",
+          GetRecordCache.key("diku", "oai:folio.org:diku/1", "oai_dc"));
+    assertNotEquals(GetRecordCache.key("diku", "oai:folio.org:diku/1", "oai_dc"),
+          GetRecordCache.key("diku", "oai:folio.org:diku/1", "marc21"));
+  }
+
+  @Test
+  void shouldReturnStoredResponse() {
+    var cache = new GetRecordCache(1024 * 1024, 60_000, 16 * 1024, false);
+    var stored = cache.put("key", 200, BODY);
+
+    assertEquals(BODY, stored.body());
+    assertNull(stored.gzippedBody());
+    assertEquals(200, cache.get("key").statusCode());
+    assertEquals(BODY, cache.get("key").body());
+    assertEquals(stored.storedAt(), cache.get("key").storedAt());
+    assertNull(cache.get("other"));
+  }
+
+  @Test
+  void shouldCopyLargeBodiesOffHeap() {
+    var cache = new GetRecordCache(1024 * 1024, 60_000, 16, true);
+    cache.put("small", 200, Buffer.buffer("<a/>"));
+    var stored = cache.put("large", 200, BODY);
+    var large = cache.get("large");
+
+    assertFalse(cache.isOffHeap("small"));
+    assertTrue(cache.isOffHeap("large"));
+    assertEquals(BODY, large.body());
+    assertEquals(stored.gzippedBody(), large.gzippedBody());
+    assertNotNull(large.gzippedBody());
+  }
+
+  @Test
+  void shouldEvictWhenSizeLimitIsExceeded() {
+    var cache = new GetRecordCache(BODY.length() * 3L, 60_000, 16 * 1024, false);
+    for (int i = 0; i < 10; i++) {
+      cache.put("key" + i, 200, BODY);
+    }
+    cache.getEntries().cleanUp();
+
+    assertTrue(cache.getEntries().estimatedSize() < 10);
+    assertTrue(cache.getEntries().stats().evictionCount() > 0);
+  }
+}
@@ -0,0 +1,126 @@
+package org.folio.edge.oaipmh.cache;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+
+import io.vertx.core.Future;
+import io.vertx.core.Promise;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import org.folio.edge.oaipmh.metrics.OaiPmhMetrics;
+import org.junit.jupiter.api.Test;
+
+class OkapiTokenCacheTest {
+
+  private final AtomicLong now = new AtomicLong(1_000_000_000L);
+  private final AtomicInteger logins = new AtomicInteger();
+  private final OkapiTokenCache cache = new OkapiTokenCache(2, 60_000,
+        new OaiPmhMetrics().registerCache(OaiPmhMetrics.CACHE_TOKENS), now::get);
+
+  @Test
+  void shouldReadExpirationTime() {
+    assertEquals(1_000_600_000L, OkapiTokenCache.expirationTime(jwt(1_000_600L)));
+    assertEquals(-1, OkapiTokenCache.expirationTime("opaque"));
+    assertEquals(-1, OkapiTokenCache.expirationTime("a.bm90IGpzb24.c"));
+  }
+
+  @Test
+  void shouldCacheTokenUntilRenewal() {
+    var token = jwt(now.get() / 1000 + 600);
+
+    assertEquals(token, cache.get("salt", "diku", "user", () -> login(token)).result());
+    assertEquals(token, cache.get("salt", "diku", "user", () -> login("other")).result());
+    assertEquals(1, logins.get());
+    assertEquals("other", cache.get("salt", "central", "user", () -> login("other")).result());
+    assertEquals(2, logins.get());
+  }
+
+  @Test
+  void shouldRenewTokenInBackgroundBeforeExpiry() {
+    var token = jwt(now.get() / 1000 + 600);
+    var renewed = jwt(now.get() / 1000 + 1200);
+    cache.get("salt", "diku", "user", () -> login(token));
+    now.addAndGet(600_000 - 60_000);
+    Promise<String> renewal = Promise.promise();
+
+    assertEquals(token,
+          cache.get("salt", "diku", "user", () -> loginWith(renewal.future())).result());
+    assertEquals(token,
+          cache.get("salt", "diku", "user", () -> loginWith(renewal.future())).result());
+    assertEquals(2, logins.get());
+    renewal.complete(renewed);
+    assertEquals(renewed, cache.get("salt", "diku", "user", () -> login("other")).result());
+    assertEquals(2, logins.get());
+  }
+
+  @Test
+  void shouldShareConcurrentLogins() {
+    Promise<String> response = Promise.promise();
+    var first = cache.get("salt", "diku", "user", () -> loginWith(response.future()));
+    var second = cache.get("salt", "diku", "user", () -> loginWith(response.future()));
+    response.complete("opaque");
+
+    assertEquals(1, logins.get());
+    assertEquals("opaque", first.result());
+    assertEquals("opaque", second.result());
+    cache.get("salt", "diku", "user", () -> login("opaque"));
+    assertEquals(2, logins.get());
+  }
+
+  @Test
+  void shouldKeyOnSalt() {
+    var token = jwt(now.get() / 1000 + 600);
+
+    assertEquals(token, cache.get("salt", "diku", "user", () -> login(token)).result());
+    assertEquals("other", cache.get("other-salt", "diku", "user", () -> login("other")).result());
+    assertEquals(2, logins.get());
+  }
+
+  @Test
+  void shouldFailLoginThatThrows() {
+    var failed = cache.get("salt", "diku", "user", () -> {
+      throw new IllegalStateException("No secure store");
+    });
+
+    assertInstanceOf(IllegalStateException.class, failed.cause());
+    assertEquals("opaque", cache.get("salt", "diku", "user", () -> login("opaque")).result());
+    assertEquals(1, logins.get());
+  }
+
+  @Test
+  void shouldBoundCachedTokens() {
+    var token = jwt(now.get() / 1000 + 600);
+    cache.get("salt", "diku", "user", () -> login(token));
+    cache.get("salt", "central", "user", () -> login(token));
+    cache.get("salt", "college", "user", () -> login(token));
+
+    assertEquals(2, cache.size());
+  }
+
+  @Test
+  void shouldEvictExpiredTokens() {
+    // usable for less than the expiry margin already
+    cache.get("salt", "diku", "user", () -> login(jwt(now.get() / 1000 + 5)));
+
+    assertEquals(0, cache.size());
+  }
+
+  private Future<String> login(String token) {
+    return loginWith(Future.succeededFuture(token));
+  }
+
+  private Future<String> loginWith(Future<String> token) {
+    logins.incrementAndGet();
+    return token;
+  }
+
+  private static String jwt(long exp) {
+    var encoder = Base64.getUrlEncoder().withoutPadding();
+    return encoder.encodeToString("{\"alg\":\"HS256\"}".getBytes(StandardCharsets.UTF_8)) + "."
+          + encoder.encodeToString(("{\"sub\":\"user\",\"exp\":" + exp + "}")
+                .getBytes(StandardCharsets.UTF_8))
+          + ".signature";
+  }
+}
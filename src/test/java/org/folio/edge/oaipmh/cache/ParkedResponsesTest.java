@@ -0,0 +1,49 @@
+package org.folio.edge.oaipmh.cache;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import io.vertx.core.Promise;
+import io.vertx.core.buffer.Buffer;
+import org.folio.edge.oaipmh.clients.UpstreamResponse;
+import org.junit.jupiter.api.Test;
+
+class ParkedResponsesTest {
+
+  private static final UpstreamResponse RESPONSE =
+        new UpstreamResponse(200, "OK", null, Buffer.buffer("<OAI-PMH/>"));
+
+  private final ParkedResponses parkedResponses = new ParkedResponses(1024, 60_000);
+
+  @Test
+  void shouldServeResponseOfParkedCallOnce() {
+    Promise<UpstreamResponse> call = Promise.promise();
+    parkedResponses.park("key", call.future());
+    call.complete(RESPONSE);
+
+    assertSame(RESPONSE, parkedResponses.take("key").result());
+    assertNull(parkedResponses.take("key"));
+  }
+
+  @Test
+  void shouldHandRunningCallToRetry() {
+    Promise<UpstreamResponse> call = Promise.promise();
+    parkedResponses.park("key", call.future());
+
+    var taken = parkedResponses.take("key");
+    assertFalse(taken.isComplete());
+    call.complete(RESPONSE);
+    assertSame(RESPONSE, taken.result());
+    assertNull(parkedResponses.take("key"));
+  }
+
+  @Test
+  void shouldDropFailedCall() {
+    Promise<UpstreamResponse> call = Promise.promise();
+    parkedResponses.park("key", call.future());
+    call.fail("Timeout");
+
+    assertNull(parkedResponses.take("key"));
+  }
+}
@@ -0,0 +1,72 @@
+package org.folio.edge.oaipmh.cache;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import io.vertx.core.Future;
+import io.vertx.core.Promise;
+import io.vertx.core.buffer.Buffer;
+import org.junit.jupiter.api.Test;
+
+class PrefetchCacheTest {
+
+  private static final Buffer PAGE = Buffer.buffer("<OAI-PMH><ListRecords/></OAI-PMH>");
+
+  private final PrefetchCache cache = new PrefetchCache(1024 * 1024, 60_000, 1);
+
+  @Test
+  void shouldServePrefetchedPageOnce() {
+    var key = PrefetchCache.key("diku", "ListRecords", "token");
+
+    assertTrue(cache.prefetch("diku", key, () -> Future.succeededFuture(PAGE)));
+    assertSame(PAGE, cache.take(key).result());
+    assertNull(cache.take(key));
+  }
+
+  @Test
+  void shouldHandOverPageBeingFetched() {
+    var key = PrefetchCache.key("diku", "ListRecords", "token");
+    Promise<Buffer> response = Promise.promise();
+    cache.prefetch("diku", key, response::future);
+
+    var taken = cache.take(key);
+    response.complete(PAGE);
+
+    assertSame(PAGE, taken.result());
+    assertNull(cache.take(key));
+  }
+
+  @Test
+  void shouldLimitPagesFetchedPerTenant() {
+    Promise<Buffer> response = Promise.promise();
+
+    assertTrue(cache.prefetch("diku", "first", response::future));
+    assertFalse(cache.prefetch("diku", "second", () -> Future.succeededFuture(PAGE)));
+    assertTrue(cache.prefetch("other", "third", () -> Future.succeededFuture(PAGE)));
+    assertFalse(cache.prefetch("other", "third", () -> Future.succeededFuture(PAGE)));
+    response.complete(PAGE);
+    assertTrue(cache.prefetch("diku", "second", () -> Future.succeededFuture(PAGE)));
+  }
+
+  @Test
+  void shouldNotHoldFailedPage() {
+    cache.prefetch("diku", "key", () -> Future.failedFuture("Status code: 500"));
+
+    assertNull(cache.take("key"));
+    assertEquals(0, cache.getPages().estimatedSize());
+  }
+
+  @Test
+  void shouldReleaseSlotOfFetchThatThrows() {
+    assertFalse(cache.prefetch("diku", "key", () -> {
+      throw new IllegalStateException("No client");
+    }));
+
+    assertNull(cache.take("key"));
+    assertTrue(cache.prefetch("diku", "key", () -> Future.succeededFuture(PAGE)));
+    assertSame(PAGE, cache.take("key").result());
+  }
+}
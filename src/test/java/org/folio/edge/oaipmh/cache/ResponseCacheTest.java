@@ -0,0 +1,105 @@
+package org.folio.edge.oaipmh.cache;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import io.vertx.core.MultiMap;
+import io.vertx.core.buffer.Buffer;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.zip.GZIPInputStream;
+import org.folio.edge.oaipmh.cache.ResponseCache.Freshness;
+import org.junit.jupiter.api.Test;
+
+class ResponseCacheTest {
+
+  private static final Buffer BODY = Buffer.buffer("<OAI-PMH><Identify/></OAI-PMH>");
+
+  private final AtomicLong now = new AtomicLong(1_000_000L);
+
+  @Test
+  void shouldBuildSameKeyForReorderedParametersWithoutApiKey() {
+    var first = MultiMap.caseInsensitiveMultiMap()
+          .add("verb", "ListMetadataFormats")
+          .add("identifier", "oai:folio.org:diku/1")
+          .add("apikey", "key1");
+    var second = MultiMap.caseInsensitiveMultiMap()
+          .add("identifier", "oai:folio.org:diku/1")
+          .add("verb", "ListMetadataFormats")
+          .add("apiKeyPath", "key2");
+
+    assertEquals(ResponseCache.key("diku", first), ResponseCache.key("diku", second));
+    assertEquals("diku&identifier=oai:folio.org:diku/1&verb=ListMetadataFormats",
+          ResponseCache.key("diku", first));
+    assertNotEquals(ResponseCache.key("diku", first), ResponseCache.key("other", first));
+  }
+
+  @Test
+  void shouldLeaveApiKeyOutOfKeyWhateverItsCase() {
+    var parameters = MultiMap.caseInsensitiveMultiMap()
+          .add("verb", "Identify")
+          .add("apiKey", "key1")
+          .add("APIKEYPATH", "key2");
+
+    assertEquals("diku&verb=Identify", ResponseCache.key("diku", parameters));
+  }
+
+  @Test
+  void shouldServeStaleEntryUntilStaleWindowEnds() {
+    var cache = new ResponseCache(10, 100, 1000, false, now::get);
+    var stored = cache.put("key", 200, BODY);
+
+    assertSame(stored, cache.get("key"));
+    assertEquals(Freshness.FRESH, cache.freshness(stored));
+    now.addAndGet(100);
+    assertSame(stored, cache.get("key"));
+    assertEquals(Freshness.STALE, cache.freshness(stored));
+    now.addAndGet(1000);
+    assertNull(cache.get("key"));
+    assertEquals(0, cache.size());
+  }
+
+  @Test
+  void shouldAllowSingleRefreshPerKey() {
+    var cache = new ResponseCache(10, 100, 1000, false, now::get);
+
+    assertTrue(cache.startRefresh("key"));
+    assertFalse(cache.startRefresh("key"));
+    cache.finishRefresh("key");
+    assertTrue(cache.startRefresh("key"));
+  }
+
+  @Test
+  void shouldEvictLeastRecentlyUsedEntry() {
+    var cache = new ResponseCache(2, 100, 1000, false, now::get);
+    cache.put("first", 200, BODY);
+    cache.put("second", 200, BODY);
+    cache.get("first");
+
+    cache.put("third", 200, BODY);
+
+    assertNotNull(cache.get("first"));
+    assertNull(cache.get("second"));
+    assertNotNull(cache.get("third"));
+  }
+
+  @Test
+  void shouldStoreGzippedBody() throws IOException {
+    var cache = new ResponseCache(10, 100, 1000, true, now::get);
+
+    var stored = cache.put("key", 200, BODY);
+
+    try (var gzip = new GZIPInputStream(new ByteArrayInputStream(
+          stored.gzippedBody().getBytes()))) {
+      assertEquals(BODY, Buffer.buffer(gzip.readAllBytes()));
+    }
+    assertNull(new ResponseCache(10, 100, 1000, false, now::get)
+          .put("key", 200, BODY).gzippedBody());
+  }
+}
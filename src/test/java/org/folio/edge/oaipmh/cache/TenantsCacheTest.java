@@ -0,0 +1,92 @@
+package org.folio.edge.oaipmh.cache;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import io.vertx.core.Future;
+import io.vertx.core.Promise;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import org.folio.edge.oaipmh.metrics.OaiPmhMetrics;
+import org.folio.edge.oaipmh.metrics.OaiPmhMetrics.CacheMeters;
+import org.junit.jupiter.api.Test;
+
+class TenantsCacheTest {
+
+  private static final List<String> TENANTS = List.of("central", "member");
+
+  private final AtomicLong now = new AtomicLong(1_000_000L);
+  private final AtomicInteger loads = new AtomicInteger();
+  private final CacheMeters meters = new OaiPmhMetrics().cache(OaiPmhMetrics.CACHE_TENANTS);
+  private final TenantsCache cache = new TenantsCache(10, 100, 1000, meters, now::get);
+
+  @Test
+  void shouldShareConcurrentLoads() {
+    Promise<List<String>> response = Promise.promise();
+    var first = cache.get("central", () -> load(response.future()));
+    var second = cache.get("central", () -> load(response.future()));
+    response.complete(TENANTS);
+
+    assertEquals(1, loads.get());
+    assertEquals(TENANTS, first.result());
+    assertEquals(TENANTS, second.result());
+    assertEquals(TENANTS, cache.get("central", () -> load(response.future())).result());
+    assertEquals(1, loads.get());
+    assertEquals(1, meters.hits().count());
+    assertEquals(2, meters.misses().count());
+  }
+
+  @Test
+  void shouldRefreshInBackgroundBeforeExpiry() {
+    cache.get("central", () -> load(Future.succeededFuture(TENANTS)));
+    now.addAndGet(100);
+    Promise<List<String>> refresh = Promise.promise();
+
+    assertEquals(TENANTS, cache.get("central", () -> load(refresh.future())).result());
+    assertEquals(TENANTS, cache.get("central", () -> load(refresh.future())).result());
+    assertEquals(2, loads.get());
+    refresh.complete(List.of("central"));
+    assertEquals(List.of("central"),
+          cache.get("central", () -> load(Future.succeededFuture(TENANTS))).result());
+    assertEquals(2, loads.get());
+  }
+
+  @Test
+  void shouldServeExpiredEntryIfLoadFails() {
+    cache.get("central", () -> load(Future.succeededFuture(TENANTS)));
+    now.addAndGet(1000);
+
+    assertEquals(TENANTS, cache.get("central", () -> load(Future.failedFuture("Timeout")))
+          .result());
+    assertTrue(cache.get("other", () -> load(Future.failedFuture("Timeout"))).failed());
+    assertEquals(2, meters.failedLoads().count());
+  }
+
+  @Test
+  void shouldNotStoreEmptyList() {
+    assertEquals(List.of(), cache.get("central", () -> load(Future.succeededFuture(List.of())))
+          .result());
+    cache.get("central", () -> load(Future.succeededFuture(TENANTS)));
+
+    assertEquals(2, loads.get());
+  }
+
+  @Test
+  void shouldFailLoadThatThrows() {
+    var failed = cache.get("central", () -> {
+      throw new IllegalStateException("No Okapi client");
+    });
+
+    assertInstanceOf(IllegalStateException.class, failed.cause());
+    assertEquals(TENANTS, cache.get("central", () -> load(Future.succeededFuture(TENANTS)))
+          .result());
+    assertEquals(1, loads.get());
+  }
+
+  private Future<List<String>> load(Future<List<String>> result) {
+    loads.incrementAndGet();
+    return result;
+  }
+}
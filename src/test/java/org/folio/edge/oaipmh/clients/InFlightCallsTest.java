@@ -0,0 +1,77 @@
+package org.folio.edge.oaipmh.clients;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import io.vertx.core.Future;
+import io.vertx.core.Promise;
+import io.vertx.core.buffer.Buffer;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.Test;
+
+class InFlightCallsTest {
+
+  private static final UpstreamResponse RESPONSE =
+        new UpstreamResponse(200, "OK", null, Buffer.buffer("<OAI-PMH/>"));
+
+  private final InFlightCalls calls = new InFlightCalls();
+  private final AtomicInteger sent = new AtomicInteger();
+  private final AtomicInteger shared = new AtomicInteger();
+
+  @Test
+  void shouldShareResponseOfRunningCall() {
+    Promise<UpstreamResponse> response = Promise.promise();
+    var first = calls.call("key", () -> send(response.future()), shared::incrementAndGet);
+    var second = calls.call("key", () -> send(response.future()), shared::incrementAndGet);
+    response.complete(RESPONSE);
+
+    assertEquals(1, sent.get());
+    assertEquals(1, shared.get());
+    assertSame(RESPONSE, first.result());
+    assertSame(RESPONSE, second.result());
+    assertEquals(0, calls.size());
+  }
+
+  @Test
+  void shouldSendCallAgainOnceRunningOneHasCompleted() {
+    calls.call("key", () -> send(Future.failedFuture("Timeout")), shared::incrementAndGet);
+    var next = calls.call("key", () -> send(Future.succeededFuture(RESPONSE)),
+          shared::incrementAndGet);
+    calls.call("other", () -> send(Future.succeededFuture(RESPONSE)), shared::incrementAndGet);
+
+    assertTrue(next.succeeded());
+    assertEquals(3, sent.get());
+    assertEquals(0, shared.get());
+  }
+
+  @Test
+  void shouldFailCallThatThrows() {
+    var failed = calls.call("key", () -> {
+      throw new IllegalStateException("Connection pool closed");
+    }, shared::incrementAndGet);
+
+    assertInstanceOf(IllegalStateException.class, failed.cause());
+    assertEquals(0, calls.size());
+    assertTrue(calls.call("key", () -> send(Future.succeededFuture(RESPONSE)),
+          shared::incrementAndGet).succeeded());
+    assertEquals(0, shared.get());
+  }
+
+  @Test
+  void shouldKeyOnTenantAndParameters() {
+    assertEquals(InFlightCalls.key("diku", "verb=Identify"),
+          InFlightCalls.key("diku", "verb=Identify"));
+    assertNotEquals(InFlightCalls.key("diku", "verb=Identify"),
+          InFlightCalls.key("central", "verb=Identify"));
+    assertNotEquals(InFlightCalls.key("diku", "verb=Identify"),
+          InFlightCalls.key("diku", "verb=ListSets"));
+  }
+
+  private Future<UpstreamResponse> send(Future<UpstreamResponse> response) {
+    sent.incrementAndGet();
+    return response;
+  }
+}
@@ -0,0 +1,114 @@
+package org.folio.edge.oaipmh.limit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import io.vertx.core.Vertx;
+import io.vertx.junit5.VertxExtension;
+import io.vertx.junit5.VertxTestContext;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+
+@ExtendWith(VertxExtension.class)
+class AdaptiveConcurrencyLimiterTest {
+
+  @Test
+  void shouldQueueCallsBeyondLimitAndRejectOnceQueueIsFull(Vertx vertx) {
+    var limiter = new AdaptiveConcurrencyLimiter(1, 1, 10, 1, 0, 60_000);
+    var first = limiter.acquire(vertx, "diku", 1);
+    var second = limiter.acquire(vertx, "diku", 1);
+    var third = limiter.acquire(vertx, "diku", 1);
+
+    assertTrue(first.succeeded());
+    assertFalse(second.isComplete());
+    assertInstanceOf(AdaptiveConcurrencyLimiter.RejectedException.class, third.cause());
+    assertEquals(1, limiter.getInFlight());
+    assertEquals(1, limiter.getQueued());
+    assertNull(limiter.tryAcquire());
+
+    first.result().release(true);
+    assertTrue(second.succeeded());
+    assertEquals(1, limiter.getInFlight());
+    assertEquals(0, limiter.getQueued());
+  }
+
+  @Test
+  void shouldRejectCallsWaitingTooLong(Vertx vertx, VertxTestContext context) {
+    var limiter = new AdaptiveConcurrencyLimiter(1, 1, 10, 10, 50, 60_000);
+    var first = limiter.acquire(vertx, "diku", 1);
+
+    limiter.acquire(vertx, "diku", 1)
+          .onComplete(context.failing(throwable -> context.verify(() -> {
+            assertInstanceOf(AdaptiveConcurrencyLimiter.RejectedException.class, throwable);
+            assertEquals(0, limiter.getQueued());
+            first.result().release(true);
+            assertEquals(0, limiter.getInFlight());
+            context.completeNow();
+          })));
+  }
+
+  @Test
+  void shouldGrowLimitWhileCallsAreFast(Vertx vertx) {
+    var limiter = new AdaptiveConcurrencyLimiter(2, 1, 10, 0, 0, 60_000);
+    for (int i = 0; i < 4; i++) {
+      limiter.acquire(vertx, "diku", 1).result().release(true);
+    }
+
+    assertEquals(3, limiter.getLimit());
+  }
+
+  @Test
+  void shouldShrinkLimitWhenCallsFail(Vertx vertx) {
+    var limiter = new AdaptiveConcurrencyLimiter(10, 2, 10, 0, 0, 60_000);
+    limiter.acquire(vertx, "diku", 1).result().release(false);
+    assertEquals(9, limiter.getLimit());
+    for (int i = 0; i < 20; i++) {
+      limiter.acquire(vertx, "diku", 1).result().release(false);
+    }
+    assertEquals(2, limiter.getLimit());
+  }
+
+  @Test
+  void shouldNotTimeCallsKnownToBeSlow(Vertx vertx) throws InterruptedException {
+    var limiter = new AdaptiveConcurrencyLimiter(10, 2, 10, 0, 0, 1);
+    var slow = limiter.acquire(vertx, "diku", 1).result();
+    Thread.sleep(10);
+    slow.release(true, false);
+    assertEquals(10, limiter.getLimit());
+
+    var timed = limiter.acquire(vertx, "diku", 1).result();
+    Thread.sleep(10);
+    timed.release(true);
+    assertEquals(9, limiter.getLimit());
+
+    limiter.acquire(vertx, "diku", 1).result().release(false, false);
+    assertEquals(8, limiter.getLimit());
+  }
+
+  @Test
+  void shouldNotAdaptLimitToCancelledCalls(Vertx vertx) throws InterruptedException {
+    var limiter = new AdaptiveConcurrencyLimiter(10, 2, 10, 0, 0, 1);
+    var cancelled = limiter.acquire(vertx, "diku", 1).result();
+    Thread.sleep(10);
+    cancelled.cancel();
+    cancelled.release(false);
+
+    assertEquals(10, limiter.getLimit());
+    assertEquals(0, limiter.getInFlight());
+  }
+
+  @Test
+  void shouldReleasePermitOnce() {
+    var limiter = new AdaptiveConcurrencyLimiter(1, 1, 1, 0, 0, 60_000);
+    var permit = limiter.tryAcquire();
+    assertNotNull(permit);
+
+    permit.release(true);
+    permit.release(true);
+    assertEquals(0, limiter.getInFlight());
+  }
+}
@@ -0,0 +1,45 @@
+package org.folio.edge.oaipmh.limit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.Test;
+
+class RateLimiterTest {
+
+  @Test
+  void shouldThrottleKeyOverRequestsBudget() {
+    var rateLimiter = new RateLimiter(0.5, 2, 0, 0);
+
+    assertNull(rateLimiter.tryAcquire("central"));
+    assertNull(rateLimiter.tryAcquire("central"));
+    var throttling = rateLimiter.tryAcquire("central");
+    assertNotNull(throttling);
+    assertEquals(RateLimiter.BUDGET_REQUESTS, throttling.budget());
+    assertEquals(2, throttling.retryAfterSeconds());
+    assertNull(rateLimiter.tryAcquire("college"));
+    assertEquals(1, rateLimiter.getThrottledKeys());
+  }
+
+  @Test
+  void shouldThrottleKeyOverBytesBudget() {
+    var rateLimiter = new RateLimiter(0, 0, 1000, 1000);
+
+    assertNull(rateLimiter.tryAcquire("central"));
+    rateLimiter.recordBytes("central", 3000);
+    var throttling = rateLimiter.tryAcquire("central");
+    assertNotNull(throttling);
+    assertEquals(RateLimiter.BUDGET_BYTES, throttling.budget());
+    assertEquals(2, throttling.retryAfterSeconds());
+  }
+
+  @Test
+  void shouldRoundRetryAfterUpToSeconds() {
+    assertEquals(1, new RateLimiter.Throttling(RateLimiter.BUDGET_REQUESTS, 1)
+          .retryAfterSeconds());
+    assertEquals(3, new RateLimiter.Throttling(RateLimiter.BUDGET_BYTES,
+          TimeUnit.MILLISECONDS.toNanos(2001)).retryAfterSeconds());
+  }
+}
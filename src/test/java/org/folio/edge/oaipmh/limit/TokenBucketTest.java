@@ -0,0 +1,42 @@
+package org.folio.edge.oaipmh.limit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.jupiter.api.Test;
+
+class TokenBucketTest {
+
+  private static final long SECOND = TimeUnit.SECONDS.toNanos(1);
+
+  private final AtomicLong now = new AtomicLong(1_000 * SECOND);
+  private final TokenBucket bucket = new TokenBucket(2, 4, now::get);
+
+  @Test
+  void shouldAllowBurstThenRefillAtRate() {
+    assertEquals(0, bucket.tryAcquire(1));
+    assertEquals(0, bucket.tryAcquire(1));
+    assertEquals(SECOND / 4, bucket.tryAcquire(1));
+    now.addAndGet(SECOND / 4);
+    assertEquals(0, bucket.tryAcquire(1));
+  }
+
+  @Test
+  void shouldNotRefillAboveCapacity() {
+    now.addAndGet(10 * SECOND);
+
+    assertEquals(2, bucket.getAvailable());
+    assertEquals(SECOND / 4, bucket.tryAcquire(3));
+  }
+
+  @Test
+  void shouldWaitUntilDebtIsPaid() {
+    bucket.consume(4);
+
+    assertEquals(-2, bucket.getAvailable());
+    assertEquals(SECOND / 2, bucket.tryAcquire(0));
+    now.addAndGet(SECOND / 2);
+    assertEquals(0, bucket.tryAcquire(0));
+  }
+}
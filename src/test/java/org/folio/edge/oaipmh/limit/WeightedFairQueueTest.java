@@ -0,0 +1,75 @@
+package org.folio.edge.oaipmh.limit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+
+class WeightedFairQueueTest {
+
+  private final WeightedFairQueue<String> queue = new WeightedFairQueue<>();
+
+  @Test
+  void shouldInterleaveFlowsByWeight() {
+    for (int i = 0; i < 6; i++) {
+      queue.add("central", 1, "central" + i);
+    }
+    for (int i = 0; i < 4; i++) {
+      queue.add("college", 2, "college" + i);
+    }
+
+    assertEquals(List.of("college0", "central0", "college1", "college2", "central1", "college3",
+          "central2", "central3", "central4", "central5"), pollAll());
+    assertNull(queue.poll());
+    assertTrue(queue.isEmpty());
+  }
+
+  @Test
+  void shouldNotLetIdleFlowBuildUpCredit() {
+    for (int i = 0; i < 4; i++) {
+      queue.add("central", 1, "central" + i);
+    }
+    queue.poll();
+    queue.poll();
+    queue.add("college", 1, "college0");
+    queue.add("college", 1, "college1");
+
+    assertEquals(List.of("central2", "college0", "central3", "college1"), pollAll());
+  }
+
+  @Test
+  void shouldRemoveItem() {
+    var removed = "central1";
+    queue.add("central", 1, "central0");
+    queue.add("central", 1, removed);
+    queue.add("central", 1, "central2");
+
+    assertTrue(queue.remove(removed));
+    assertFalse(queue.remove(removed));
+    assertEquals(List.of("central0", "central2"), pollAll());
+  }
+
+  @Test
+  void shouldParseWeights() {
+    assertEquals(Map.of("central", 1.0, "college", 4.0),
+          WeightedFairQueue.parseWeights("central:1, college:4"));
+    assertEquals(Map.of(), WeightedFairQueue.parseWeights(null));
+    assertThrows(IllegalArgumentException.class, () -> WeightedFairQueue.parseWeights("central"));
+    assertThrows(IllegalArgumentException.class,
+          () -> WeightedFairQueue.parseWeights("central:0"));
+  }
+
+  private List<String> pollAll() {
+    List<String> polled = new ArrayList<>();
+    while (!queue.isEmpty()) {
+      polled.add(queue.poll());
+    }
+    return polled;
+  }
+}
@@ -0,0 +1,38 @@
+package org.folio.edge.oaipmh.metrics;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.concurrent.TimeUnit;
+import org.folio.edge.oaipmh.metrics.RequestTimings.Span;
+import org.junit.jupiter.api.Test;
+
+class RequestTimingsTest {
+
+  @Test
+  void shouldReportRecordedSpansInOrderWithTotal() {
+    var timings = new RequestTimings();
+    long start = System.nanoTime();
+    timings.record(Span.UPSTREAM, start - TimeUnit.MILLISECONDS.toNanos(120));
+    timings.record(Span.TOKEN, start - TimeUnit.MILLISECONDS.toNanos(3));
+    timings.record(Span.TOKEN, start - TimeUnit.MILLISECONDS.toNanos(2));
+
+    var serverTiming = timings.toServerTiming();
+
+    assertTrue(serverTiming.matches(
+          "token;dur=5\\.\\d, upstream;dur=120\\.\\d, total;dur=\\d+\\.\\d"), serverTiming);
+    assertTrue(timings.toLogString().matches("token=5\\.\\d upstream=120\\.\\d total=\\d+\\.\\d"));
+  }
+
+  @Test
+  void shouldNotRecordWhenDisabled() {
+    RequestTimings.DISABLED.record(Span.UPSTREAM, System.nanoTime());
+
+    assertTrue(RequestTimings.DISABLED.toServerTiming().startsWith("total;dur="));
+  }
+
+  @Test
+  void shouldReportTotalOnlyWithoutSpans() {
+    assertEquals(0, new RequestTimings().toLogString().indexOf("total="));
+  }
+}
@@ -19,6 +19,9 @@ import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
 import lombok.SneakyThrows;
 import lombok.extern.slf4j.Slf4j;
 import org.folio.edge.core.utils.test.MockOkapi;
@@ -74,6 +77,8 @@ public class OaiPmhMockOkapi extends MockOkapi {
       = "src/test/resources/mocks/userTenantsCollection.json";
   public static final String PATH_TO_USER_TENANTS_MOCK2
       = "src/test/resources/mocks/userTenantsCollection2.json";
+  public static final String PATH_TO_USER_TENANTS_MOCK3
+      = "src/test/resources/mocks/userTenantsCollection3.json";
   public static final String PATH_TO_CONSORTIUM_COLLECTION_MOCK
       = "src/test/resources/mocks/consortiumCollection.json";
   public static final String PATH_TO_CONSORTIUM_COLLECTION_MOCK2
@@ -84,6 +89,8 @@ public class OaiPmhMockOkapi extends MockOkapi {
       = "src/test/resources/mocks/consortiaTenants.json";
   public static final String PATH_TO_CONSORTIA_TENANTS_MOCK2
       = "src/test/resources/mocks/consortiaTenants2.json";
+  public static final String PATH_TO_CONSORTIA_TENANTS_MOCK3
+      = "src/test/resources/mocks/consortiaTenants3.json";
   private static final String GET_RECORD = "GetRecord";
   private static final String IDENTIFY = "Identify";
   private static final String LIST_RECORDS = "ListRecords";
@@ -93,9 +100,19 @@ public class OaiPmhMockOkapi extends MockOkapi {
         + "oai-pmh.records.collection.get";
 
   public static final long REQUEST_TIMEOUT_MS = 1000L;
+  // ListRecords calls to the tenant named after it in the set parameter, e.g.
+  // set=test-slow-tenant1, are answered after SLOW_RESPONSE_MS
+  public static final String SLOW_SET = "slow-";
+  public static final long SLOW_RESPONSE_MS = 500L;
+  // ListRecords calls from this date find no records at any tenant
+  public static final String NO_RECORDS_FROM = "2000-01-01";
   private static final String FORBIDDEN_STATUS_MESSAGE = "Forbidden";
+  private static final String DELAYED = "delayed";
 
   private final Vertx vertx;
+  private final Map<String, AtomicInteger> listRecordsCalls = new ConcurrentHashMap<>();
+  private final Map<String, AtomicInteger> listRecordsResets = new ConcurrentHashMap<>();
+  private volatile MultiMap lastOaiPmhHeaders;
 
   public OaiPmhMockOkapi(Vertx vertx, int port, List<String> knownTenants) {
     super(port, knownTenants);
@@ -135,12 +152,32 @@ public class OaiPmhMockOkapi extends MockOkapi {
     return router;
   }
 
+  /**
+   * Returns the number of ListRecords calls to the tenant with the set parameter.
+   */
+  public int getListRecordsCalls(String tenant, String set) {
+    return listRecordsCalls.getOrDefault(tenant + '&' + set, new AtomicInteger()).get();
+  }
+
+  /**
+   * Returns the number of ListRecords calls to the tenant with the set parameter that have been
+   * reset before they were answered.
+   */
+  public int getListRecordsResets(String tenant, String set) {
+    return listRecordsResets.getOrDefault(tenant + '&' + set, new AtomicInteger()).get();
+  }
+
+  public MultiMap getLastOaiPmhHeaders() {
+    return lastOaiPmhHeaders;
+  }
+
   private void oaiPmhHandler(RoutingContext ctx) {
 
     HttpServerRequest request = ctx.request();
     MultiMap requestParams = request.params();
     String path = request.path();
     String accept = request.getHeader(HttpHeaders.ACCEPT);
+    lastOaiPmhHeaders = request.headers();
 
     if (accept != null && !accept.equals(MOD_OAI_PMH_ACCEPTED_TYPES)) {
       log.debug("Unsupported MIME type requested: " + accept);
@@ -174,7 +211,15 @@ public class OaiPmhMockOkapi extends MockOkapi {
       throw new NullPointerException("NPE OKAPI mock emulation");
     } else if (paramsContainVerbWithName(requestParams, LIST_RECORDS)) {
       var tenantId = ctx.request().getHeader("x-okapi-tenant");
-      if (paramsContainParamWithValue(requestParams,
+      if (ctx.get(DELAYED) == null && delayListRecords(ctx, tenantId)) {
+        return;
+      }
+      if (paramsContainParamWithValue(requestParams, NO_RECORDS_FROM)) {
+        ctx.response()
+              .setStatusCode(200)
+              .putHeader(HttpHeaders.CONTENT_TYPE, TEXT_XML)
+              .end(getOaiPmhResponseAsXml(Paths.get(PATH_TO_LIST_RECORDS_ERROR_MOCK)));
+      } else if (paramsContainParamWithValue(requestParams,
             "bWV0YXRkYXRhUHJlZml4PW9haV9kYyZ0ZW5hbnRJZD1kaWt1")
             || tenantId.equals("tenant4")
             || (tenantId.equals("tenant2") && paramsContainParamWithValue(requestParams,
@@ -262,6 +307,32 @@ public class OaiPmhMockOkapi extends MockOkapi {
     }
   }
 
+  /**
+   * Counts the ListRecords call, and answers it after SLOW_RESPONSE_MS if it is slow.
+   *
+   * @return true if the call is answered later
+   */
+  private boolean delayListRecords(RoutingContext ctx, String tenantId) {
+    var set = ctx.request().getParam("set");
+    var key = tenantId + '&' + set;
+    listRecordsCalls.computeIfAbsent(key, k -> new AtomicInteger()).incrementAndGet();
+    if (set == null || !set.contains(SLOW_SET + tenantId)) {
+      return false;
+    }
+    ctx.response().closeHandler(v -> {
+      if (!ctx.response().ended()) {
+        listRecordsResets.computeIfAbsent(key, k -> new AtomicInteger()).incrementAndGet();
+      }
+    });
+    vertx.setTimer(SLOW_RESPONSE_MS, id -> {
+      if (!ctx.response().closed()) {
+        ctx.put(DELAYED, true);
+        oaiPmhHandler(ctx);
+      }
+    });
+    return true;
+  }
+
   private static boolean paramsContainVerbWithName(MultiMap requestParams, String verbName) {
     return requestParams.get(Constants.VERB).equals(verbName);
   }
@@ -282,6 +353,10 @@ public class OaiPmhMockOkapi extends MockOkapi {
       ctx.response()
             .setStatusCode(200)
             .end(new String(Files.readAllBytes(Path.of(PATH_TO_USER_TENANTS_MOCK2))));
+    } else if ("central3".equals(tenantId)) {
+      ctx.response()
+            .setStatusCode(200)
+            .end(new String(Files.readAllBytes(Path.of(PATH_TO_USER_TENANTS_MOCK3))));
     } else if ("empty_consortia".equals(tenantId)) {
       ctx.response()
             .setStatusCode(200)
@@ -297,7 +372,7 @@ public class OaiPmhMockOkapi extends MockOkapi {
   @SneakyThrows
   private void consortiaHandler(RoutingContext ctx) {
     var tenantId = ctx.request().getHeader("x-okapi-tenant");
-    if ("central".equals(tenantId)) {
+    if ("central".equals(tenantId) || "central3".equals(tenantId)) {
       ctx.response()
             .setStatusCode(200)
             .end(new String(Files.readAllBytes(Path.of(PATH_TO_CONSORTIUM_COLLECTION_MOCK))));
@@ -320,6 +395,10 @@ public class OaiPmhMockOkapi extends MockOkapi {
       ctx.response()
             .setStatusCode(200)
             .end(new String(Files.readAllBytes(Path.of(PATH_TO_CONSORTIA_TENANTS_MOCK))));
+    } else if ("central3".equals(tenantId)) {
+      ctx.response()
+            .setStatusCode(200)
+            .end(new String(Files.readAllBytes(Path.of(PATH_TO_CONSORTIA_TENANTS_MOCK3))));
     } else {
       ctx.response()
             .setStatusCode(200)
@@ -1,9 +1,15 @@
 package org.folio.edge.oaipmh.utils;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
+import io.vertx.core.Future;
 import io.vertx.core.MultiMap;
 import io.vertx.core.Vertx;
+import io.vertx.core.Promise;
+import io.vertx.core.http.HttpClientResponse;
+import io.vertx.core.http.HttpHeaders;
 import io.vertx.junit5.VertxExtension;
 import io.vertx.junit5.VertxTestContext;
 import java.nio.file.Paths;
@@ -61,7 +67,7 @@ class OaiPmhOkapiClientTest {
   }
 
   @Test
-  void testGetRecord(VertxTestContext context) {
+  void testGetRecord(Vertx vertx, VertxTestContext context) {
     log.info("=== Test successful OAI-PMH Request ===");
 
     // Request parameters
@@ -78,11 +84,11 @@ class OaiPmhOkapiClientTest {
           Paths.get(OaiPmhMockOkapi.PATH_TO_GET_RECORDS_MOCK)
     );
 
-    processRequest(context, parameters, headers, HttpStatus.SC_OK, expectedBody);
+    processRequest(vertx, context, parameters, headers, HttpStatus.SC_OK, expectedBody);
   }
 
   @Test
-  void testGetRecordError(VertxTestContext context) {
+  void testGetRecordError(Vertx vertx, VertxTestContext context) {
     log.info("=== Test error GetRecord OAI-PMH request ===");
 
     // Request parameters with unknown identifier
@@ -99,11 +105,11 @@ class OaiPmhOkapiClientTest {
           Paths.get(OaiPmhMockOkapi.PATH_TO_GET_RECORDS_ERROR_MOCK)
     );
 
-    processRequest(context, parameters, headers, HttpStatus.SC_NOT_FOUND, expectedBody);
+    processRequest(vertx, context, parameters, headers, HttpStatus.SC_NOT_FOUND, expectedBody);
   }
 
   @Test
-  void testIdentify(VertxTestContext context) {
+  void testIdentify(Vertx vertx, VertxTestContext context) {
     log.info("=== Test Identify OAI-PMH request ===");
 
     String expectedBody
@@ -118,21 +124,85 @@ class OaiPmhOkapiClientTest {
     // Request headers - empty
     MultiMap headers = MultiMap.caseInsensitiveMultiMap();
 
-    processRequest(context, parameters, headers, HttpStatus.SC_OK, expectedBody);
+    processRequest(vertx, context, parameters, headers, HttpStatus.SC_OK, expectedBody);
   }
 
-  private void processRequest(VertxTestContext context, MultiMap parameters, MultiMap headers,
-      int expectedHttpStatusCode, String expected) {
+  @Test
+  void testCancelledCall(Vertx vertx, VertxTestContext context) {
+    log.info("=== Test cancelled OAI-PMH request ===");
+
+    MultiMap parameters = MultiMap.caseInsensitiveMultiMap();
+    parameters.add(Constants.VERB, VerbType.IDENTIFY.value());
+
+    client.login("admin", "password")
+          .thenAccept(v -> client.send(vertx.createHttpClient(), parameters,
+                      Future.succeededFuture())
+                .compose(HttpClientResponse::body)
+                .onComplete(context.failing(throwable -> context.completeNow())));
+  }
+
+  @Test
+  void testForwardedHeaders(Vertx vertx, VertxTestContext context) {
+    log.info("=== Test headers of the harvester forwarded to OAI-PMH ===");
+
+    MultiMap parameters = MultiMap.caseInsensitiveMultiMap();
+    parameters.add(Constants.VERB, VerbType.IDENTIFY.value());
+
+    MultiMap headers = MultiMap.caseInsensitiveMultiMap()
+          .add("X-Forwarded-For", "192.0.2.1")
+          .add(HttpHeaders.ACCEPT, "text/xml")
+          .add(HttpHeaders.ACCEPT_ENCODING, "br")
+          .add(HttpHeaders.CONTENT_LENGTH, "42");
+
+    client.login("admin", "password")
+          .thenAccept(v -> client.send(vertx.createHttpClient(), parameters, headers,
+                      Promise.<Void>promise().future())
+                .compose(HttpClientResponse::body)
+                .onComplete(context.succeeding(body -> context.verify(() -> {
+                  var forwarded = mockOkapi.getLastOaiPmhHeaders();
+                  assertEquals("192.0.2.1", forwarded.get("X-Forwarded-For"));
+                  assertEquals(Constants.MOD_OAI_PMH_ACCEPTED_TYPES,
+                        forwarded.get(HttpHeaders.ACCEPT));
+                  assertNull(forwarded.get(HttpHeaders.ACCEPT_ENCODING));
+                  assertEquals(TENANT, forwarded.get("x-okapi-tenant"));
+                  context.completeNow();
+                }))));
+  }
+
+  @Test
+  void testLaneTimeout(Vertx vertx, VertxTestContext context) {
+    log.info("=== Test OAI-PMH request timing out in its lane ===");
+
+    MultiMap parameters = MultiMap.caseInsensitiveMultiMap();
+    parameters.add(Constants.VERB, VerbType.GET_RECORD.value());
+    parameters.add(Constants.IDENTIFIER, "TimeoutException");
+    parameters.add(Constants.METADATA_PREFIX, "oai_dc");
+
+    client.login("admin", "password")
+          .thenAccept(v -> {
+            long start = System.currentTimeMillis();
+            new OaiPmhOkapiClient(client, 100).send(vertx.createHttpClient(), parameters)
+                  .compose(HttpClientResponse::body)
+                  .onComplete(context.failing(throwable -> context.verify(() -> {
+                    assertTrue(System.currentTimeMillis() - start < REQUEST_TIMEOUT);
+                    context.completeNow();
+                  })));
+          });
+  }
+
+  private void processRequest(Vertx vertx, VertxTestContext context, MultiMap parameters,
+                              MultiMap headers, int expectedHttpStatusCode, String expected) {
     client.login("admin", "password")
-          .thenAcceptAsync(v -> client.call(parameters, headers,
-                response -> {
-              assertEquals(expectedHttpStatusCode, response.statusCode());
-              String body = response.bodyAsString();
-              log.info("oai-pmh-mod response body: " + body);
-              assertEquals(expected, body);
-              context.completeNow();
-            },
-                      t -> context.failNow(t.getMessage())
-        ));
+          .thenAccept(v -> client.send(vertx.createHttpClient(), parameters, headers,
+                      Promise.<Void>promise().future())
+                .compose(response -> response.body().map(body -> {
+                  log.info("oai-pmh-mod response body: " + body);
+                  context.verify(() -> {
+                    assertEquals(expectedHttpStatusCode, response.statusCode());
+                    assertEquals(expected, body.toString());
+                  });
+                  return body;
+                }))
+                .onComplete(context.succeeding(body -> context.completeNow())));
   }
 }
@@ -0,0 +1,43 @@
+package org.folio.edge.oaipmh.utils;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import io.vertx.core.buffer.Buffer;
+import java.nio.file.Paths;
+import org.junit.jupiter.api.Test;
+
+class ResponseConverterTest {
+
+  @Test
+  void shouldMarshalCompactAndFormattedOutputToSameResponse() {
+    var converter = ResponseConverter.getInstance();
+    var xml = OaiPmhMockOkapi.getOaiPmhResponseAsXml(
+          Paths.get(OaiPmhMockOkapi.PATH_TO_GET_RECORDS_MOCK));
+    var oaipmh = converter.toOaiPmh(Buffer.buffer(xml));
+
+    var formatted = converter.convertToBuffer(oaipmh, true).toString();
+    var compact = converter.convertToBuffer(oaipmh, false).toString();
+
+    assertTrue(formatted.contains("\n"));
+    assertFalse(compact.contains(">\n"));
+    assertEquals(formatted, converter.convertToString(converter.toOaiPmh(compact)));
+  }
+
+  @Test
+  void shouldReuseMarshallersAndCountMarshalCalls() {
+    var converter = ResponseConverter.getInstance();
+    var xml = OaiPmhMockOkapi.getOaiPmhResponseAsXml(
+          Paths.get(OaiPmhMockOkapi.PATH_TO_GET_RECORDS_MOCK));
+    var oaipmh = converter.toOaiPmh(xml);
+    long hits = converter.getPoolHits();
+    long marshalCount = converter.getMarshalCount();
+
+    converter.convertToString(oaipmh);
+    converter.convertToString(oaipmh);
+
+    assertEquals(marshalCount + 2, converter.getMarshalCount());
+    assertTrue(converter.getPoolHits() > hits);
+  }
+}
@@ -0,0 +1,90 @@
+package org.folio.edge.oaipmh.utils;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import io.vertx.core.buffer.Buffer;
+import java.nio.file.Paths;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.openarchives.oai._2.VerbType;
+
+class ResponseInspectorTest {
+
+  @Test
+  void shouldReturnResumptionTokenAndNoRecordsForEmptyListRecords() {
+    var summary = inspect(OaiPmhMockOkapi.PATH_TO_LIST_RECORDS_EMPTY_MOCK);
+
+    assertTrue(summary.isListRecords());
+    assertEquals(0, summary.getRecordCount());
+    assertEquals("bWV0YXRkYXRhUHJlZml4PW9haV9kYyZ0ZW5hbnRJZD1kaWt1",
+          summary.getResumptionToken());
+    assertEquals("62", summary.getCompleteListSize());
+    assertEquals("0", summary.getCursor());
+    assertEquals(VerbType.LIST_RECORDS, summary.getRequest().getVerb());
+    assertEquals("oai_dc", summary.getRequest().getMetadataPrefix());
+  }
+
+  @Test
+  void shouldCountRecordsWhenResumptionTokenIsAbsent() {
+    var summary = inspect(OaiPmhMockOkapi.PATH_TO_LIST_RECORDS_NO_TOKEN_MOCK);
+
+    assertTrue(summary.isListRecords());
+    assertEquals(1, summary.getRecordCount());
+    assertFalse(summary.hasResumptionToken());
+    assertTrue(summary.getErrorCodes().isEmpty());
+  }
+
+  @Test
+  void shouldCountHeadersAndReturnEmptyResumptionTokenForListIdentifiers() {
+    var summary = inspect(OaiPmhMockOkapi.PATH_TO_LIST_IDENTIFIERS_MOCK);
+
+    assertTrue(summary.isListIdentifiers());
+    assertEquals(10, summary.getRecordCount());
+    assertEquals("", summary.getResumptionToken());
+    assertEquals("62", summary.getCursor());
+  }
+
+  @Test
+  void shouldReturnErrorCodesAndRequestDates() {
+    var summary = inspect(OaiPmhMockOkapi.PATH_TO_LIST_RECORDS_ERROR_MOCK);
+
+    assertNull(summary.getVerb());
+    assertEquals(List.of("noRecordsMatch"), summary.getErrorCodes());
+    assertEquals("2023-08-30", summary.getRequest().getFrom());
+    assertEquals("2023-08-31", summary.getRequest().getUntil());
+  }
+
+  @Test
+  void shouldReturnVerbForNonListResponse() {
+    var summary = inspect(OaiPmhMockOkapi.PATH_TO_GET_RECORDS_MOCK);
+
+    assertEquals(VerbType.GET_RECORD.value(), summary.getVerb());
+    assertEquals(0, summary.getRecordCount());
+    assertFalse(summary.hasResumptionToken());
+  }
+
+  @Test
+  void shouldReturnEmptySummaryForEmptyBuffer() {
+    var summary = ResponseInspector.getInstance().inspect(Buffer.buffer());
+
+    assertNull(summary.getVerb());
+    assertNull(summary.getRequest());
+  }
+
+  @Test
+  void shouldFailOnMalformedResponse() {
+    var inspector = ResponseInspector.getInstance();
+    var buffer = Buffer.buffer("<OAI-PMH><ListRecords>");
+
+    assertThrows(IllegalStateException.class, () -> inspector.inspect(buffer));
+  }
+
+  private ResponseSummary inspect(String path) {
+    var xml = OaiPmhMockOkapi.getOaiPmhResponseAsXml(Paths.get(path));
+    return ResponseInspector.getInstance().inspect(Buffer.buffer(xml));
+  }
+}
@@ -0,0 +1,64 @@
+package org.folio.edge.oaipmh.utils;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import io.vertx.core.buffer.Buffer;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+
+class ResumptionTokenSplicerTest {
+
+  private static final String TOKEN = "dGVuYW50SWQ9dGVuYW50MQ";
+
+  @ParameterizedTest
+  @CsvSource(delimiter = '|', value = {
+    "<ListRecords><record/><resumptionToken cursor=\"1\"></resumptionToken></ListRecords>"
+        + "|<ListRecords><record/><resumptionToken cursor=\"1\">" + TOKEN
+        + "</resumptionToken></ListRecords>",
+    "<ListRecords><record/><resumptionToken>old</resumptionToken>  </ListRecords>"
+        + "|<ListRecords><record/><resumptionToken>" + TOKEN
+        + "</resumptionToken>  </ListRecords>",
+    "<ListRecords><record/><resumptionToken cursor=\"1\"/></ListRecords>"
+        + "|<ListRecords><record/><resumptionToken cursor=\"1\">" + TOKEN
+        + "</resumptionToken></ListRecords>",
+    "<ListRecords><record/> </ListRecords>"
+        + "|<ListRecords><record/> <resumptionToken>" + TOKEN
+        + "</resumptionToken> </ListRecords>"
+  })
+  void shouldSpliceResumptionToken(String response, String expected) {
+    var parts = ResumptionTokenSplicer.splice(Buffer.buffer(response), "ListRecords", TOKEN);
+
+    assertTrue(parts.isPresent());
+    assertEquals(expected, join(parts.get()));
+  }
+
+  @Test
+  void shouldKeepTrailingNewlineAfterResponse() {
+    var response = "<OAI-PMH><ListRecords><record/><resumptionToken>old</resumptionToken>"
+          + "</ListRecords></OAI-PMH>\n";
+    var parts = ResumptionTokenSplicer.splice(Buffer.buffer(response), "ListRecords", TOKEN);
+
+    assertTrue(parts.isPresent());
+    assertEquals("<OAI-PMH><ListRecords><record/><resumptionToken>" + TOKEN
+          + "</resumptionToken></ListRecords></OAI-PMH>\n", join(parts.get()));
+  }
+
+  @ParameterizedTest
+  @CsvSource(delimiter = '|', value = {
+    "<oai:ListRecords><oai:record/></oai:ListRecords>",
+    "<ListRecords><record/><resumptionTokenX>a</resumptionToken></ListRecords>"
+  })
+  void shouldNotSpliceUnrecognizedResponse(String response) {
+    assertTrue(ResumptionTokenSplicer.splice(Buffer.buffer(response), "ListRecords", TOKEN)
+          .isEmpty());
+  }
+
+  private String join(List<Buffer> parts) {
+    var buffer = Buffer.buffer();
+    parts.forEach(buffer::appendBuffer);
+    return buffer.toString();
+  }
+}
@@ -0,0 +1,98 @@
+package org.folio.edge.oaipmh.utils;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import io.vertx.core.Vertx;
+import io.vertx.junit5.VertxExtension;
+import io.vertx.junit5.VertxTestContext;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+
+@ExtendWith(VertxExtension.class)
+class XmlProcessingPoolTest {
+
+  @Test
+  void shouldRunInlineOnCallingThread() {
+    var pool = XmlProcessingPool.inline();
+
+    assertSame(Thread.currentThread(), pool.execute(Thread::currentThread).result());
+    assertInstanceOf(IllegalStateException.class, pool.execute(() -> {
+      throw new IllegalStateException("Malformed response");
+    }).cause());
+    assertEquals(2, pool.getInlineCount());
+    assertEquals(0, pool.getOffloadedCount());
+  }
+
+  @Test
+  void shouldCompleteOnCallerContext(Vertx vertx, VertxTestContext context) {
+    var pool = XmlProcessingPool.create(1, 1, false);
+    var callerContext = vertx.getOrCreateContext();
+
+    callerContext.runOnContext(v -> pool.execute(() -> Thread.currentThread().getName())
+          .onComplete(context.succeeding(threadName -> context.verify(() -> {
+            assertTrue(threadName.startsWith("oai-pmh-xml-"));
+            assertSame(callerContext, Vertx.currentContext());
+            assertEquals(1, pool.getOffloadedCount());
+            context.completeNow();
+          }))));
+  }
+
+  @Test
+  void shouldFailOnErrorOfTask(VertxTestContext context) {
+    var pool = XmlProcessingPool.create(1, 1, false);
+
+    pool.execute(() -> {
+      throw new StackOverflowError();
+    }).onComplete(context.failing(throwable -> context.verify(() -> {
+      assertInstanceOf(StackOverflowError.class, throwable);
+      context.completeNow();
+    })));
+  }
+
+  @Test
+  void shouldRunOnVirtualThreads(VertxTestContext context) {
+    var pool = XmlProcessingPool.create(1, 1, true);
+
+    pool.execute(() -> Thread.currentThread().isVirtual())
+          .onComplete(context.succeeding(virtual -> context.verify(() -> {
+            assertTrue(virtual);
+            context.completeNow();
+          })));
+  }
+
+  @Test
+  void shouldRejectTasksBeyondQueue() throws InterruptedException {
+    var pool = XmlProcessingPool.create(1, 1, false);
+    var started = new CountDownLatch(1);
+    var release = new CountDownLatch(1);
+    pool.execute(() -> {
+      started.countDown();
+      release.await();
+      return null;
+    });
+    started.await();
+
+    pool.execute(() -> "queued");
+    assertEquals(1, pool.getQueued());
+    assertInstanceOf(RejectedExecutionException.class, pool.execute(() -> "rejected").cause());
+    release.countDown();
+  }
+
+  @Test
+  void shouldRejectTasksOnceClosed(VertxTestContext context) {
+    var pool = XmlProcessingPool.create(1, 1, false);
+    var queued = pool.execute(() -> "queued");
+    pool.close();
+
+    assertInstanceOf(RejectedExecutionException.class, pool.execute(() -> "rejected").cause());
+    queued.onComplete(context.succeeding(result -> context.verify(() -> {
+      assertEquals("queued", result);
+      context.completeNow();
+    })));
+  }
+}